@@ -0,0 +1,78 @@
+package game.bench;
+
+import game.engine.Background;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.awt.Graphics2D;
+import java.awt.Image;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import javax.imageio.ImageIO;
+
+/**
+ * Compara el pintado del fondo de un nivel en una vista de 1920x1080: escalando la imagen
+ * completa al tamaño del mundo en cada frame o copiando solo la parte visible de las franjas
+ * de un {@link Background}, ya decodificadas en su caché tras la primera llamada.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Djava.awt.headless=true"})
+@State(Scope.Thread)
+public class BackgroundBenchmark {
+    private static final int SCREEN_WIDTH = 1920;
+    private static final int SCREEN_HEIGHT = 1080;
+
+    @Param({"/resources/imagen/fondoS2.png:5760", "/resources/imagen/Mapa3.png:3840"})
+    public String background;
+
+    private Image source;
+    private Background prepared;
+    private int worldWidth;
+    private BufferedImage screen;
+    private Graphics2D g;
+    private int offsetX;
+
+    @Setup
+    public void setUp() throws IOException {
+        String[] parts = background.split(":");
+        worldWidth = Integer.parseInt(parts[1]);
+        source = ImageIO.read(BackgroundBenchmark.class.getResource(parts[0]));
+        prepared = Background.load(parts[0], worldWidth, SCREEN_HEIGHT);
+        screen = new BufferedImage(SCREEN_WIDTH, SCREEN_HEIGHT, BufferedImage.TYPE_INT_RGB);
+        g = screen.createGraphics();
+        offsetX = (worldWidth - SCREEN_WIDTH) / 2;
+        g.translate(-offsetX, 0);
+    }
+
+    @TearDown
+    public void tearDown() {
+        g.dispose();
+        prepared.close();
+    }
+
+    @Benchmark
+    public BufferedImage scaledFullWorld() {
+        g.drawImage(source, 0, 0, worldWidth, SCREEN_HEIGHT, null);
+        return screen;
+    }
+
+    @Benchmark
+    public BufferedImage clippedViewport() {
+        prepared.draw(g, offsetX, 0, SCREEN_WIDTH, SCREEN_HEIGHT);
+        return screen;
+    }
+}
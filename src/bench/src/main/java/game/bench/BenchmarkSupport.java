@@ -0,0 +1,31 @@
+package game.bench;
+
+import java.awt.Rectangle;
+import java.util.Random;
+
+/**
+ * Datos comunes de los benchmarks.
+ */
+final class BenchmarkSupport {
+    /** Tamaño de tile usado por los niveles. */
+    static final int TILE_SIZE = 40;
+    /** Tamaño aproximado del área de colisión del jugador. */
+    static final int HITBOX_WIDTH = 60;
+    static final int HITBOX_HEIGHT = 120;
+
+    private BenchmarkSupport() {
+    }
+
+    /**
+     * Genera rectángulos del tamaño del jugador en posiciones aleatorias del mundo.
+     */
+    static Rectangle[] randomHitboxes(Random random, int count, int worldWidth, int worldHeight) {
+        Rectangle[] rects = new Rectangle[count];
+        for (int i = 0; i < count; i++) {
+            int x = random.nextInt(Math.max(1, worldWidth - HITBOX_WIDTH));
+            int y = random.nextInt(Math.max(1, worldHeight - HITBOX_HEIGHT));
+            rects[i] = new Rectangle(x, y, HITBOX_WIDTH, HITBOX_HEIGHT);
+        }
+        return rects;
+    }
+}
@@ -0,0 +1,63 @@
+package game.bench;
+
+import game.panlesBBDD.map.colisionsTools.CollisionManager;
+import game.panlesBBDD.map.colisionsTools.CollisionQuery;
+import game.panlesBBDD.map.colisionsTools.MergedCollisionManager;
+import game.panlesBBDD.map.colisionsTools.TileMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.awt.Rectangle;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mide {@link CollisionQuery#isColliding(Rectangle)} con rectángulos del tamaño del jugador
+ * repartidos por todo el mapa, con la rejilla de tiles ({@link CollisionManager}) y con los
+ * obstáculos fusionados ({@link MergedCollisionManager}).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Djava.awt.headless=true", "-Dastralis.headless=true"})
+@State(Scope.Thread)
+public class CollisionBenchmark {
+    private static final int PROBES = 1024;
+
+    @Param({"/resources/Map01.csv", "/resources/Map03.csv"})
+    public String map;
+
+    @Param({"grid", "merged"})
+    public String colliders;
+
+    private CollisionQuery collisionManager;
+    private Rectangle[] probes;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        TileMap tileMap = new TileMap(map, BenchmarkSupport.TILE_SIZE);
+        collisionManager = "merged".equals(colliders)
+                ? new MergedCollisionManager(tileMap)
+                : new CollisionManager(tileMap);
+        probes = BenchmarkSupport.randomHitboxes(new Random(42), PROBES,
+                tileMap.getWorldWidth(), tileMap.getWorldHeight());
+    }
+
+    @Benchmark
+    public boolean isColliding() {
+        Rectangle probe = probes[next];
+        next = (next + 1) & (PROBES - 1);
+        return collisionManager.isColliding(probe);
+    }
+}
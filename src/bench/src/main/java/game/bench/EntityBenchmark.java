@@ -0,0 +1,82 @@
+package game.bench;
+
+import game.objects.Collectible;
+import game.panlesBBDD.map.colisionsTools.SpatialHash;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.awt.Rectangle;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara la búsqueda de los coleccionables que toca el jugador en un nivel con muchos de ellos:
+ * probando todos con {@link Rectangle#intersects(Rectangle)} o consultando un
+ * {@link SpatialHash}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Djava.awt.headless=true", "-Dastralis.headless=true"})
+@State(Scope.Thread)
+public class EntityBenchmark {
+    private static final int PROBES = 1024;
+    private static final int WORLD_WIDTH = 20000;
+    private static final int WORLD_HEIGHT = 1080;
+
+    @Param({"10", "100", "1000"})
+    public int entities;
+
+    private List<Collectible> collectibles;
+    private SpatialHash<Collectible> index;
+    private final List<Collectible> nearby = new ArrayList<>();
+    private final Rectangle bounds = new Rectangle();
+    private Rectangle[] probes;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        collectibles = new ArrayList<>(entities);
+        index = new SpatialHash<>(256);
+        for (int i = 0; i < entities; i++) {
+            Collectible col = new Collectible(Collectible.Type.SANDIA,
+                    random.nextInt(WORLD_WIDTH), random.nextInt(WORLD_HEIGHT), 60, 60, "");
+            collectibles.add(col);
+            index.add(col);
+        }
+        probes = BenchmarkSupport.randomHitboxes(random, PROBES, WORLD_WIDTH, WORLD_HEIGHT);
+    }
+
+    @Benchmark
+    public int bruteForce() {
+        Rectangle probe = probes[next];
+        next = (next + 1) & (PROBES - 1);
+        int hits = 0;
+        for (int i = 0; i < collectibles.size(); i++) {
+            if (probe.intersects(collectibles.get(i).getBounds(bounds))) {
+                hits++;
+            }
+        }
+        return hits;
+    }
+
+    @Benchmark
+    public int spatialHash() {
+        Rectangle probe = probes[next];
+        next = (next + 1) & (PROBES - 1);
+        return index.query(probe, nearby);
+    }
+}
@@ -0,0 +1,95 @@
+package game.bench;
+
+import game.controls.movements.Player;
+import game.effects.FogParticleSystem;
+import game.effects.ParticleBuffer;
+import game.engine.GameClock;
+
+import java.util.Random;
+
+/**
+ * Comprueba que la rejilla de {@link FogParticleSystem} no cambia el resultado: simula dos
+ * nieblas densas con la misma semilla, una con rejilla y otra comprobando todas las partículas,
+ * con un jugador que se mueve a pasos cortos y a saltos (también fuera del área de niebla) y
+ * con cambios del ancho de generación, y compara en cada paso todas las partículas.
+ * <p>
+ * Uso: {@code java -cp target/benchmarks.jar game.bench.FogGridCheck [pasos]}. Termina con
+ * código 1 en la primera diferencia.
+ * </p>
+ */
+public final class FogGridCheck {
+    private static final int WORLD_WIDTH = 3840;
+    private static final int WORLD_HEIGHT = 1080;
+    private static final int DEFAULT_STEPS = 5000;
+    // Diez veces la niebla del nivel 3, para que haya muchas partículas junto al jugador
+    private static final int SPAWN_COUNT = 100;
+
+    private FogGridCheck() {
+    }
+
+    public static void main(String[] args) {
+        int steps = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_STEPS;
+        FogParticleSystem grid = createFog();
+        FogParticleSystem fullScan = createFog();
+        fullScan.setGridEnabled(false);
+        Player gridPlayer = new Player(0, 0, WORLD_WIDTH, new GameClock());
+        Player fullScanPlayer = new Player(0, 0, WORLD_WIDTH, new GameClock());
+        ParticleBuffer gridParticles = new ParticleBuffer();
+        ParticleBuffer fullScanParticles = new ParticleBuffer();
+
+        Random moves = new Random(9);
+        int x = WORLD_WIDTH / 2;
+        int y = WORLD_HEIGHT / 2;
+        for (int step = 0; step < steps; step++) {
+            if (moves.nextInt(50) == 0) {
+                x = moves.nextInt(WORLD_WIDTH + 600) - 300;
+                y = moves.nextInt(WORLD_HEIGHT + 400) - 200;
+            } else {
+                x += moves.nextInt(7) - 3;
+                y += moves.nextInt(5) - 2;
+            }
+            if (step % 1000 == 500) {
+                int width = 900 + moves.nextInt(WORLD_WIDTH - 900);
+                grid.setSpawnWidth(width);
+                fullScan.setSpawnWidth(width);
+            }
+            gridPlayer.setPosition(x, y);
+            fullScanPlayer.setPosition(x, y);
+            grid.update(gridPlayer);
+            fullScan.update(fullScanPlayer);
+
+            grid.copyTo(gridParticles);
+            fullScan.copyTo(fullScanParticles);
+            int mismatch = firstMismatch(gridParticles, fullScanParticles);
+            if (mismatch >= 0) {
+                System.err.println("Diferencia en el paso " + step + ", partícula " + mismatch
+                        + " (" + gridParticles.count + " frente a " + fullScanParticles.count + " partículas)");
+                System.exit(1);
+            }
+        }
+        System.out.println("Rejilla y recorrido completo coinciden en " + steps + " pasos ("
+                + gridParticles.count + " partículas al final)");
+    }
+
+    private static FogParticleSystem createFog() {
+        FogParticleSystem fog = new FogParticleSystem(0, 0, WORLD_HEIGHT, new Random(42));
+        fog.setSpawnWidth(WORLD_WIDTH);
+        fog.setSpawnCount(SPAWN_COUNT);
+        return fog;
+    }
+
+    /**
+     * Devuelve el índice de la primera partícula distinta, o -1 si coinciden todas.
+     */
+    private static int firstMismatch(ParticleBuffer a, ParticleBuffer b) {
+        int count = Math.min(a.count, b.count);
+        for (int i = 0; i < count; i++) {
+            if (Float.compare(a.x[i], b.x[i]) != 0 || Float.compare(a.y[i], b.y[i]) != 0
+                    || Float.compare(a.size[i], b.size[i]) != 0 || Float.compare(a.alpha[i], b.alpha[i]) != 0
+                    || a.colorRGB[i] != b.colorRGB[i]) {
+                return i;
+            }
+        }
+        return a.count != b.count ? count : -1;
+    }
+}
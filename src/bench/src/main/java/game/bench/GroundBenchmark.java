@@ -0,0 +1,67 @@
+package game.bench;
+
+import game.panlesBBDD.map.colisionsTools.CollisionManager;
+import game.panlesBBDD.map.colisionsTools.GroundQuery;
+import game.panlesBBDD.map.colisionsTools.TileMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.awt.Rectangle;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara dos formas de encontrar el suelo bajo una caja del tamaño del jugador: un barrido
+ * vertical largo con {@link CollisionManager#sweepY(Rectangle, int)} y la consulta al índice
+ * del suelo de {@link TileMap} ({@link GroundQuery#distanceToFloor(Rectangle)}).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Djava.awt.headless=true", "-Dastralis.headless=true"})
+@State(Scope.Thread)
+public class GroundBenchmark {
+    private static final int PROBES = 1024;
+
+    @Param({"/resources/Map01.amap", "/resources/Map03.amap"})
+    public String map;
+
+    private TileMap tileMap;
+    private CollisionManager collisionManager;
+    private Rectangle[] probes;
+    private int fallDistance;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        tileMap = new TileMap(map, BenchmarkSupport.TILE_SIZE);
+        collisionManager = new CollisionManager(tileMap);
+        fallDistance = tileMap.getWorldHeight();
+        probes = BenchmarkSupport.randomHitboxes(new Random(42), PROBES,
+                tileMap.getWorldWidth(), tileMap.getWorldHeight());
+    }
+
+    @Benchmark
+    public int sweepDown() {
+        Rectangle probe = probes[next];
+        next = (next + 1) & (PROBES - 1);
+        return collisionManager.sweepY(probe, fallDistance);
+    }
+
+    @Benchmark
+    public int floorIndex() {
+        Rectangle probe = probes[next];
+        next = (next + 1) & (PROBES - 1);
+        return tileMap.distanceToFloor(probe);
+    }
+}
@@ -0,0 +1,64 @@
+package game.bench;
+
+import game.effects.ParticleSystem;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara el paso de integración de un {@link ParticleSystem} en un solo hilo y repartido en
+ * tramos entre los hilos del {@code ForkJoinPool} común, para varios tamaños de conjunto. Las
+ * partículas no mueren durante la medida, de modo que cada operación recorre siempre las mismas.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Djava.awt.headless=true", "-Dastralis.headless=true"})
+@State(Scope.Thread)
+public class ParallelParticleBenchmark {
+    @Param({"2000", "20000", "200000", "1000000"})
+    private int particles;
+
+    private ParticleSystem serial;
+    private ParticleSystem parallel;
+
+    @Setup
+    public void setUp() {
+        serial = create(new Random(42));
+        serial.setParallelThreshold(Integer.MAX_VALUE);
+        parallel = create(new Random(42));
+    }
+
+    private ParticleSystem create(Random random) {
+        ParticleSystem system = new ParticleSystem(particles);
+        for (int i = 0; i < particles; i++) {
+            system.spawn(random.nextFloat() * 3840, random.nextFloat() * 1080,
+                    random.nextFloat() - 0.5f, random.nextFloat() - 0.5f, Float.MAX_VALUE, 0xBBBBBB, 2);
+        }
+        return system;
+    }
+
+    @Benchmark
+    public ParticleSystem serialIntegrate() {
+        serial.integrate(1f);
+        return serial;
+    }
+
+    @Benchmark
+    public ParticleSystem parallelIntegrate() {
+        parallel.integrate(1f);
+        return parallel;
+    }
+}
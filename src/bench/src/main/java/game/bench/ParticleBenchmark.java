@@ -0,0 +1,155 @@
+package game.bench;
+
+import game.controls.movements.Player;
+import game.effects.FogParticleSystem;
+import game.effects.LeafParticleEffect;
+import game.effects.ParticleBuffer;
+import game.effects.ParticleSystem;
+import game.effects.RainEffect;
+import game.engine.GameClock;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mide la actualización y el pintado de los efectos de partículas con su población estable
+ * (niebla del nivel 3 y otra diez veces más densa, hojas del nivel 1 y lluvia del nivel 2 a
+ * máxima intensidad), además de un {@link ParticleSystem} con decenas de miles de partículas.
+ * Cada operación corresponde a un paso de simulación o a un frame.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Djava.awt.headless=true", "-Dastralis.headless=true"})
+@State(Scope.Thread)
+public class ParticleBenchmark {
+    private static final int WORLD_WIDTH = 3840;
+    private static final int WORLD_HEIGHT = 1080;
+    private static final int WARMUP_STEPS = 400;
+    // Gotas del nivel 2 con la lluvia al máximo (600 x 1.8)
+    private static final int RAIN_DROPS = 1080;
+    private static final int MASS_PARTICLES = 50_000;
+    // Partículas de niebla generadas por paso en la variante densa (10 en el nivel 3)
+    private static final int DENSE_FOG_SPAWN = 100;
+
+    private Player player;
+    private FogParticleSystem fog;
+    private FogParticleSystem denseFog;
+    private LeafParticleEffect leaves;
+    private RainEffect rain;
+    private ParticleSystem mass;
+    private Random random;
+    private ParticleBuffer buffer;
+    private BufferedImage image;
+    private Graphics2D graphics;
+
+    @Setup
+    public void setUp() {
+        random = new Random(42);
+        player = new Player(1800, 850, WORLD_WIDTH, new GameClock());
+
+        fog = new FogParticleSystem(0, 0, WORLD_HEIGHT, random);
+        fog.setSpawnWidth(WORLD_WIDTH);
+        denseFog = new FogParticleSystem(0, 0, WORLD_HEIGHT, random);
+        denseFog.setSpawnWidth(WORLD_WIDTH);
+        denseFog.setSpawnCount(DENSE_FOG_SPAWN);
+        leaves = new LeafParticleEffect(WORLD_WIDTH, 1000, 150, random);
+        rain = new RainEffect(WORLD_WIDTH, WORLD_HEIGHT, RAIN_DROPS, random);
+        rain.setSpeedMultiplier(1.8f);
+        mass = new ParticleSystem(MASS_PARTICLES);
+        for (int i = 0; i < MASS_PARTICLES; i++) {
+            spawnMassParticle();
+        }
+        // Alcanzar la población estable antes de medir
+        for (int i = 0; i < WARMUP_STEPS; i++) {
+            fog.update(player);
+            denseFog.update(player);
+            leaves.update();
+            rainUpdate();
+        }
+
+        buffer = new ParticleBuffer();
+        image = new BufferedImage(WORLD_WIDTH, WORLD_HEIGHT, BufferedImage.TYPE_INT_ARGB);
+        graphics = image.createGraphics();
+    }
+
+    @TearDown
+    public void tearDown() {
+        graphics.dispose();
+    }
+
+    @Benchmark
+    public FogParticleSystem fogUpdate() {
+        fog.update(player);
+        return fog;
+    }
+
+    /**
+     * Niebla con diez veces más partículas que la del nivel 3 (unas 22.000).
+     */
+    @Benchmark
+    public FogParticleSystem denseFogUpdate() {
+        denseFog.update(player);
+        return denseFog;
+    }
+
+    @Benchmark
+    public ParticleBuffer fogDraw() {
+        fog.copyTo(buffer);
+        buffer.fillOvals(graphics);
+        return buffer;
+    }
+
+    @Benchmark
+    public LeafParticleEffect leafUpdate() {
+        leaves.update();
+        return leaves;
+    }
+
+    @Benchmark
+    public ParticleBuffer leafDraw() {
+        leaves.copyTo(buffer);
+        buffer.fillOvals(graphics);
+        return buffer;
+    }
+
+    /**
+     * Bucle de actualización de la lluvia del nivel 2.
+     */
+    @Benchmark
+    public RainEffect rainUpdate() {
+        rain.update();
+        return rain;
+    }
+
+    /**
+     * Paso de un conjunto de 50.000 partículas que se reponen a medida que mueren.
+     */
+    @Benchmark
+    public ParticleSystem massUpdate() {
+        mass.update();
+        while (mass.count < MASS_PARTICLES) {
+            spawnMassParticle();
+        }
+        return mass;
+    }
+
+    private void spawnMassParticle() {
+        mass.spawn(random.nextFloat() * WORLD_WIDTH, random.nextFloat() * WORLD_HEIGHT,
+                random.nextFloat() - 0.5f, random.nextFloat() - 0.5f, 50 + random.nextInt(200), 0xBBBBBB, 2);
+    }
+}
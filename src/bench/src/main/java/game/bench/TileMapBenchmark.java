@@ -0,0 +1,42 @@
+package game.bench;
+
+import game.panlesBBDD.map.colisionsTools.TileMap;
+import game.panlesBBDD.map.colisionsTools.TileMapFormat;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mide la construcción de un {@link TileMap} a partir de su CSV y de su versión compilada
+ * ({@link TileMapFormat}).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Djava.awt.headless=true", "-Dastralis.headless=true"})
+@State(Scope.Thread)
+public class TileMapBenchmark {
+
+    @Param({"/resources/Map01.csv", "/resources/Map03.csv"})
+    public String map;
+
+    @Benchmark
+    public TileMap loadCsv() {
+        return new TileMap(map, BenchmarkSupport.TILE_SIZE);
+    }
+
+    @Benchmark
+    public TileMap loadCompiled() {
+        return new TileMap(map.replace(".csv", TileMapFormat.EXTENSION), BenchmarkSupport.TILE_SIZE);
+    }
+}
@@ -0,0 +1,76 @@
+package game.bench;
+
+import game.effects.IntegrationKernel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara el paso de integración escalar con el de la Vector API sobre los mismos arrays de
+ * partículas. El fork carga {@code jdk.incubator.vector}; cada operación integra una vez todas
+ * las partículas.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Djava.awt.headless=true", "-Dastralis.headless=true",
+        "--add-modules=jdk.incubator.vector"})
+@State(Scope.Thread)
+public class VectorParticleBenchmark {
+    @Param({"1080", "50000", "1000000"})
+    private int particles;
+
+    private IntegrationKernel scalar;
+    private IntegrationKernel vector;
+    private float[] x;
+    private float[] y;
+    private float[] dx;
+    private float[] dy;
+    private float[] life;
+
+    @Setup
+    public void setUp() {
+        scalar = IntegrationKernel.scalar();
+        vector = IntegrationKernel.vector();
+        if (vector == null) {
+            throw new IllegalStateException("jdk.incubator.vector no está cargado");
+        }
+        Random random = new Random(42);
+        x = new float[particles];
+        y = new float[particles];
+        dx = new float[particles];
+        dy = new float[particles];
+        life = new float[particles];
+        for (int i = 0; i < particles; i++) {
+            x[i] = random.nextFloat() * 3840;
+            y[i] = random.nextFloat() * 1080;
+            dx[i] = random.nextFloat() - 0.5f;
+            dy[i] = random.nextFloat() - 0.5f;
+            life[i] = Float.MAX_VALUE;
+        }
+    }
+
+    @Benchmark
+    public float[] scalarIntegrate() {
+        scalar.integrate(x, y, dx, dy, life, 0, particles, 1.8f);
+        return x;
+    }
+
+    @Benchmark
+    public float[] vectorIntegrate() {
+        vector.integrate(x, y, dx, dy, life, 0, particles, 1.8f);
+        return x;
+    }
+}
@@ -0,0 +1,79 @@
+package game;
+
+import game.controls.movements.GamePanel;
+import game.controls.movements.GamePanelLevel2;
+import game.controls.movements.GamePanelLevel3;
+import game.engine.GameClock;
+import game.engine.GameLoop;
+import game.engine.Headless;
+import game.engine.InputQueue;
+import game.engine.LevelSimulation;
+
+import java.awt.event.KeyEvent;
+
+/**
+ * Ejecuta la lógica de un nivel sin interfaz, audio ni pintado, tan rápido como permita la CPU,
+ * e informa de los pasos de simulación por segundo.
+ * <p>
+ * Uso: {@code java game.HeadlessRunner [nivel 1-3] [pasos]}. Mientras no se indique otra
+ * entrada, un piloto automático mantiene pulsada la tecla derecha y salta una vez por segundo
+ * de juego, de modo que el jugador recorre el mapa y ejercita colisiones y entidades.
+ * </p>
+ */
+public class HeadlessRunner {
+    private static final long DEFAULT_TICKS = 100_000;
+    private static final int JUMP_INTERVAL_TICKS = GameLoop.DEFAULT_TICKS_PER_SECOND;
+
+    public static void main(String[] args) {
+        // Debe fijarse antes de crear cualquier clase del juego
+        System.setProperty("java.awt.headless", "true");
+        System.setProperty(Headless.PROPERTY, "true");
+
+        int level = args.length > 0 ? Integer.parseInt(args[0]) : 1;
+        long maxTicks = args.length > 1 ? Long.parseLong(args[1]) : DEFAULT_TICKS;
+
+        LevelSimulation simulation = createLevel(level);
+        GameLoop loop = simulation.getGameLoop();
+        InputQueue input = simulation.getInputQueue();
+
+        long ticks = 0;
+        long start = System.nanoTime();
+        while (ticks < maxTicks && loop.isRunning()) {
+            autopilot(input, ticks);
+            loop.step();
+            ticks++;
+        }
+        long elapsed = System.nanoTime() - start;
+
+        GameClock clock = loop.getClock();
+        double seconds = elapsed / 1_000_000_000.0;
+        System.out.printf("Nivel %d: %d pasos en %.3f s (%.0f pasos/s, %.1f s de juego, x%.1f tiempo real)%n",
+                level, ticks, seconds, ticks / seconds, clock.millis() / 1000.0,
+                clock.millis() / 1000.0 / seconds);
+        if (!loop.isRunning()) {
+            System.out.println("El nivel terminó antes de agotar los pasos.");
+        }
+        System.exit(0);
+    }
+
+    private static LevelSimulation createLevel(int level) {
+        switch (level) {
+            case 2: return new GamePanelLevel2();
+            case 3: return new GamePanelLevel3();
+            default: return new GamePanel();
+        }
+    }
+
+    /**
+     * Entrada simulada: avanzar hacia la derecha y saltar periódicamente.
+     */
+    private static void autopilot(InputQueue input, long tick) {
+        if (tick == 0) {
+            input.post(KeyEvent.VK_D, true);
+        }
+        if (tick % JUMP_INTERVAL_TICKS == JUMP_INTERVAL_TICKS / 2) {
+            input.post(KeyEvent.VK_W, true);
+            input.post(KeyEvent.VK_W, false);
+        }
+    }
+}
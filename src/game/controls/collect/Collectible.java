@@ -1,9 +1,12 @@
 package game.objects;
 
+import game.engine.Headless;
+import game.engine.ImageLoader;
+import game.panlesBBDD.map.colisionsTools.Collidable;
+
 import java.awt.Graphics;
 import java.awt.Image;
 import java.awt.Rectangle;
-import javax.swing.ImageIcon;
 
 /**
  * Representa un objeto coleccionable en el juego que el jugador puede recolectar,
@@ -12,7 +15,7 @@ import javax.swing.ImageIcon;
  *
  * @author
  */
-public class Collectible {
+public class Collectible implements Collidable {
 
     /**
      * Define los tipos disponibles para los objetos coleccionables.
@@ -52,12 +55,10 @@ public class Collectible {
         this.width = width;
         this.height = height;
         this.collected = false;
-        try {
-            image = new ImageIcon(getClass().getResource(imagePath)).getImage();
-        } catch (Exception e) {
-            System.err.println("Error al cargar la imagen de " + type + ": " + e.getMessage());
-            image = null;
+        if (Headless.isEnabled()) {
+            return;
         }
+        image = ImageLoader.load(imagePath, width, height);
     }
 
     /**
@@ -80,20 +81,52 @@ public class Collectible {
      * @param g Objeto Graphics utilizado para el renderizado.
      */
     public void draw(Graphics g) {
-        if (!collected && image != null) {
-            int yPos = baseY + Math.round(currentOffset);
+        if (!collected) {
+            drawAt(g, getY());
+        }
+    }
+
+    /**
+     * Dibuja el objeto en la altura indicada, sin consultar su estado actual.
+     * Se usa al pintar a partir de un estado capturado por la simulación.
+     *
+     * @param g    Objeto Graphics utilizado para el renderizado.
+     * @param yPos Coordenada Y en la que se dibuja el objeto.
+     */
+    public void drawAt(Graphics g, int yPos) {
+        if (image != null) {
             g.drawImage(image, x, yPos, width, height, null);
         }
     }
 
+    /**
+     * Obtiene la coordenada Y actual del objeto, incluyendo la oscilación.
+     *
+     * @return Coordenada Y en píxeles.
+     */
+    public int getY() {
+        return baseY + Math.round(currentOffset);
+    }
+
     /**
      * Retorna el área de colisión del objeto, considerando el efecto de oscilación.
      *
      * @return Un objeto Rectangle que define los límites de colisión.
      */
     public Rectangle getBounds() {
-        int yPos = baseY + Math.round(currentOffset);
-        return new Rectangle(x, yPos, width, height);
+        return getBounds(new Rectangle());
+    }
+
+    /**
+     * Escribe en {@code out} el área de colisión, sin reservar memoria.
+     *
+     * @param out Rectángulo que se sobrescribe.
+     * @return El mismo {@code out}, para encadenar llamadas.
+     */
+    @Override
+    public Rectangle getBounds(Rectangle out) {
+        out.setBounds(x, getY(), width, height);
+        return out;
     }
 
     /**
@@ -1,28 +1,32 @@
 package game.controls.movements;
 
-import java.awt.Image;
+import game.engine.GameClock;
+import game.engine.Sprite;
 
 /**
- * Gestiona la animación de un conjunto de imágenes (frames) para un objeto.
+ * Gestiona la animación de un conjunto de sprites (frames) para un objeto.
  * Actualiza el frame actual basado en un retraso temporal para reproducir la animación de forma cíclica.
  */
 public class AnimationPlayer {
-    private Image[] frames;
+    private Sprite[] frames;
     private int currentFrame;
     private long lastTime;
     private long delay;
+    private final GameClock clock;
 
     /**
      * Inicializa el reproductor de animación con los frames y el intervalo de cambio especificados.
      *
-     * @param frames Array de imágenes que constituyen la secuencia de la animación.
+     * @param frames Sprites que constituyen la secuencia de la animación.
      * @param delay  Intervalo de tiempo en milisegundos entre cada cambio de frame.
+     * @param clock  Reloj de juego que marca el ritmo de la animación.
      */
-    public AnimationPlayer(Image[] frames, long delay) {
+    public AnimationPlayer(Sprite[] frames, long delay, GameClock clock) {
         this.frames = frames;
         this.delay = delay;
+        this.clock = clock;
         this.currentFrame = 0;
-        this.lastTime = System.currentTimeMillis();
+        this.lastTime = clock.millis();
     }
 
     /**
@@ -30,7 +34,7 @@ public class AnimationPlayer {
      * Si ha pasado el intervalo de tiempo definido, se avanza al siguiente frame de forma cíclica.
      */
     public void update() {
-        long now = System.currentTimeMillis();
+        long now = clock.millis();
         if (now - lastTime > delay) {
             currentFrame = (currentFrame + 1) % frames.length;
             lastTime = now;
@@ -38,11 +42,11 @@ public class AnimationPlayer {
     }
 
     /**
-     * Obtiene la imagen correspondiente al frame actual de la animación.
+     * Obtiene el sprite correspondiente al frame actual de la animación.
      *
-     * @return Imagen del frame actual.
+     * @return Sprite del frame actual, o {@code null} si no se pudo cargar.
      */
-    public Image getCurrentFrame() {
+    public Sprite getCurrentFrame() {
         return frames[currentFrame];
     }
 }
@@ -6,8 +6,9 @@ package game.controls.movements;
  */
 public class Camera {
     private Player player;
-    private int screenWidth;
-    private int screenHeight;
+    // La vista actualiza el tamaño de pantalla desde el hilo de pintado
+    private volatile int screenWidth;
+    private volatile int screenHeight;
     private int worldWidth;
     private int worldHeight;
 
@@ -35,10 +36,21 @@ public class Camera {
      * @return Valor del offset horizontal.
      */
     public int getOffsetX() {
+        return getOffsetXFor(player.getX());
+    }
+
+    /**
+     * Calcula el desplazamiento horizontal para una posición del jugador dada, por ejemplo
+     * la posición interpolada de un frame, sin leer el estado vivo del jugador.
+     *
+     * @param playerX Coordenada X del jugador.
+     * @return Valor del offset horizontal.
+     */
+    public int getOffsetXFor(int playerX) {
         if (worldWidth <= screenWidth) {
             return (worldWidth - screenWidth) / 2;
         }
-        int desired = player.getX() + player.getWidth() / 2 - screenWidth / 2;
+        int desired = playerX + player.getWidth() / 2 - screenWidth / 2;
         if (desired < 0) return 0;
         if (desired > worldWidth - screenWidth) return worldWidth - screenWidth;
         return desired;
@@ -54,6 +66,15 @@ public class Camera {
         return (worldHeight - screenHeight) / 2;
     }
 
+    /**
+     * Obtiene el ancho del área visible.
+     *
+     * @return Ancho de la pantalla.
+     */
+    public int getScreenWidth() {
+        return screenWidth;
+    }
+
     /**
      * Actualiza las dimensiones del área visible.
      *
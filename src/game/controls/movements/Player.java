@@ -1,5 +1,11 @@
 package game.controls.movements;
 
+import game.engine.GameClock;
+import game.engine.Headless;
+import game.engine.Sprite;
+import game.panlesBBDD.map.colisionsTools.CollisionQuery;
+import game.panlesBBDD.map.colisionsTools.GroundQuery;
+
 import javax.swing.*;
 import java.awt.*;
 import javax.sound.sampled.*;
@@ -14,6 +20,8 @@ public class Player {
     private enum State {IDLE, WALKING_LEFT, WALKING_RIGHT, JUMPING_LEFT, JUMPING_RIGHT, FALLING}
     private State currentState;
     private int x, y;
+    // Posición al inicio del último paso, usada para interpolar el pintado
+    private int prevX, prevY;
     private int width, height;
     private int dx, dy;
     private boolean jumping;
@@ -39,6 +47,16 @@ public class Player {
     private int worldWidth;
 
     private PlayerState state;
+    private final GameClock clock;
+
+    // Obstáculos del nivel; si es null solo se aplica el suelo fijo
+    private CollisionQuery colliders;
+    // Índice del suelo del nivel; si es null las caídas se resuelven con un barrido
+    private GroundQuery ground;
+    // Distancia desde el borde superior del sprite hasta el de la caja de colisión con el mapa
+    private int hitboxTop = 40;
+    // Caja reutilizada en cada paso para los barridos contra el mapa
+    private final Rectangle sweepBox = new Rectangle();
     private int currentJumpCount;
 
     // Campos para audio
@@ -54,12 +72,7 @@ public class Player {
     // Bandera para controlar la reproducción del sonido de pisadas
     private boolean footstepSoundEnabled = true;
 
-    // Constantes para frames de animación
-    private static final int COUNT_IDLE = 4;
-    private static final int COUNT_LEFT = 6;
-    private static final int COUNT_RIGHT = 6;
-    private static final int COUNT_JUMP = 6;
-    private static final int COUNT_FALL = 4;
+    // Intervalo entre frames de animación
     private static final long FRAME_DELAY = 300;
 
     /**
@@ -68,8 +81,10 @@ public class Player {
      * @param startX    Posición inicial en X del jugador.
      * @param floorY    Coordenada Y del suelo.
      * @param worldWidth Ancho total del mundo.
+     * @param clock     Reloj de juego para las animaciones y el dash.
      */
-    public Player(int startX, int floorY, int worldWidth) {
+    public Player(int startX, int floorY, int worldWidth, GameClock clock) {
+        this.clock = clock;
         this.x = startX;
         this.floorY = floorY;
         this.worldWidth = worldWidth;
@@ -80,43 +95,21 @@ public class Player {
         state = new PlayerState();
         currentJumpCount = 0;
 
-        int newWidth = 150;
-        int newHeight = 150;
-
-        idleAnimation = new AnimationPlayer(loadAnimationImages("/resources/imagen/personajemove/2BlueWizardIdle/", COUNT_IDLE, newWidth, newHeight), FRAME_DELAY);
-        moveLeftAnimation = new AnimationPlayer(loadAnimationImages("/resources/imagen/personajemove/2BlueWizardWalkLeft/", COUNT_LEFT, newWidth, newHeight), FRAME_DELAY);
-        moveRightAnimation = new AnimationPlayer(loadAnimationImages("/resources/imagen/personajemove/2BlueWizardWalkRight/", COUNT_RIGHT, newWidth, newHeight), FRAME_DELAY);
-        jumpLeftAnimation = new AnimationPlayer(loadAnimationImages("/resources/imagen/personajemove/2BlueWizardJumpLeft/", COUNT_JUMP, newWidth, newHeight), FRAME_DELAY);
-        jumpRightAnimation = new AnimationPlayer(loadAnimationImages("/resources/imagen/personajemove/2BlueWizardJumpRight/", COUNT_JUMP, newWidth, newHeight), FRAME_DELAY);
-        fallAnimation = new AnimationPlayer(loadAnimationImages("/resources/imagen/personajemove/2BlueWizardIdle/", COUNT_FALL, newWidth, newHeight), FRAME_DELAY);
+        // Los frames se comparten entre todas las instancias y niveles
+        PlayerAnimationBank bank = PlayerAnimationBank.get();
+        idleAnimation = new AnimationPlayer(bank.getIdle(), FRAME_DELAY, clock);
+        moveLeftAnimation = new AnimationPlayer(bank.getWalkLeft(), FRAME_DELAY, clock);
+        moveRightAnimation = new AnimationPlayer(bank.getWalkRight(), FRAME_DELAY, clock);
+        jumpLeftAnimation = new AnimationPlayer(bank.getJumpLeft(), FRAME_DELAY, clock);
+        jumpRightAnimation = new AnimationPlayer(bank.getJumpRight(), FRAME_DELAY, clock);
+        fallAnimation = new AnimationPlayer(bank.getFall(), FRAME_DELAY, clock);
 
         currentAnimation = idleAnimation;
-        width = newWidth;
-        height = newHeight;
+        width = PlayerAnimationBank.FRAME_SIZE;
+        height = PlayerAnimationBank.FRAME_SIZE;
         this.y = floorY - height;
-    }
-
-    /**
-     * Carga y escala las imágenes para una animación a partir de una ruta base.
-     *
-     * @param basePath Ruta base de los archivos de imagen.
-     * @param count    Número de imágenes (frames) a cargar.
-     * @param newWidth Ancho al que se escalarán las imágenes.
-     * @param newHeight Alto al que se escalarán las imágenes.
-     * @return Array de imágenes escaladas.
-     */
-    private Image[] loadAnimationImages(String basePath, int count, int newWidth, int newHeight) {
-        Image[] frames = new Image[count];
-        for (int i = 1; i <= count; i++) {
-            try {
-                Image originalImage = new ImageIcon(getClass().getResource(basePath + i + ".png")).getImage();
-                frames[i - 1] = originalImage.getScaledInstance(newWidth, newHeight, Image.SCALE_SMOOTH);
-            } catch (Exception e) {
-                System.err.println("Error al cargar imagen: " + basePath + i + ".png - " + e.getMessage());
-                frames[i - 1] = null;
-            }
-        }
-        return frames;
+        this.prevX = x;
+        this.prevY = y;
     }
 
     /**
@@ -166,6 +159,9 @@ public class Player {
      * @return El clip de audio cargado, o {@code null} si ocurre un error.
      */
     private Clip loadClip(String path) {
+        if (Headless.isEnabled()) {
+            return null;
+        }
         try {
             URL url = getClass().getResource(path);
             if (url == null) {
@@ -307,6 +303,9 @@ public class Player {
      * Reproduce el sonido de aterrizaje y actualiza el estado interno al aterrizar.
      */
     private void playLandingSound() {
+        if (Headless.isEnabled()) {
+            return;
+        }
         try {
             URL url = getClass().getResource("/resources/sound/personaje/landing.wav");
             if (url == null) {
@@ -327,12 +326,18 @@ public class Player {
      * Gestiona la gravedad, colisiones con el suelo y finalización de dash.
      */
     public void update() {
+        prevX = x;
+        prevY = y;
         if (!alive) return;
         updateState();
         currentAnimation.update();
 
-        x += dx;
-        y += dy;
+        if (colliders != null) {
+            moveAndCollide();
+        } else {
+            x += dx;
+            y += dy;
+        }
 
         dy += GRAVITY;
         if (dy > TERMINAL_VELOCITY)
@@ -352,7 +357,7 @@ public class Player {
             currentJumpCount = 0;
         }
 
-        if (dashing && System.currentTimeMillis() - dashStartTime >= DASH_DURATION) {
+        if (dashing && clock.millis() - dashStartTime >= DASH_DURATION) {
             dashing = false;
             dx = 0;
             System.out.println("Dash finalizado.");
@@ -361,6 +366,105 @@ public class Player {
         x = Math.max(0, Math.min(x, worldWidth - width));
     }
 
+    /**
+     * Asigna los obstáculos del nivel contra los que se resuelve el movimiento del jugador.
+     *
+     * @param colliders Obstáculos estáticos del nivel, o {@code null} para usar solo el suelo fijo.
+     * @param hitboxTop Distancia en píxeles desde el borde superior del sprite hasta el de la
+     *                  caja de colisión con el mapa.
+     */
+    public void setColliders(CollisionQuery colliders, int hitboxTop) {
+        this.colliders = colliders;
+        this.hitboxTop = hitboxTop;
+    }
+
+    /**
+     * Asigna el índice del suelo del nivel. Con él, las caídas y el aterrizaje se resuelven con
+     * una lectura por columna en lugar de un barrido, y quedan disponibles
+     * {@link #getDistanceToFloor()} e {@link #isOnGround()}. Debe describir los mismos tiles
+     * sólidos que los obstáculos de {@link #setColliders(CollisionQuery, int)}.
+     *
+     * @param ground Índice del suelo, o {@code null} para resolver las caídas con barridos.
+     */
+    public void setGround(GroundQuery ground) {
+        this.ground = ground;
+    }
+
+    /**
+     * Calcula la distancia desde los pies del jugador hasta el suelo del mapa que tiene debajo,
+     * por ejemplo para anticipar dónde terminará un salto.
+     *
+     * @return Píxeles hasta el suelo (0 si está apoyado), o {@link GroundQuery#NO_FLOOR} si no
+     *         hay suelo debajo o no se ha asignado un índice.
+     */
+    public int getDistanceToFloor() {
+        if (ground == null) {
+            return GroundQuery.NO_FLOOR;
+        }
+        return ground.distanceToFloor(getMapHitbox(sweepBox));
+    }
+
+    /**
+     * Indica si el jugador está apoyado sobre un tile sólido del mapa.
+     *
+     * @return {@code true} si sus pies tocan el suelo del mapa.
+     */
+    public boolean isOnGround() {
+        return getDistanceToFloor() == 0;
+    }
+
+    /**
+     * Desplaza al jugador resolviendo las colisiones con el mapa mediante barridos AABB:
+     * primero el eje X y después el Y, cada uno en una sola consulta que calcula el punto de
+     * contacto. Como se examina todo el recorrido del paso, ninguna velocidad permite atravesar
+     * una plataforma. Al chocar con una pared se detiene el movimiento horizontal; al chocar
+     * por abajo se aterriza y por arriba se corta el salto. Si hay índice del suelo, las caídas
+     * se limitan directamente a la distancia hasta el suelo.
+     */
+    private void moveAndCollide() {
+        int movedX = colliders.sweepX(getMapHitbox(sweepBox), dx);
+        x += movedX;
+        if (movedX != dx) {
+            stop();
+        }
+
+        int movedY;
+        if (dy > 0 && ground != null) {
+            movedY = Math.min(dy, ground.distanceToFloor(getMapHitbox(sweepBox)));
+        } else {
+            movedY = colliders.sweepY(getMapHitbox(sweepBox), dy);
+        }
+        y += movedY;
+        if (movedY != dy) {
+            if (dy > 0) {
+                onLanding();
+            }
+            resetVerticalMotion();
+        }
+    }
+
+    /**
+     * Retorna la caja usada para colisionar con los obstáculos del mapa: el ancho de
+     * {@link #getCollisionRectangle()} y desde {@code hitboxTop} hasta los pies.
+     *
+     * @return Rectángulo de colisión con el mapa.
+     */
+    public Rectangle getMapHitbox() {
+        return getMapHitbox(new Rectangle());
+    }
+
+    /**
+     * Escribe en {@code out} la caja de colisión con el mapa, sin reservar memoria.
+     *
+     * @param out Rectángulo que se sobrescribe.
+     * @return El mismo {@code out}, para encadenar llamadas.
+     */
+    public Rectangle getMapHitbox(Rectangle out) {
+        int hitboxWidth = width / 3;
+        out.setBounds(x + (width - hitboxWidth) / 2, y + hitboxTop, hitboxWidth, height - hitboxTop);
+        return out;
+    }
+
     /**
      * Realiza un movimiento rápido (dash) si el jugador está vivo y posee la sandía.
      * El dash se activa y finaliza en función de la duración definida.
@@ -373,7 +477,7 @@ public class Player {
         }
         if (!dashing) {
             dashing = true;
-            dashStartTime = System.currentTimeMillis();
+            dashStartTime = clock.millis();
             if (dx == 0) {
                 dx = DASH_SPEED;
             } else {
@@ -402,11 +506,23 @@ public class Player {
      * @return Un objeto Rectangle que representa la hitbox del jugador.
      */
     public Rectangle getCollisionRectangle() {
+        return getCollisionRectangle(new Rectangle());
+    }
+
+    /**
+     * Escribe en {@code out} el rectángulo de colisión del jugador, sin reservar memoria.
+     * Es la variante que debe usarse en cada paso de simulación.
+     *
+     * @param out Rectángulo que se sobrescribe.
+     * @return El mismo {@code out}, para encadenar llamadas.
+     */
+    public Rectangle getCollisionRectangle(Rectangle out) {
         int hitboxWidth = width / 3;
         int hitboxHeight = height - 40;
         int hitboxX = x + (width - hitboxWidth) / 2;
         int hitboxY = y + 40;
-        return new Rectangle(hitboxX, hitboxY, hitboxWidth, hitboxHeight);
+        out.setBounds(hitboxX, hitboxY, hitboxWidth, hitboxHeight);
+        return out;
     }
 
     /**
@@ -416,11 +532,22 @@ public class Player {
      * @return Un objeto Rectangle representando la zona de los pies.
      */
     public Rectangle getFeetRectangle() {
+        return getFeetRectangle(new Rectangle());
+    }
+
+    /**
+     * Escribe en {@code out} la zona de los pies del jugador, sin reservar memoria.
+     *
+     * @param out Rectángulo que se sobrescribe.
+     * @return El mismo {@code out}, para encadenar llamadas.
+     */
+    public Rectangle getFeetRectangle(Rectangle out) {
         int feetWidth = width / 2;
         int feetHeight = 5;
         int feetX = x + (width - feetWidth) / 2;
         int feetY = y + height - feetHeight;
-        return new Rectangle(feetX, feetY, feetWidth, feetHeight);
+        out.setBounds(feetX, feetY, feetWidth, feetHeight);
+        return out;
     }
 
     /**
@@ -430,11 +557,22 @@ public class Player {
      * @return Un objeto Rectangle correspondiente a la cabeza.
      */
     public Rectangle getHeadRectangle() {
+        return getHeadRectangle(new Rectangle());
+    }
+
+    /**
+     * Escribe en {@code out} la zona de la cabeza del jugador, sin reservar memoria.
+     *
+     * @param out Rectángulo que se sobrescribe.
+     * @return El mismo {@code out}, para encadenar llamadas.
+     */
+    public Rectangle getHeadRectangle(Rectangle out) {
         int headWidth = width / 4;
         int headHeight = 1;
         int headX = x + (width - headWidth) / 2;
         int headY = y + 20;
-        return new Rectangle(headX, headY, headWidth, headHeight);
+        out.setBounds(headX, headY, headWidth, headHeight);
+        return out;
     }
 
     /**
@@ -452,7 +590,9 @@ public class Player {
     public int getHeight() { return height; }
 
     /**
-     * Establece la posición del jugador.
+     * Coloca al jugador en una posición sin trayecto previo (por ejemplo, al reaparecer): la
+     * posición anterior también pasa a ser la nueva, de modo que el primer frame no interpola
+     * desde donde estaba.
      *
      * @param newX Nueva coordenada X.
      * @param newY Nueva coordenada Y.
@@ -460,6 +600,8 @@ public class Player {
     public void setPosition(int newX, int newY) {
         this.x = newX;
         this.y = newY;
+        this.prevX = newX;
+        this.prevY = newY;
     }
 
     /**
@@ -477,11 +619,25 @@ public class Player {
     public int getY() { return y; }
 
     /**
-     * Retorna la imagen actual del jugador según la animación activa.
+     * Obtiene la coordenada X que tenía el jugador al inicio del último paso.
+     *
+     * @return Valor de X en píxeles, usado para interpolar el pintado.
+     */
+    public int getPreviousX() { return prevX; }
+
+    /**
+     * Obtiene la coordenada Y que tenía el jugador al inicio del último paso.
+     *
+     * @return Valor de Y en píxeles, usado para interpolar el pintado.
+     */
+    public int getPreviousY() { return prevY; }
+
+    /**
+     * Retorna el sprite actual del jugador según la animación activa.
      *
-     * @return La imagen correspondiente al frame actual, o {@code null} si no hay animación.
+     * @return El sprite correspondiente al frame actual, o {@code null} si no hay animación.
      */
-    public Image getImage() {
+    public Sprite getSprite() {
         return (currentAnimation != null) ? currentAnimation.getCurrentFrame() : null;
     }
 
@@ -0,0 +1,137 @@
+package game.controls.movements;
+
+import game.engine.Headless;
+import game.engine.ImageLoader;
+import game.engine.Sprite;
+import game.engine.SpriteAtlas;
+
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Frames de las animaciones del jugador, cargados una sola vez para toda la partida.
+ * <p>
+ * Todos los frames se escalan al tamaño del jugador con {@link ImageLoader} y se empaquetan en
+ * un único {@link SpriteAtlas}; cada animación es un array de {@link Sprite} sobre ese atlas.
+ * El banco se crea la primera vez que se pide y lo comparten todas las instancias de
+ * {@link Player} de todos los niveles, de modo que cambiar de nivel no vuelve a leer ni escalar
+ * ninguna imagen. Sin interfaz gráfica no se carga nada y los frames son nulos.
+ * </p>
+ */
+public final class PlayerAnimationBank {
+    /** Lado de cada frame en píxeles, igual al tamaño del jugador. */
+    public static final int FRAME_SIZE = 150;
+
+    private static final String BASE_PATH = "/resources/imagen/personajemove/";
+    private static final int COUNT_IDLE = 4;
+    private static final int COUNT_LEFT = 6;
+    private static final int COUNT_RIGHT = 6;
+    private static final int COUNT_JUMP = 6;
+    private static final int COUNT_FALL = 4;
+
+    private final Sprite[] idle;
+    private final Sprite[] walkLeft;
+    private final Sprite[] walkRight;
+    private final Sprite[] jumpLeft;
+    private final Sprite[] jumpRight;
+    private final Sprite[] fall;
+
+    private static final class Holder {
+        private static final PlayerAnimationBank INSTANCE = new PlayerAnimationBank();
+    }
+
+    private PlayerAnimationBank() {
+        List<BufferedImage> images = new ArrayList<>();
+        int idleStart = addFrames(images, "2BlueWizardIdle/", COUNT_IDLE);
+        int leftStart = addFrames(images, "2BlueWizardWalkLeft/", COUNT_LEFT);
+        int rightStart = addFrames(images, "2BlueWizardWalkRight/", COUNT_RIGHT);
+        int jumpLeftStart = addFrames(images, "2BlueWizardJumpLeft/", COUNT_JUMP);
+        int jumpRightStart = addFrames(images, "2BlueWizardJumpRight/", COUNT_JUMP);
+        Sprite[] sprites = SpriteAtlas.pack(images);
+
+        idle = Arrays.copyOfRange(sprites, idleStart, idleStart + COUNT_IDLE);
+        walkLeft = Arrays.copyOfRange(sprites, leftStart, leftStart + COUNT_LEFT);
+        walkRight = Arrays.copyOfRange(sprites, rightStart, rightStart + COUNT_RIGHT);
+        jumpLeft = Arrays.copyOfRange(sprites, jumpLeftStart, jumpLeftStart + COUNT_JUMP);
+        jumpRight = Arrays.copyOfRange(sprites, jumpRightStart, jumpRightStart + COUNT_JUMP);
+        // La caída reutiliza los primeros frames de reposo
+        fall = Arrays.copyOfRange(sprites, idleStart, idleStart + COUNT_FALL);
+    }
+
+    /**
+     * Añade los frames numerados de una animación (desde 1) y devuelve la posición del primero.
+     */
+    private static int addFrames(List<BufferedImage> images, String folder, int count) {
+        int start = images.size();
+        for (int i = 1; i <= count; i++) {
+            images.add(Headless.isEnabled() ? null
+                    : ImageLoader.load(BASE_PATH + folder + i + ".png", FRAME_SIZE, FRAME_SIZE));
+        }
+        return start;
+    }
+
+    /**
+     * Obtiene el banco compartido, cargándolo la primera vez.
+     *
+     * @return El banco de animaciones del jugador.
+     */
+    public static PlayerAnimationBank get() {
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * Obtiene los frames de reposo.
+     *
+     * @return Sprites de la animación, en orden.
+     */
+    public Sprite[] getIdle() {
+        return idle;
+    }
+
+    /**
+     * Obtiene los frames de caminar hacia la izquierda.
+     *
+     * @return Sprites de la animación, en orden.
+     */
+    public Sprite[] getWalkLeft() {
+        return walkLeft;
+    }
+
+    /**
+     * Obtiene los frames de caminar hacia la derecha.
+     *
+     * @return Sprites de la animación, en orden.
+     */
+    public Sprite[] getWalkRight() {
+        return walkRight;
+    }
+
+    /**
+     * Obtiene los frames de salto hacia la izquierda.
+     *
+     * @return Sprites de la animación, en orden.
+     */
+    public Sprite[] getJumpLeft() {
+        return jumpLeft;
+    }
+
+    /**
+     * Obtiene los frames de salto hacia la derecha.
+     *
+     * @return Sprites de la animación, en orden.
+     */
+    public Sprite[] getJumpRight() {
+        return jumpRight;
+    }
+
+    /**
+     * Obtiene los frames de caída.
+     *
+     * @return Sprites de la animación, en orden.
+     */
+    public Sprite[] getFall() {
+        return fall;
+    }
+}
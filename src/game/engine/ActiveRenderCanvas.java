@@ -0,0 +1,83 @@
+package game.engine;
+
+import java.awt.Canvas;
+import java.awt.Color;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.Toolkit;
+import java.awt.image.BufferStrategy;
+
+/**
+ * Superficie de pintado activo basada en {@link BufferStrategy}.
+ * <p>
+ * En lugar de solicitar un {@code repaint()} y esperar al RepaintManager, el bucle de juego
+ * llama a {@link #present()} desde su propio hilo, que dibuja directamente en el buffer trasero
+ * y lo muestra mediante page flipping (o copia, si el sistema no lo soporta), sin pasar por la
+ * cola de eventos de Swing. El frame se dibuja a partir de la instantánea publicada en el
+ * {@link TripleBuffer} del nivel, así que no necesita el hilo de eventos. El canvas no recibe el
+ * foco: los eventos de teclado siguen llegando al panel que lo contiene.
+ * </p>
+ */
+public class ActiveRenderCanvas extends Canvas {
+    private static final long serialVersionUID = 1L;
+
+    /** Número de buffers por defecto (doble buffer). */
+    public static final int DEFAULT_BUFFERS = 2;
+    /** Propiedad del sistema para elegir el número de buffers (2 o 3). */
+    public static final String BUFFERS_PROPERTY = "astralis.render.buffers";
+
+    private final FrameRenderer renderer;
+    private final int buffers;
+
+    /**
+     * Crea un canvas con el número de buffers configurado en {@link #BUFFERS_PROPERTY}.
+     *
+     * @param renderer Encargado de dibujar cada frame.
+     */
+    public ActiveRenderCanvas(FrameRenderer renderer) {
+        this(renderer, Integer.getInteger(BUFFERS_PROPERTY, DEFAULT_BUFFERS));
+    }
+
+    /**
+     * Crea un canvas con el número de buffers indicado.
+     *
+     * @param renderer Encargado de dibujar cada frame.
+     * @param buffers  Número de buffers de la estrategia (se limita entre 2 y 3).
+     */
+    public ActiveRenderCanvas(FrameRenderer renderer, int buffers) {
+        this.renderer = renderer;
+        this.buffers = Math.max(2, Math.min(3, buffers));
+        setIgnoreRepaint(true);
+        setFocusable(false);
+        setBackground(Color.BLACK);
+    }
+
+    /**
+     * Dibuja y muestra un frame. Lo llama el hilo del bucle de juego; si el canvas aún no es
+     * visible no hace nada.
+     */
+    public void present() {
+        if (!isDisplayable() || getWidth() <= 0 || getHeight() <= 0) {
+            return;
+        }
+        BufferStrategy strategy = getBufferStrategy();
+        if (strategy == null) {
+            createBufferStrategy(buffers);
+            strategy = getBufferStrategy();
+        }
+        do {
+            do {
+                Graphics g = strategy.getDrawGraphics();
+                try {
+                    g.setColor(getBackground());
+                    g.fillRect(0, 0, getWidth(), getHeight());
+                    renderer.renderFrame((Graphics2D) g);
+                } finally {
+                    g.dispose();
+                }
+            } while (strategy.contentsRestored());
+            strategy.show();
+        } while (strategy.contentsLost());
+        Toolkit.getDefaultToolkit().sync();
+    }
+}
@@ -0,0 +1,365 @@
+package game.engine;
+
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.MemoryCacheImageInputStream;
+
+/**
+ * Fondo de un nivel preparado para pintarse cada frame con un coste proporcional a la pantalla
+ * y una memoria que no depende del tamaño de la imagen.
+ * <p>
+ * La imagen no se decodifica entera: se divide en franjas verticales de {@link #TILE_WIDTH}
+ * píxeles del mundo que se decodifican bajo demanda con una región de origen de ImageIO
+ * ({@link ImageReadParam#setSourceRegion}), se escalan una sola vez al tamaño del mundo y se
+ * convierten con {@link ImageLoader} a imágenes compatibles con la pantalla. Las franjas se
+ * guardan en una caché LRU acotada; las visibles se decodifican al pintarlas si aún no están y
+ * las siguientes en la dirección del desplazamiento de la cámara se precargan en un hilo de
+ * fondo.
+ * </p>
+ * <p>
+ * En cada frame solo se copia la parte visible con la variante de {@code drawImage} que recibe
+ * un rectángulo de origen.
+ * </p>
+ */
+public class Background {
+    /** Ancho de cada franja en píxeles del mundo. */
+    public static final int TILE_WIDTH = 512;
+    /** Franjas que se precargan por delante de la vista en la dirección del movimiento. */
+    private static final int PREFETCH_TILES = 2;
+
+    private final String path;
+    // Fichero de la imagen, o su contenido comprimido si el recurso no está en disco
+    private final Path file;
+    private final byte[] data;
+    private final int sourceWidth;
+    private final int sourceHeight;
+    private final int worldWidth;
+    private final int worldHeight;
+    private final int tileCount;
+
+    // Franjas decodificadas por índice, de la menos a la más recientemente usada
+    private final LinkedHashMap<Integer, BufferedImage> cache = new LinkedHashMap<>(16, 0.75f, true);
+    private int capacity = PREFETCH_TILES + 1;
+    private final Set<Integer> pending = ConcurrentHashMap.newKeySet();
+    private volatile boolean broken;
+    private final ExecutorService loader;
+
+    // Franjas visibles en el frame actual, reutilizado entre frames
+    private BufferedImage[] visible = new BufferedImage[0];
+    private int lastViewX = Integer.MIN_VALUE;
+    private int direction = 1;
+
+    private Background(String path, Path file, byte[] data, int sourceWidth, int sourceHeight,
+                       int worldWidth, int worldHeight) {
+        this.path = path;
+        this.file = file;
+        this.data = data;
+        this.sourceWidth = sourceWidth;
+        this.sourceHeight = sourceHeight;
+        this.worldWidth = worldWidth;
+        this.worldHeight = worldHeight;
+        this.tileCount = (worldWidth + TILE_WIDTH - 1) / TILE_WIDTH;
+        loader = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "background-streamer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Abre un fondo para pintarlo al tamaño del mundo. Solo se leen las dimensiones de la
+     * imagen; sus píxeles se decodifican por franjas al pintarla.
+     *
+     * @param path        Ruta del recurso de imagen.
+     * @param worldWidth  Ancho del mundo en píxeles.
+     * @param worldHeight Altura del mundo en píxeles.
+     * @return El fondo, o {@code null} si no se encuentra o no se puede leer.
+     */
+    public static Background load(String path, int worldWidth, int worldHeight) {
+        URL url = Background.class.getResource(path);
+        if (url == null) {
+            System.err.println("No se encontró el fondo en " + path);
+            return null;
+        }
+        try {
+            Path file = null;
+            byte[] data = null;
+            if ("file".equals(url.getProtocol())) {
+                file = Paths.get(url.toURI());
+            } else {
+                try (InputStream in = url.openStream()) {
+                    data = in.readAllBytes();
+                }
+            }
+            try (ImageInputStream in = openStream(file, data)) {
+                ImageReader reader = readerFor(in);
+                if (reader == null) {
+                    System.err.println("Formato de fondo no soportado: " + path);
+                    return null;
+                }
+                try {
+                    return new Background(path, file, data, reader.getWidth(0), reader.getHeight(0),
+                            worldWidth, worldHeight);
+                } finally {
+                    reader.dispose();
+                }
+            }
+        } catch (IOException | URISyntaxException e) {
+            System.err.println("Error al cargar el fondo " + path + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    private static ImageInputStream openStream(Path file, byte[] data) throws IOException {
+        if (file != null) {
+            return ImageIO.createImageInputStream(file.toFile());
+        }
+        return new MemoryCacheImageInputStream(new ByteArrayInputStream(data));
+    }
+
+    private static ImageReader readerFor(ImageInputStream in) {
+        Iterator<ImageReader> readers = ImageIO.getImageReaders(in);
+        if (!readers.hasNext()) {
+            return null;
+        }
+        ImageReader reader = readers.next();
+        reader.setInput(in, true, true);
+        return reader;
+    }
+
+    /**
+     * Pinta la parte visible del fondo. El contexto debe estar trasladado a coordenadas del
+     * mundo, como el resto del nivel.
+     *
+     * @param g          Contexto gráfico en coordenadas del mundo.
+     * @param viewX      Coordenada X del mundo en el borde izquierdo de la vista.
+     * @param viewY      Coordenada Y del mundo en el borde superior de la vista.
+     * @param viewWidth  Ancho de la vista.
+     * @param viewHeight Alto de la vista.
+     */
+    public void draw(Graphics2D g, int viewX, int viewY, int viewWidth, int viewHeight) {
+        int x0 = Math.max(0, viewX);
+        int y0 = Math.max(0, viewY);
+        int x1 = Math.min(worldWidth, viewX + viewWidth);
+        int y1 = Math.min(worldHeight, viewY + viewHeight);
+        if (x0 >= x1 || y0 >= y1) {
+            return;
+        }
+        if (lastViewX != Integer.MIN_VALUE && viewX != lastViewX) {
+            direction = viewX > lastViewX ? 1 : -1;
+        }
+        lastViewX = viewX;
+
+        int first = x0 / TILE_WIDTH;
+        int last = (x1 - 1) / TILE_WIDTH;
+        BufferedImage[] tiles = visible;
+        if (tiles.length < last - first + 1) {
+            tiles = visible = new BufferedImage[last - first + 1];
+        }
+        int firstMissing = -1;
+        int lastMissing = -1;
+        synchronized (cache) {
+            // Caben siempre las franjas visibles, las precargadas y una de margen
+            capacity = Math.max(capacity, last - first + 1 + PREFETCH_TILES + 1);
+            for (int tile = first; tile <= last; tile++) {
+                tiles[tile - first] = cache.get(tile);
+                if (tiles[tile - first] == null) {
+                    if (firstMissing < 0) {
+                        firstMissing = tile;
+                    }
+                    lastMissing = tile;
+                }
+            }
+        }
+        if (firstMissing >= 0) {
+            // Las que faltan se decodifican aquí, en una sola lectura
+            BufferedImage[] decoded = decodeTiles(firstMissing, lastMissing);
+            for (int tile = firstMissing; tile <= lastMissing; tile++) {
+                if (tiles[tile - first] == null && decoded != null) {
+                    tiles[tile - first] = decoded[tile - firstMissing];
+                }
+            }
+        }
+        for (int tile = first; tile <= last; tile++) {
+            BufferedImage image = tiles[tile - first];
+            tiles[tile - first] = null;
+            if (image == null) {
+                continue;
+            }
+            int tileX = tile * TILE_WIDTH;
+            int dx0 = Math.max(x0, tileX);
+            int dx1 = Math.min(x1, tileX + image.getWidth());
+            g.drawImage(image, dx0, y0, dx1, y1, dx0 - tileX, y0, dx1 - tileX, y1, null);
+        }
+        if (direction > 0) {
+            prefetch(last + 1, Math.min(tileCount - 1, last + PREFETCH_TILES));
+        } else {
+            prefetch(Math.max(0, first - PREFETCH_TILES), first - 1);
+        }
+    }
+
+    /**
+     * Encarga al hilo de fondo las franjas del intervalo que no estén ya en la caché ni en
+     * camino.
+     */
+    private void prefetch(int first, int last) {
+        if (first > last || loader.isShutdown()) {
+            return;
+        }
+        int from = -1;
+        int to = -1;
+        synchronized (cache) {
+            for (int tile = first; tile <= last; tile++) {
+                if (!cache.containsKey(tile) && pending.add(tile)) {
+                    if (from < 0) {
+                        from = tile;
+                    }
+                    to = tile;
+                }
+            }
+        }
+        if (from < 0) {
+            return;
+        }
+        int rangeFirst = from;
+        int rangeLast = to;
+        loader.execute(() -> {
+            try {
+                decodeTiles(rangeFirst, rangeLast);
+            } finally {
+                for (int tile = rangeFirst; tile <= rangeLast; tile++) {
+                    pending.remove(tile);
+                }
+            }
+        });
+    }
+
+    /**
+     * Decodifica en una sola lectura la región de la imagen que cubre un intervalo de franjas,
+     * la divide, escala cada franja a su tamaño en el mundo y las guarda en la caché. Con
+     * formatos secuenciales como PNG cada lectura recorre el fichero, así que agrupar las franjas
+     * contiguas evita repetir ese trabajo.
+     *
+     * @return Las franjas del intervalo, o {@code null} si no se pudo leer (el error se informa
+     *         una sola vez).
+     */
+    private BufferedImage[] decodeTiles(int first, int last) {
+        if (broken) {
+            return null;
+        }
+        int regionX = sourceX(first * TILE_WIDTH);
+        int regionEnd = sourceEnd(Math.min(worldWidth, (last + 1) * TILE_WIDTH));
+        BufferedImage region;
+        try (ImageInputStream in = openStream(file, data)) {
+            ImageReader reader = readerFor(in);
+            if (reader == null) {
+                throw new IOException("formato no soportado");
+            }
+            try {
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceRegion(new Rectangle(regionX, 0, regionEnd - regionX, sourceHeight));
+                region = reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        } catch (IOException e) {
+            if (!broken) {
+                broken = true;
+                System.err.println("Error al decodificar el fondo " + path + ": " + e.getMessage());
+            }
+            return null;
+        }
+
+        BufferedImage[] tiles = new BufferedImage[last - first + 1];
+        for (int tile = first; tile <= last; tile++) {
+            int x0 = tile * TILE_WIDTH;
+            int x1 = Math.min(worldWidth, x0 + TILE_WIDTH);
+            int sx0 = sourceX(x0);
+            int sx1 = Math.min(regionEnd, sourceEnd(x1));
+            BufferedImage part = region.getSubimage(sx0 - regionX, 0, sx1 - sx0, region.getHeight());
+            tiles[tile - first] = ImageLoader.toCompatibleImage(part, x1 - x0, worldHeight);
+            store(tile, tiles[tile - first]);
+        }
+        return tiles;
+    }
+
+    /** Primera columna de la imagen que corresponde a la X del mundo indicada. */
+    private int sourceX(int worldX) {
+        return (int) ((long) worldX * sourceWidth / worldWidth);
+    }
+
+    /** Columna de la imagen, exclusiva, donde termina la X del mundo indicada. */
+    private int sourceEnd(int worldX) {
+        return (int) (((long) worldX * sourceWidth + worldWidth - 1) / worldWidth);
+    }
+
+    private void store(int tile, BufferedImage image) {
+        synchronized (cache) {
+            cache.putIfAbsent(tile, image);
+            Iterator<Map.Entry<Integer, BufferedImage>> eldest = cache.entrySet().iterator();
+            while (cache.size() > capacity) {
+                eldest.next();
+                eldest.remove();
+            }
+        }
+    }
+
+    /**
+     * Obtiene el número de franjas decodificadas en este momento.
+     *
+     * @return Franjas en la caché.
+     */
+    public int getResidentTileCount() {
+        synchronized (cache) {
+            return cache.size();
+        }
+    }
+
+    /**
+     * Detiene el hilo de precarga y libera las franjas. Se invoca al terminar el nivel; si el
+     * panel se vuelve a pintar después, las franjas visibles se decodifican sin precarga.
+     */
+    public void close() {
+        loader.shutdownNow();
+        synchronized (cache) {
+            cache.clear();
+        }
+    }
+
+    /**
+     * Obtiene el ancho del fondo, igual al del mundo.
+     *
+     * @return Ancho en píxeles.
+     */
+    public int getWidth() {
+        return worldWidth;
+    }
+
+    /**
+     * Obtiene la altura del fondo, igual a la del mundo.
+     *
+     * @return Altura en píxeles.
+     */
+    public int getHeight() {
+        return worldHeight;
+    }
+}
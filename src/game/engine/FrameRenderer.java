@@ -0,0 +1,16 @@
+package game.engine;
+
+import java.awt.Graphics2D;
+
+/**
+ * Dibuja un frame completo del juego sobre el contexto gráfico recibido.
+ */
+public interface FrameRenderer {
+
+    /**
+     * Dibuja el frame.
+     *
+     * @param g Contexto gráfico de destino, con origen en la esquina superior izquierda de la vista.
+     */
+    void renderFrame(Graphics2D g);
+}
@@ -0,0 +1,110 @@
+package game.engine;
+
+/**
+ * Reloj de juego avanzado por el {@link GameLoop}.
+ * <p>
+ * El tiempo de juego solo avanza un paso fijo por cada {@link GameLoopListener#tick()}, de modo
+ * que todo lo temporizado (animaciones, dash, estalactitas, rayos, mensajes) depende del número
+ * de pasos simulados y no del reloj del sistema. Pausar el reloj detiene los pasos y la escala
+ * de tiempo acelera o ralentiza el ritmo al que el bucle los ejecuta. Leer la hora es una
+ * simple lectura de campo, sin llamadas al sistema.
+ * </p>
+ */
+public class GameClock {
+    // Solo el hilo de simulación escribe el tiempo; el resto de hilos únicamente lo leen
+    private volatile long nanos;
+    private volatile long ticks;
+    private volatile boolean paused;
+    private volatile float timeScale = 1.0f;
+
+    /**
+     * Avanza el reloj. Lo invoca el bucle antes de cada paso de simulación.
+     *
+     * @param stepNanos Duración del paso en nanosegundos.
+     */
+    public void advance(long stepNanos) {
+        nanos += stepNanos;
+        ticks++;
+    }
+
+    /**
+     * Convierte tiempo real transcurrido en tiempo de juego según la pausa y la escala actuales.
+     *
+     * @param realNanos Tiempo real transcurrido en nanosegundos.
+     * @return Tiempo de juego a acumular, o 0 si el reloj está en pausa.
+     */
+    public long scale(long realNanos) {
+        if (paused) {
+            return 0;
+        }
+        return (long) (realNanos * timeScale);
+    }
+
+    /**
+     * Obtiene el tiempo de juego transcurrido. Es monótono y no avanza en pausa.
+     *
+     * @return Tiempo de juego en nanosegundos.
+     */
+    public long nanoTime() {
+        return nanos;
+    }
+
+    /**
+     * Obtiene el número de pasos simulados, que identifica cada paso en las grabaciones de entrada.
+     *
+     * @return Pasos avanzados desde la creación del reloj.
+     */
+    public long getTicks() {
+        return ticks;
+    }
+
+    /**
+     * Obtiene el tiempo de juego transcurrido en milisegundos, para sustituir a
+     * {@link System#currentTimeMillis()} en las comparaciones de duración.
+     *
+     * @return Tiempo de juego en milisegundos.
+     */
+    public long millis() {
+        return nanos / 1_000_000L;
+    }
+
+    /**
+     * Pausa o reanuda el reloj.
+     *
+     * @param paused {@code true} para pausar.
+     */
+    public void setPaused(boolean paused) {
+        this.paused = paused;
+    }
+
+    /**
+     * Indica si el reloj está en pausa.
+     *
+     * @return {@code true} si está en pausa.
+     */
+    public boolean isPaused() {
+        return paused;
+    }
+
+    /**
+     * Establece la escala de tiempo (1 = tiempo real, 2 = doble de rápido, 0.5 = cámara lenta).
+     *
+     * @param timeScale Escala positiva.
+     */
+    public void setTimeScale(float timeScale) {
+        if (timeScale <= 0) {
+            System.err.println("Escala de tiempo no válida: " + timeScale);
+            return;
+        }
+        this.timeScale = timeScale;
+    }
+
+    /**
+     * Obtiene la escala de tiempo actual.
+     *
+     * @return Escala de tiempo.
+     */
+    public float getTimeScale() {
+        return timeScale;
+    }
+}
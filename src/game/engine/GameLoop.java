@@ -0,0 +1,219 @@
+package game.engine;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Bucle de juego de paso fijo compartido por todos los niveles.
+ * <p>
+ * Un hilo de simulación dedicado mide el tiempo real con {@link System#nanoTime()} y lo
+ * acumula; por cada paso completo acumulado se invoca {@link GameLoopListener#tick()}, de modo
+ * que la física avanza siempre con el mismo intervalo independientemente del ritmo de pintado.
+ * Tras los pasos se llama a {@link GameLoopListener#render(float)} con la fracción restante,
+ * donde el nivel publica su {@link RenderSnapshot}; el pintado real ocurre en el hilo de
+ * eventos de Swing a partir de ese estado, en paralelo con la simulación. Si el equipo no da
+ * abasto se ejecutan como máximo {@link #MAX_STEPS_PER_FRAME} pasos por frame y se descarta
+ * el tiempo sobrante, evitando la espiral de recuperación.
+ * </p>
+ * <p>
+ * El tiempo real transcurrido pasa por el {@link GameClock} del bucle, que lo escala o lo
+ * congela en pausa, y el reloj avanza exactamente un paso por cada {@code tick()}.
+ * </p>
+ * <p>
+ * Las tareas enviadas con {@link #post(Runnable)} (por ejemplo, reaparecer tras la muerte
+ * desde un diálogo de Swing) se ejecutan en el hilo de simulación antes del siguiente paso.
+ * </p>
+ * <p>
+ * En modo {@link Headless} no se lanza ningún hilo: quien ejecuta la simulación llama a
+ * {@link #step()} tan rápido como quiera y nunca se invoca {@code render}.
+ * </p>
+ */
+public class GameLoop {
+    /** Frecuencia de simulación por defecto (pasos por segundo). */
+    public static final int DEFAULT_TICKS_PER_SECOND = 60;
+    /** Número máximo de pasos de recuperación por frame. */
+    public static final int MAX_STEPS_PER_FRAME = 5;
+    // Un frame más largo que esto (por ejemplo, tras un diálogo modal) no se recupera
+    private static final long MAX_FRAME_NANOS = 250_000_000L;
+
+    private final GameLoopListener listener;
+    private final long stepNanos;
+    private final GameClock clock;
+    private final ConcurrentLinkedQueue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+
+    private volatile Thread loopThread;
+    private Thread lastThread;
+    // En modo headless el bucle se avanza desde fuera con step()
+    private volatile boolean stepping;
+
+    /**
+     * Crea un bucle con la frecuencia de simulación por defecto.
+     *
+     * @param listener Receptor de los pasos y frames.
+     */
+    public GameLoop(GameLoopListener listener) {
+        this(listener, DEFAULT_TICKS_PER_SECOND, new GameClock());
+    }
+
+    /**
+     * Crea un bucle con la frecuencia de simulación por defecto que avanza el reloj indicado.
+     *
+     * @param listener Receptor de los pasos y frames.
+     * @param clock    Reloj de juego compartido con las entidades del nivel.
+     */
+    public GameLoop(GameLoopListener listener, GameClock clock) {
+        this(listener, DEFAULT_TICKS_PER_SECOND, clock);
+    }
+
+    /**
+     * Crea un bucle con la frecuencia de simulación indicada.
+     *
+     * @param listener       Receptor de los pasos y frames.
+     * @param ticksPerSecond Pasos de simulación por segundo.
+     * @param clock          Reloj de juego compartido con las entidades del nivel.
+     */
+    public GameLoop(GameLoopListener listener, int ticksPerSecond, GameClock clock) {
+        this.listener = listener;
+        this.stepNanos = 1_000_000_000L / ticksPerSecond;
+        this.clock = clock;
+    }
+
+    /**
+     * Arranca el bucle si no está en marcha. Si un hilo anterior aún está terminando su
+     * último frame, se espera a que acabe para que nunca haya dos simulaciones a la vez.
+     */
+    public synchronized void start() {
+        if (isRunning()) {
+            return;
+        }
+        if (Headless.isEnabled()) {
+            stepping = true;
+            return;
+        }
+        Thread previous = lastThread;
+        if (previous != null && previous != Thread.currentThread()) {
+            try {
+                previous.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        Thread thread = new Thread(this::loop, "game-loop");
+        thread.setDaemon(true);
+        loopThread = thread;
+        lastThread = thread;
+        thread.start();
+    }
+
+    /**
+     * Detiene el bucle. Puede llamarse desde el propio paso de simulación; en ese caso
+     * no se ejecutan más pasos ni se pinta el frame en curso.
+     */
+    public void stop() {
+        loopThread = null;
+        stepping = false;
+    }
+
+    /**
+     * Indica si el bucle está en marcha.
+     *
+     * @return {@code true} si el bucle está activo.
+     */
+    public boolean isRunning() {
+        return loopThread != null || stepping;
+    }
+
+    /**
+     * Encola una tarea para ejecutarla en el hilo de simulación antes del siguiente paso.
+     * Si el bucle está detenido, la tarea se ejecutará al volver a arrancarlo.
+     *
+     * @param task Tarea a ejecutar.
+     */
+    public void post(Runnable task) {
+        tasks.offer(task);
+    }
+
+    /**
+     * Obtiene la duración de un paso de simulación.
+     *
+     * @return Duración del paso en nanosegundos.
+     */
+    public long getStepNanos() {
+        return stepNanos;
+    }
+
+    /**
+     * Obtiene el reloj de juego que avanza este bucle.
+     *
+     * @return Reloj de juego.
+     */
+    public GameClock getClock() {
+        return clock;
+    }
+
+    /**
+     * Ejecuta las tareas pendientes y un único paso de simulación, sin esperar ni pintar.
+     * Solo tiene efecto en modo headless con el bucle arrancado.
+     *
+     * @return {@code true} si el bucle sigue en marcha tras el paso.
+     */
+    public boolean step() {
+        if (!stepping) {
+            return false;
+        }
+        runTasks();
+        clock.advance(stepNanos);
+        listener.tick();
+        return stepping;
+    }
+
+    private void runTasks() {
+        Runnable task;
+        while ((task = tasks.poll()) != null) {
+            task.run();
+        }
+    }
+
+    private void loop() {
+        Thread self = Thread.currentThread();
+        long previousTime = System.nanoTime();
+        long accumulator = 0;
+        while (loopThread == self) {
+            long now = System.nanoTime();
+            accumulator += clock.scale(Math.min(now - previousTime, MAX_FRAME_NANOS));
+            previousTime = now;
+
+            try {
+                runTasks();
+                int steps = 0;
+                while (accumulator >= stepNanos && steps < MAX_STEPS_PER_FRAME && loopThread == self) {
+                    clock.advance(stepNanos);
+                    listener.tick();
+                    accumulator -= stepNanos;
+                    steps++;
+                }
+                if (loopThread != self) {
+                    return;
+                }
+                if (accumulator >= stepNanos) {
+                    // Sobrecarga: se descartan los pasos que no se pueden recuperar
+                    accumulator %= stepNanos;
+                }
+                listener.render((float) accumulator / stepNanos);
+            } catch (RuntimeException e) {
+                e.printStackTrace();
+            }
+
+            // Espera en tiempo real hasta el próximo paso, deshaciendo la escala del reloj
+            long untilNextStep = stepNanos;
+            if (!clock.isPaused()) {
+                untilNextStep = (long) ((stepNanos - accumulator) / clock.getTimeScale());
+            }
+            long wait = untilNextStep - (System.nanoTime() - previousTime);
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+        }
+    }
+}
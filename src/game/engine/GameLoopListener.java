@@ -0,0 +1,28 @@
+package game.engine;
+
+/**
+ * Receptor de los eventos del bucle de juego.
+ * <p>
+ * El bucle invoca {@link #tick()} una vez por cada paso fijo de simulación y
+ * {@link #render(float)} una vez por frame, indicando la fracción de paso transcurrida
+ * para interpolar entre los dos últimos estados.
+ * </p>
+ * <p>
+ * Ambos métodos se ejecutan en el hilo de simulación del bucle, nunca en el hilo de eventos de
+ * Swing: {@code render} solo debe capturar el estado a pintar y solicitar el pintado.
+ * </p>
+ */
+public interface GameLoopListener {
+
+    /**
+     * Avanza la simulación exactamente un paso fijo.
+     */
+    void tick();
+
+    /**
+     * Presenta un frame.
+     *
+     * @param interpolation Fracción (entre 0 y 1) del siguiente paso ya acumulada.
+     */
+    void render(float interpolation);
+}
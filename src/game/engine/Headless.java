@@ -0,0 +1,30 @@
+package game.engine;
+
+/**
+ * Interruptor del modo sin interfaz ("headless").
+ * <p>
+ * Se activa con la propiedad del sistema {@code astralis.headless=true}, que debe fijarse antes
+ * de crear cualquier nivel. En este modo las entidades no cargan imágenes ni sonidos, el
+ * {@link GameLoop} no lanza su hilo (quien ejecuta la simulación llama a {@link GameLoop#step()})
+ * y los niveles no muestran diálogos ni transiciones: solo se ejecuta la lógica de juego.
+ * </p>
+ */
+public final class Headless {
+    /** Nombre de la propiedad del sistema que activa el modo. */
+    public static final String PROPERTY = "astralis.headless";
+
+    // Se lee una única vez: el modo no cambia durante la ejecución
+    private static final boolean ENABLED = Boolean.getBoolean(PROPERTY);
+
+    private Headless() {
+    }
+
+    /**
+     * Indica si el juego se ejecuta sin interfaz, audio ni pintado.
+     *
+     * @return {@code true} en modo headless.
+     */
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+}
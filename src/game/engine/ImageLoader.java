@@ -0,0 +1,304 @@
+package game.engine;
+
+import java.awt.AlphaComposite;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.GraphicsEnvironment;
+import java.awt.RenderingHints;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.awt.image.WritableRaster;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.metadata.IIOMetadata;
+import javax.imageio.stream.ImageInputStream;
+import org.w3c.dom.Node;
+
+/**
+ * Carga centralizada de las imágenes del juego.
+ * <p>
+ * Las imágenes se decodifican con ImageIO y se copian, ya escaladas al tamaño con el que se
+ * pintan, sobre imágenes creadas con {@link GraphicsConfiguration#createCompatibleImage}. Así
+ * Java2D puede usar su camino de copia acelerado en lugar de convertir formatos o escalar en
+ * cada frame, como ocurría con las imágenes de {@code ImageIcon} y {@code getScaledInstance}.
+ * La transparencia se elige por imagen: opaca si ningún píxel es transparente, aunque el
+ * fichero declare canal alfa, y translúcida en caso contrario.
+ * </p>
+ * <p>
+ * Los métodos de carga no lanzan excepciones: si el recurso no existe o no se puede leer,
+ * informan por la salida de error y devuelven {@code null}.
+ * </p>
+ */
+public final class ImageLoader {
+
+    /**
+     * Frames de una imagen animada (GIF) con el retardo entre ellos.
+     */
+    public static final class Frames {
+        /** Frames ya compuestos y escalados, en orden. */
+        public final BufferedImage[] images;
+        /** Retardo entre frames en milisegundos. */
+        public final long delay;
+
+        private Frames(BufferedImage[] images, long delay) {
+            this.images = images;
+            this.delay = delay;
+        }
+    }
+
+    // Retardo que aplican los navegadores a los GIF que declaran 0
+    private static final long DEFAULT_GIF_DELAY = 100;
+    private static final String GIF_METADATA = "javax_imageio_gif_image_1.0";
+    private static final String GIF_STREAM_METADATA = "javax_imageio_gif_stream_1.0";
+
+    private ImageLoader() {
+    }
+
+    /**
+     * Carga una imagen con su tamaño original.
+     *
+     * @param path Ruta del recurso de imagen.
+     * @return Imagen compatible con la pantalla, o {@code null} si no se pudo cargar.
+     */
+    public static BufferedImage load(String path) {
+        BufferedImage source = decode(path);
+        return source == null ? null : toCompatibleImage(source, source.getWidth(), source.getHeight());
+    }
+
+    /**
+     * Carga una imagen escalada una sola vez al tamaño con el que se va a pintar.
+     *
+     * @param path   Ruta del recurso de imagen.
+     * @param width  Ancho final.
+     * @param height Alto final.
+     * @return Imagen compatible con la pantalla, o {@code null} si no se pudo cargar.
+     */
+    public static BufferedImage load(String path, int width, int height) {
+        BufferedImage source = decode(path);
+        return source == null ? null : toCompatibleImage(source, width, height);
+    }
+
+    /**
+     * Carga todos los frames de una imagen animada, componiendo cada uno sobre los anteriores
+     * según el método de descarte del GIF y escalándolos al tamaño indicado. Una imagen fija se
+     * devuelve como un único frame.
+     *
+     * @param path   Ruta del recurso de imagen.
+     * @param width  Ancho final de cada frame.
+     * @param height Alto final de cada frame.
+     * @return Los frames, o {@code null} si no se pudo cargar.
+     */
+    public static Frames loadFrames(String path, int width, int height) {
+        URL url = ImageLoader.class.getResource(path);
+        if (url == null) {
+            System.err.println("No se encontró la imagen " + path);
+            return null;
+        }
+        try (InputStream stream = url.openStream();
+             ImageInputStream in = ImageIO.createImageInputStream(stream)) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(in);
+            if (!readers.hasNext()) {
+                System.err.println("Formato de imagen no soportado: " + path);
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, false, false);
+                return readFrames(reader, width, height);
+            } finally {
+                reader.dispose();
+            }
+        } catch (IOException e) {
+            System.err.println("Error al cargar la imagen " + path + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    private static Frames readFrames(ImageReader reader, int width, int height) throws IOException {
+        int count = reader.getNumImages(true);
+        List<BufferedImage> frames = new ArrayList<>(count);
+        long delay = 0;
+        BufferedImage canvas = null;
+        for (int i = 0; i < count; i++) {
+            BufferedImage frame = reader.read(i);
+            Node gif = gifMetadata(reader.getImageMetadata(i));
+            if (gif == null) {
+                // Formatos sin animación: el frame ya es la imagen completa
+                frames.add(toCompatibleImage(frame, width, height));
+                continue;
+            }
+            Node descriptor = child(gif, "ImageDescriptor");
+            Node control = child(gif, "GraphicControlExtension");
+            int left = intAttribute(descriptor, "imageLeftPosition");
+            int top = intAttribute(descriptor, "imageTopPosition");
+            if (canvas == null) {
+                Node screen = child(streamMetadata(reader), "LogicalScreenDescriptor");
+                canvas = new BufferedImage(Math.max(intAttribute(screen, "logicalScreenWidth"), left + frame.getWidth()),
+                        Math.max(intAttribute(screen, "logicalScreenHeight"), top + frame.getHeight()),
+                        BufferedImage.TYPE_INT_ARGB);
+            }
+            String disposal = control == null ? "none" : attribute(control, "disposalMethod");
+            if (delay == 0 && control != null) {
+                delay = intAttribute(control, "delayTime") * 10L;
+            }
+
+            BufferedImage previous = "restoreToPrevious".equals(disposal) ? copy(canvas) : null;
+            Graphics2D g = canvas.createGraphics();
+            try {
+                g.drawImage(frame, left, top, null);
+                frames.add(toCompatibleImage(canvas, width, height));
+                if ("restoreToBackgroundColor".equals(disposal)) {
+                    g.setComposite(AlphaComposite.Clear);
+                    g.fillRect(left, top, frame.getWidth(), frame.getHeight());
+                }
+            } finally {
+                g.dispose();
+            }
+            if (previous != null) {
+                canvas = previous;
+            }
+        }
+        if (frames.isEmpty()) {
+            throw new IOException("la imagen no contiene frames");
+        }
+        return new Frames(frames.toArray(new BufferedImage[0]), delay > 0 ? delay : DEFAULT_GIF_DELAY);
+    }
+
+    private static Node gifMetadata(IIOMetadata metadata) {
+        if (metadata == null || !GIF_METADATA.equals(metadata.getNativeMetadataFormatName())) {
+            return null;
+        }
+        return metadata.getAsTree(GIF_METADATA);
+    }
+
+    private static Node streamMetadata(ImageReader reader) throws IOException {
+        IIOMetadata metadata = reader.getStreamMetadata();
+        if (metadata == null || !GIF_STREAM_METADATA.equals(metadata.getNativeMetadataFormatName())) {
+            return null;
+        }
+        return metadata.getAsTree(GIF_STREAM_METADATA);
+    }
+
+    private static Node child(Node node, String name) {
+        if (node == null) {
+            return null;
+        }
+        for (Node child = node.getFirstChild(); child != null; child = child.getNextSibling()) {
+            if (name.equals(child.getNodeName())) {
+                return child;
+            }
+        }
+        return null;
+    }
+
+    private static String attribute(Node node, String name) {
+        Node value = node.getAttributes().getNamedItem(name);
+        return value == null ? null : value.getNodeValue();
+    }
+
+    private static int intAttribute(Node node, String name) {
+        String value = node == null ? null : attribute(node, name);
+        return value == null ? 0 : Integer.parseInt(value);
+    }
+
+    private static BufferedImage copy(BufferedImage image) {
+        BufferedImage copy = new BufferedImage(image.getWidth(), image.getHeight(), image.getType());
+        Graphics2D g = copy.createGraphics();
+        try {
+            g.drawImage(image, 0, 0, null);
+        } finally {
+            g.dispose();
+        }
+        return copy;
+    }
+
+    private static BufferedImage decode(String path) {
+        URL url = ImageLoader.class.getResource(path);
+        if (url == null) {
+            System.err.println("No se encontró la imagen " + path);
+            return null;
+        }
+        try {
+            BufferedImage image = ImageIO.read(url);
+            if (image == null) {
+                System.err.println("Formato de imagen no soportado: " + path);
+            }
+            return image;
+        } catch (IOException e) {
+            System.err.println("Error al cargar la imagen " + path + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Copia una imagen escalada sobre una imagen compatible con la pantalla. Las reducciones
+     * grandes se hacen a mitades sucesivas para que el resultado no pierda detalle, como el
+     * {@code SCALE_SMOOTH} al que sustituye.
+     *
+     * @param source Imagen de origen.
+     * @param width  Ancho final.
+     * @param height Alto final.
+     * @return Nueva imagen compatible con la transparencia mínima que necesita el origen.
+     */
+    public static BufferedImage toCompatibleImage(BufferedImage source, int width, int height) {
+        int transparency = transparencyOf(source);
+        BufferedImage scaled = source;
+        while (scaled.getWidth() / 2 >= width && scaled.getHeight() / 2 >= height) {
+            scaled = scale(scaled, scaled.getWidth() / 2, scaled.getHeight() / 2,
+                    createCompatibleImage(scaled.getWidth() / 2, scaled.getHeight() / 2, Transparency.TRANSLUCENT));
+        }
+        return scale(scaled, width, height, createCompatibleImage(width, height, transparency));
+    }
+
+    private static BufferedImage scale(BufferedImage source, int width, int height, BufferedImage target) {
+        Graphics2D g = target.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            g.dispose();
+        }
+        return target;
+    }
+
+    /**
+     * Crea una imagen vacía compatible con la pantalla, o una equivalente sin interfaz gráfica.
+     */
+    static BufferedImage createCompatibleImage(int width, int height, int transparency) {
+        if (GraphicsEnvironment.isHeadless()) {
+            return new BufferedImage(width, height, transparency == Transparency.OPAQUE
+                    ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB_PRE);
+        }
+        GraphicsConfiguration config = GraphicsEnvironment.getLocalGraphicsEnvironment()
+                .getDefaultScreenDevice().getDefaultConfiguration();
+        return config.createCompatibleImage(width, height, transparency);
+    }
+
+    /**
+     * Calcula la transparencia que necesita una imagen recorriendo su canal alfa: muchos
+     * ficheros declaran alfa aunque todos sus píxeles sean opacos.
+     */
+    static int transparencyOf(BufferedImage image) {
+        WritableRaster alpha = image.getAlphaRaster();
+        if (alpha == null) {
+            return image.getColorModel().getTransparency() == Transparency.OPAQUE
+                    ? Transparency.OPAQUE : Transparency.TRANSLUCENT;
+        }
+        int[] row = new int[alpha.getWidth()];
+        for (int y = 0; y < alpha.getHeight(); y++) {
+            alpha.getSamples(alpha.getMinX(), alpha.getMinY() + y, row.length, 1, 0, row);
+            for (int value : row) {
+                if (value != 255) {
+                    return Transparency.TRANSLUCENT;
+                }
+            }
+        }
+        return Transparency.OPAQUE;
+    }
+}
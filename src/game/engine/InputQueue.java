@@ -0,0 +1,112 @@
+package game.engine;
+
+import java.io.IOException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Cola de eventos de teclado entre el hilo de eventos de Swing y el hilo de simulación.
+ * <p>
+ * Los KeyListener solo encolan el código de tecla; la simulación vacía la cola al inicio de
+ * cada paso, de modo que el estado del jugador únicamente se modifica desde su propio hilo.
+ * </p>
+ * <p>
+ * Opcionalmente graba los eventos consumidos junto a su paso ({@link InputRecorder}) o, en
+ * modo repetición ({@link InputReplay}), descarta el teclado y entrega los eventos grabados.
+ * </p>
+ */
+public class InputQueue {
+
+    /**
+     * Receptor de los eventos vaciados de la cola.
+     */
+    public interface Handler {
+        /**
+         * Procesa un evento de teclado.
+         *
+         * @param keyCode Código de tecla ({@link java.awt.event.KeyEvent}).
+         * @param pressed {@code true} si la tecla se pulsó; {@code false} si se soltó.
+         */
+        void onKey(int keyCode, boolean pressed);
+    }
+
+    // Cada evento se codifica como (keyCode << 1) | pulsada
+    private final ConcurrentLinkedQueue<Integer> events = new ConcurrentLinkedQueue<>();
+    private InputRecorder recorder;
+    private InputReplay replay;
+
+    /**
+     * Graba los eventos consumidos con el grabador indicado.
+     *
+     * @param recorder Grabador, o {@code null} para no grabar.
+     */
+    public void setRecorder(InputRecorder recorder) {
+        this.recorder = recorder;
+    }
+
+    /**
+     * Sustituye el teclado por los eventos de una repetición.
+     *
+     * @param replay Repetición, o {@code null} para usar el teclado.
+     */
+    public void setReplay(InputReplay replay) {
+        this.replay = replay;
+    }
+
+    /**
+     * Encola un evento de teclado. Puede llamarse desde cualquier hilo.
+     *
+     * @param keyCode Código de tecla.
+     * @param pressed {@code true} si la tecla se pulsó; {@code false} si se soltó.
+     */
+    public void post(int keyCode, boolean pressed) {
+        events.offer((keyCode << 1) | (pressed ? 1 : 0));
+    }
+
+    /**
+     * Entrega al receptor todos los eventos pendientes en orden de llegada.
+     *
+     * @param tick    Paso de simulación que va a consumir los eventos.
+     * @param handler Receptor de los eventos.
+     */
+    public void drain(long tick, Handler handler) {
+        if (replay != null) {
+            events.clear();
+            replay.dispatch(tick, handler);
+            return;
+        }
+        Integer event;
+        boolean recorded = false;
+        while ((event = events.poll()) != null) {
+            int keyCode = event >> 1;
+            boolean pressed = (event & 1) != 0;
+            if (recorder != null) {
+                record(tick, keyCode, pressed);
+                recorded = true;
+            }
+            handler.onKey(keyCode, pressed);
+        }
+        if (recorded && recorder != null) {
+            try {
+                recorder.flush();
+            } catch (IOException e) {
+                System.err.println("Error al grabar la entrada: " + e.getMessage());
+            }
+        }
+    }
+
+    private void record(long tick, int keyCode, boolean pressed) {
+        try {
+            recorder.record(tick, keyCode, pressed);
+        } catch (IOException e) {
+            System.err.println("Error al grabar la entrada: " + e.getMessage());
+            recorder = null;
+        }
+    }
+
+    /**
+     * Descarta los eventos pendientes.
+     */
+    public void clear() {
+        events.clear();
+    }
+}
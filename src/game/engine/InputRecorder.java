@@ -0,0 +1,90 @@
+package game.engine;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Graba los eventos de teclado consumidos por la simulación en un fichero binario de repetición.
+ * <p>
+ * Formato: cabecera con {@link #MAGIC}, {@link #VERSION} y la semilla aleatoria del nivel
+ * ({@code int}, {@code byte}, {@code long}), seguida de un registro por evento con la
+ * diferencia de pasos respecto al evento anterior y el evento codificado como
+ * {@code (keyCode << 1) | pulsada}, ambos como enteros de longitud variable (7 bits por byte).
+ * Un evento típico ocupa 2 o 3 bytes.
+ * </p>
+ */
+public class InputRecorder implements Closeable {
+    /** Identificador de los ficheros de repetición ("ASTR"). */
+    public static final int MAGIC = 0x41535452;
+    /** Versión del formato. */
+    public static final byte VERSION = 1;
+
+    private final DataOutputStream out;
+    private long lastTick;
+
+    /**
+     * Crea el fichero de repetición y escribe la cabecera.
+     *
+     * @param path Ruta del fichero.
+     * @param seed Semilla aleatoria con la que se creó el nivel.
+     * @throws IOException Si no se puede crear el fichero.
+     */
+    public InputRecorder(String path, long seed) throws IOException {
+        this(new FileOutputStream(path), seed);
+    }
+
+    /**
+     * Crea un grabador sobre el flujo indicado y escribe la cabecera.
+     *
+     * @param stream Flujo de destino.
+     * @param seed   Semilla aleatoria con la que se creó el nivel.
+     * @throws IOException Si falla la escritura.
+     */
+    public InputRecorder(OutputStream stream, long seed) throws IOException {
+        out = new DataOutputStream(new BufferedOutputStream(stream));
+        out.writeInt(MAGIC);
+        out.writeByte(VERSION);
+        out.writeLong(seed);
+        out.flush();
+    }
+
+    /**
+     * Graba un evento consumido en el paso indicado.
+     *
+     * @param tick    Paso de simulación en el que se aplicó el evento.
+     * @param keyCode Código de tecla.
+     * @param pressed {@code true} si la tecla se pulsó; {@code false} si se soltó.
+     * @throws IOException Si falla la escritura.
+     */
+    public void record(long tick, int keyCode, boolean pressed) throws IOException {
+        writeVarLong(tick - lastTick);
+        writeVarLong(((long) keyCode << 1) | (pressed ? 1 : 0));
+        lastTick = tick;
+    }
+
+    /**
+     * Vuelca al disco los eventos grabados hasta ahora.
+     *
+     * @throws IOException Si falla la escritura.
+     */
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+
+    private void writeVarLong(long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+}
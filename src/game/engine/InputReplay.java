@@ -0,0 +1,135 @@
+package game.engine;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+/**
+ * Reproduce un fichero grabado por {@link InputRecorder}, entregando cada evento en el mismo
+ * paso de simulación en el que se grabó.
+ * <p>
+ * El fichero se carga completo en memoria al abrirlo; durante la partida solo se recorren dos
+ * arrays, sin E/S ni reservas de memoria.
+ * </p>
+ */
+public class InputReplay {
+    private final long seed;
+    private long[] ticks = new long[64];
+    private int[] events = new int[64];
+    private int count;
+    private int next;
+
+    /**
+     * Carga el fichero de repetición indicado.
+     *
+     * @param path Ruta del fichero.
+     * @throws IOException Si no se puede leer o no tiene el formato esperado.
+     */
+    public InputReplay(String path) throws IOException {
+        this(new FileInputStream(path));
+    }
+
+    /**
+     * Carga una repetición desde el flujo indicado y lo cierra.
+     *
+     * @param stream Flujo de origen.
+     * @throws IOException Si no se puede leer o no tiene el formato esperado.
+     */
+    public InputReplay(InputStream stream) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(stream))) {
+            if (in.readInt() != InputRecorder.MAGIC) {
+                throw new IOException("No es un fichero de repetición");
+            }
+            byte version = in.readByte();
+            if (version != InputRecorder.VERSION) {
+                throw new IOException("Versión de repetición no soportada: " + version);
+            }
+            seed = in.readLong();
+            long tick = 0;
+            while (true) {
+                long delta = readVarLong(in, true);
+                if (delta < 0) {
+                    break;
+                }
+                tick += delta;
+                add(tick, (int) readVarLong(in, false));
+            }
+        }
+    }
+
+    /**
+     * Obtiene la semilla aleatoria con la que se grabó la partida.
+     *
+     * @return Semilla del nivel.
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Entrega al receptor los eventos grabados hasta el paso indicado, inclusive.
+     *
+     * @param tick    Paso de simulación actual.
+     * @param handler Receptor de los eventos.
+     */
+    public void dispatch(long tick, InputQueue.Handler handler) {
+        while (next < count && ticks[next] <= tick) {
+            int event = events[next++];
+            handler.onKey(event >> 1, (event & 1) != 0);
+        }
+    }
+
+    /**
+     * Indica si ya se entregaron todos los eventos.
+     *
+     * @return {@code true} si la repetición ha terminado.
+     */
+    public boolean isFinished() {
+        return next >= count;
+    }
+
+    /**
+     * Obtiene el número de eventos grabados.
+     *
+     * @return Número de eventos.
+     */
+    public int size() {
+        return count;
+    }
+
+    private void add(long tick, int event) {
+        if (count == ticks.length) {
+            ticks = Arrays.copyOf(ticks, count * 2);
+            events = Arrays.copyOf(events, count * 2);
+        }
+        ticks[count] = tick;
+        events[count] = event;
+        count++;
+    }
+
+    // Devuelve -1 si el fichero termina limpiamente antes del primer byte (fin de la grabación)
+    private static long readVarLong(DataInputStream in, boolean allowEnd) throws IOException {
+        long value = 0;
+        int shift = 0;
+        while (true) {
+            int b;
+            try {
+                b = in.readUnsignedByte();
+            } catch (EOFException e) {
+                if (allowEnd && shift == 0) {
+                    return -1;
+                }
+                throw new IOException("Repetición truncada", e);
+            }
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+            shift += 7;
+        }
+    }
+}
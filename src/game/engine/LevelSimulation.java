@@ -0,0 +1,26 @@
+package game.engine;
+
+/**
+ * Acceso a la simulación de un nivel para ejecutarla fuera de Swing.
+ * <p>
+ * Los paneles de nivel lo implementan para que un ejecutor externo (por ejemplo, el modo
+ * headless) pueda avanzar su {@link GameLoop} paso a paso e inyectar teclas en su
+ * {@link InputQueue}, igual que lo haría el teclado.
+ * </p>
+ */
+public interface LevelSimulation {
+
+    /**
+     * Obtiene el bucle que avanza la simulación del nivel.
+     *
+     * @return Bucle de juego del nivel.
+     */
+    GameLoop getGameLoop();
+
+    /**
+     * Obtiene la cola de teclas que consume la simulación al inicio de cada paso.
+     *
+     * @return Cola de entrada del nivel.
+     */
+    InputQueue getInputQueue();
+}
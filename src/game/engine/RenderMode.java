@@ -0,0 +1,28 @@
+package game.engine;
+
+/**
+ * Modo de presentación de frames de los paneles de juego.
+ * <p>
+ * Se selecciona con la propiedad del sistema {@code astralis.render}
+ * ({@code passive} o {@code active}); por defecto se usa el modo pasivo.
+ * </p>
+ */
+public enum RenderMode {
+    /** Pintado mediante {@code repaint()} y {@code paintComponent} gestionado por Swing. */
+    PASSIVE,
+    /** Pintado activo sobre un {@link ActiveRenderCanvas} con page flipping. */
+    ACTIVE;
+
+    /** Nombre de la propiedad del sistema que selecciona el modo. */
+    public static final String PROPERTY = "astralis.render";
+
+    /**
+     * Obtiene el modo configurado en las propiedades del sistema.
+     *
+     * @return El modo seleccionado, o {@link #PASSIVE} si no se ha indicado ninguno válido.
+     */
+    public static RenderMode current() {
+        String value = System.getProperty(PROPERTY, "passive");
+        return "active".equalsIgnoreCase(value.trim()) ? ACTIVE : PASSIVE;
+    }
+}
@@ -0,0 +1,55 @@
+package game.engine;
+
+import game.controls.movements.Player;
+
+/**
+ * Estado inmutable para el pintado de un frame, capturado por el hilo de simulación.
+ * <p>
+ * Contiene la pose del jugador (posición actual y la del paso anterior para interpolar) y la
+ * fracción de interpolación del frame. Cada nivel extiende esta clase con el estado propio de
+ * sus entidades y efectos; las instancias se reutilizan a través de un {@link TripleBuffer}.
+ * </p>
+ */
+public class RenderSnapshot {
+    /** Fracción de paso transcurrida al capturar el frame. */
+    public float interpolation;
+    public int playerX, playerY;
+    public int playerPrevX, playerPrevY;
+    public int playerWidth, playerHeight;
+    public Sprite playerSprite;
+
+    /**
+     * Copia la pose del jugador.
+     *
+     * @param player        Jugador de la simulación.
+     * @param interpolation Fracción de paso transcurrida.
+     */
+    public void capture(Player player, float interpolation) {
+        this.interpolation = interpolation;
+        playerX = player.getX();
+        playerY = player.getY();
+        playerPrevX = player.getPreviousX();
+        playerPrevY = player.getPreviousY();
+        playerWidth = player.getWidth();
+        playerHeight = player.getHeight();
+        playerSprite = player.getSprite();
+    }
+
+    /**
+     * Obtiene la coordenada X interpolada del jugador.
+     *
+     * @return Coordenada X a usar para el pintado.
+     */
+    public int getPlayerRenderX() {
+        return Math.round(playerPrevX + (playerX - playerPrevX) * interpolation);
+    }
+
+    /**
+     * Obtiene la coordenada Y interpolada del jugador.
+     *
+     * @return Coordenada Y a usar para el pintado.
+     */
+    public int getPlayerRenderY() {
+        return Math.round(playerPrevY + (playerY - playerPrevY) * interpolation);
+    }
+}
@@ -0,0 +1,117 @@
+package game.engine;
+
+import java.io.IOException;
+import java.util.Random;
+
+/**
+ * Configuración de grabación y repetición de un nivel, leída de las propiedades del sistema.
+ * <p>
+ * Con {@code -Dastralis.replay.record=prefijo} cada nivel graba su entrada en
+ * {@code prefijo-<nivel>.replay}; con {@code -Dastralis.replay.play=prefijo} la reproduce desde
+ * ese mismo fichero, ignorando el teclado. La semilla aleatoria del nivel se toma del fichero
+ * que se reproduce, de {@code -Dastralis.seed} o, en su defecto, del reloj del sistema, de modo
+ * que una repetición recrea exactamente las mismas partículas, rayos y estalactitas.
+ * </p>
+ */
+public class ReplaySession {
+    /** Prefijo de los ficheros a grabar. */
+    public static final String RECORD_PROPERTY = "astralis.replay.record";
+    /** Prefijo de los ficheros a reproducir. */
+    public static final String PLAY_PROPERTY = "astralis.replay.play";
+    /** Semilla aleatoria fija para partidas sin repetición. */
+    public static final String SEED_PROPERTY = "astralis.seed";
+    /** Extensión de los ficheros de repetición. */
+    public static final String EXTENSION = ".replay";
+
+    private final long seed;
+    private final InputRecorder recorder;
+    private final InputReplay replay;
+
+    private ReplaySession(long seed, InputRecorder recorder, InputReplay replay) {
+        this.seed = seed;
+        this.recorder = recorder;
+        this.replay = replay;
+    }
+
+    /**
+     * Prepara la sesión de un nivel según las propiedades del sistema. Los errores de E/S se
+     * informan por la salida de error y el nivel continúa sin grabar o sin reproducir.
+     *
+     * @param level Nombre del nivel, usado en el nombre del fichero.
+     * @return Sesión del nivel.
+     */
+    public static ReplaySession open(String level) {
+        InputReplay replay = null;
+        String playPrefix = System.getProperty(PLAY_PROPERTY);
+        if (playPrefix != null) {
+            String path = playPrefix + "-" + level + EXTENSION;
+            try {
+                replay = new InputReplay(path);
+                System.out.println("Reproduciendo " + replay.size() + " eventos de " + path);
+            } catch (IOException e) {
+                System.err.println("No se pudo cargar la repetición " + path + ": " + e.getMessage());
+            }
+        }
+
+        long seed;
+        if (replay != null) {
+            seed = replay.getSeed();
+        } else {
+            seed = Long.getLong(SEED_PROPERTY, System.nanoTime());
+        }
+
+        InputRecorder recorder = null;
+        String recordPrefix = System.getProperty(RECORD_PROPERTY);
+        if (recordPrefix != null) {
+            String path = recordPrefix + "-" + level + EXTENSION;
+            try {
+                recorder = new InputRecorder(path, seed);
+            } catch (IOException e) {
+                System.err.println("No se pudo crear la grabación " + path + ": " + e.getMessage());
+            }
+        }
+        return new ReplaySession(seed, recorder, replay);
+    }
+
+    /**
+     * Obtiene la semilla aleatoria del nivel.
+     *
+     * @return Semilla.
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Crea el generador aleatorio del nivel. Todos los efectos y entidades del nivel deben
+     * compartirlo y usarlo solo desde el hilo de simulación para que la secuencia sea reproducible.
+     *
+     * @return Generador inicializado con la semilla del nivel.
+     */
+    public Random newRandom() {
+        return new Random(seed);
+    }
+
+    /**
+     * Conecta la grabación o la repetición a la cola de entrada del nivel.
+     *
+     * @param queue Cola de entrada del nivel.
+     */
+    public void attach(InputQueue queue) {
+        queue.setRecorder(recorder);
+        queue.setReplay(replay);
+    }
+
+    /**
+     * Cierra el fichero de grabación, si lo hay. Se invoca al terminar el nivel.
+     */
+    public void close() {
+        if (recorder != null) {
+            try {
+                recorder.close();
+            } catch (IOException e) {
+                System.err.println("Error al cerrar la grabación: " + e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package game.engine;
+
+import java.awt.Graphics;
+import java.awt.image.BufferedImage;
+
+/**
+ * Imagen identificada por un rectángulo dentro de un atlas compartido ({@link SpriteAtlas}).
+ * Pintar un sprite copia solo su rectángulo, por lo que todos los frames de un atlas salen de
+ * la misma imagen de origen.
+ */
+public final class Sprite {
+    private final BufferedImage atlas;
+    private final int x;
+    private final int y;
+    private final int width;
+    private final int height;
+
+    Sprite(BufferedImage atlas, int x, int y, int width, int height) {
+        this.atlas = atlas;
+        this.x = x;
+        this.y = y;
+        this.width = width;
+        this.height = height;
+    }
+
+    /**
+     * Pinta el sprite con su tamaño original.
+     *
+     * @param g  Contexto gráfico.
+     * @param dx Coordenada X de destino.
+     * @param dy Coordenada Y de destino.
+     */
+    public void draw(Graphics g, int dx, int dy) {
+        draw(g, dx, dy, width, height);
+    }
+
+    /**
+     * Pinta el sprite en el rectángulo indicado. Si coincide con su tamaño la copia es directa.
+     *
+     * @param g      Contexto gráfico.
+     * @param dx     Coordenada X de destino.
+     * @param dy     Coordenada Y de destino.
+     * @param width  Ancho de destino.
+     * @param height Alto de destino.
+     */
+    public void draw(Graphics g, int dx, int dy, int width, int height) {
+        g.drawImage(atlas, dx, dy, dx + width, dy + height, x, y, x + this.width, y + this.height, null);
+    }
+
+    /**
+     * Obtiene el atlas que contiene el sprite.
+     *
+     * @return Imagen del atlas.
+     */
+    public BufferedImage getAtlas() {
+        return atlas;
+    }
+
+    /**
+     * Obtiene el ancho del sprite.
+     *
+     * @return Ancho en píxeles.
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * Obtiene la altura del sprite.
+     *
+     * @return Altura en píxeles.
+     */
+    public int getHeight() {
+        return height;
+    }
+}
@@ -0,0 +1,82 @@
+package game.engine;
+
+import java.awt.Graphics2D;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.util.List;
+
+/**
+ * Empaqueta varias imágenes en un único atlas compatible con la pantalla.
+ * <p>
+ * Las imágenes se colocan por filas (estantes) de como mucho {@link #MAX_WIDTH} píxeles, con un
+ * píxel de separación para que el filtrado al escalar no mezcle sprites vecinos. Cada imagen
+ * se sustituye por un {@link Sprite} que apunta a su rectángulo, de modo que pintar cualquier
+ * frame usa siempre la misma imagen de origen.
+ * </p>
+ */
+public final class SpriteAtlas {
+    /** Ancho máximo del atlas en píxeles. */
+    public static final int MAX_WIDTH = 2048;
+    private static final int PADDING = 1;
+
+    private SpriteAtlas() {
+    }
+
+    /**
+     * Empaqueta las imágenes en un atlas. Las posiciones nulas (imágenes que no se pudieron
+     * cargar) se conservan como sprites nulos.
+     *
+     * @param images Imágenes a empaquetar, en el orden en que se quieren los sprites.
+     * @return Un sprite por imagen, en el mismo orden y todos sobre el mismo atlas.
+     */
+    public static Sprite[] pack(List<BufferedImage> images) {
+        int count = images.size();
+        int[] xs = new int[count];
+        int[] ys = new int[count];
+        int atlasWidth = 0;
+        int atlasHeight = 0;
+        int cursorX = 0;
+        int shelfY = 0;
+        int shelfHeight = 0;
+        int transparency = Transparency.OPAQUE;
+        for (int i = 0; i < count; i++) {
+            BufferedImage image = images.get(i);
+            if (image == null) {
+                continue;
+            }
+            if (cursorX > 0 && cursorX + image.getWidth() > MAX_WIDTH) {
+                shelfY += shelfHeight + PADDING;
+                cursorX = 0;
+                shelfHeight = 0;
+            }
+            xs[i] = cursorX;
+            ys[i] = shelfY;
+            cursorX += image.getWidth() + PADDING;
+            shelfHeight = Math.max(shelfHeight, image.getHeight());
+            atlasWidth = Math.max(atlasWidth, xs[i] + image.getWidth());
+            atlasHeight = Math.max(atlasHeight, shelfY + image.getHeight());
+            if (ImageLoader.transparencyOf(image) != Transparency.OPAQUE) {
+                transparency = Transparency.TRANSLUCENT;
+            }
+        }
+
+        Sprite[] sprites = new Sprite[count];
+        if (atlasWidth == 0) {
+            return sprites;
+        }
+        BufferedImage atlas = ImageLoader.createCompatibleImage(atlasWidth, atlasHeight, transparency);
+        Graphics2D g = atlas.createGraphics();
+        try {
+            for (int i = 0; i < count; i++) {
+                BufferedImage image = images.get(i);
+                if (image != null) {
+                    g.drawImage(image, xs[i], ys[i], null);
+                    sprites[i] = new Sprite(atlas, xs[i], ys[i], image.getWidth(), image.getHeight());
+                }
+            }
+        } finally {
+            g.dispose();
+        }
+        return sprites;
+    }
+}
@@ -0,0 +1,67 @@
+package game.engine;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Triple buffer sin bloqueos para pasar estados de un único productor a un único consumidor.
+ * <p>
+ * El productor (hilo de simulación) escribe siempre en su buffer trasero y lo publica con
+ * {@link #publish()}; el consumidor (hilo de pintado) obtiene el último estado publicado con
+ * {@link #acquire()}. Ninguno de los dos espera al otro y nunca comparten el mismo buffer:
+ * el intercambio se hace con una única operación atómica sobre el índice del buffer intermedio.
+ * </p>
+ *
+ * @param <T> Tipo del estado intercambiado.
+ */
+public class TripleBuffer<T> {
+    private static final int INDEX_MASK = 0b011;
+    private static final int FRESH = 0b100;
+
+    private final Object[] slots = new Object[3];
+    // Índice del buffer intermedio y bit de "nuevo estado publicado"
+    private final AtomicInteger middle = new AtomicInteger(1);
+    private int back = 0;
+    private int front = 2;
+
+    /**
+     * Crea el triple buffer reservando los tres estados con la fábrica indicada.
+     *
+     * @param factory Fábrica de estados vacíos.
+     */
+    public TripleBuffer(Supplier<T> factory) {
+        for (int i = 0; i < slots.length; i++) {
+            slots[i] = factory.get();
+        }
+    }
+
+    /**
+     * Obtiene el buffer en el que debe escribir el productor.
+     *
+     * @return Estado trasero, propiedad exclusiva del productor hasta {@link #publish()}.
+     */
+    @SuppressWarnings("unchecked")
+    public T getWriteBuffer() {
+        return (T) slots[back];
+    }
+
+    /**
+     * Publica el buffer trasero y entrega al productor otro libre.
+     */
+    public void publish() {
+        back = middle.getAndSet(back | FRESH) & INDEX_MASK;
+    }
+
+    /**
+     * Obtiene el último estado publicado. Si no hay ninguno nuevo devuelve el mismo que la vez anterior.
+     *
+     * @return Estado de lectura, propiedad exclusiva del consumidor hasta la siguiente llamada.
+     */
+    @SuppressWarnings("unchecked")
+    public T acquire() {
+        if ((middle.get() & FRESH) != 0) {
+            front = middle.getAndSet(front) & INDEX_MASK;
+        }
+        return (T) slots[front];
+    }
+}
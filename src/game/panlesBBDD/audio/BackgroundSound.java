@@ -1,5 +1,7 @@
 package game.audio;
 
+import game.engine.Headless;
+
 import javax.sound.sampled.*;
 import java.net.URL;
 
@@ -22,6 +24,10 @@ public class BackgroundSound {
      * @param path Ruta del recurso de audio (por ejemplo, "/resources/sound/background.wav").
      */
     public BackgroundSound(String path) {
+        if (Headless.isEnabled()) {
+            // Sin clip, todas las operaciones de reproducción son nulas
+            return;
+        }
         try {
             URL url = getClass().getResource(path);
             if (url == null) {
@@ -1,21 +1,57 @@
 package game.effects;
 
 import game.controls.movements.Player;
-import java.awt.*;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Arrays;
+import java.util.Random;
 
 /**
  * Sistema de partículas que simula el efecto de niebla en el juego.
  * Genera y actualiza partículas dentro de un área definida, aplicando interacciones
  * de repulsión cuando el jugador se acerca.
+ * <p>
+ * Para no recorrer toda la niebla en cada paso, las partículas se guardan en una rejilla de
+ * celdas (una lista doblemente enlazada de índices por celda) según la posición en la que
+ * nacen. Sin repulsión una partícula se desplaza como mucho {@link #MAX_DRIFT} píxeles en toda
+ * su vida, así que la repulsión solo recorre las celdas que rodean al jugador ampliadas en esa
+ * distancia, y compara distancias al cuadrado antes de calcular ninguna raíz. Las partículas
+ * que el jugador ha empujado ya no respetan ese límite y pasan a una lista aparte que se
+ * recorre siempre. El coste depende así de la densidad de niebla junto al jugador y no del
+ * total de partículas; el resultado es el mismo que comprobando todas.
+ * </p>
  */
 public class FogParticleSystem {
-    private List<game.effects.Particle> particles;
+    private final ParticleSystem particles;
     private int spawnTop;    // Parte superior del área de niebla = floorY - offsetAbove
     private int spawnBottom; // Parte inferior del área de niebla = 1080
     private int spawnWidth;  // Ancho en el que se generan las partículas
     private int spawnCount;  // Número de partículas que se generan en cada actualización
+    private final Random random;
+
+    // Distancia al jugador por debajo de la cual una partícula es repelida
+    private static final int REPULSION_RADIUS = 50;
+    // Velocidad inicial máxima en cada eje y vida inicial (MIN_LIFE más hasta LIFE_RANGE) de
+    // las partículas que se generan
+    private static final double MAX_SPAWN_SPEED = 0.1;
+    private static final int MIN_LIFE = 200;
+    private static final int LIFE_RANGE = 50;
+    // Desplazamiento máximo sin repulsión: la velocidad máxima durante la vida máxima, más un
+    // píxel de margen para el redondeo
+    private static final int MAX_DRIFT = (int) Math.ceil(MAX_SPAWN_SPEED * (MIN_LIFE + LIFE_RANGE)) + 1;
+    // Con este lado, la zona que puede contener partículas afectadas abarca 3 x 3 celdas
+    private static final int CELL_SIZE = REPULSION_RADIUS + MAX_DRIFT;
+    private static final int NONE = -1;
+
+    private int gridColumns;
+    private int gridRows;
+    // Lista de las partículas ya empujadas, tras las listas de las celdas en cellHead
+    private int pushedList;
+    // Primera partícula de cada lista, o NONE si está vacía
+    private int[] cellHead = new int[0];
+    // Lista de cada partícula y sus vecinas en ella, por índice de partícula
+    private int[] listOf = new int[0];
+    private int[] prevInList = new int[0];
+    private int[] nextInList = new int[0];
+    private boolean gridEnabled = true;
 
     /**
      * Construye un sistema de partículas de niebla.
@@ -23,14 +59,17 @@ public class FogParticleSystem {
      * @param floorY     Posición Y del suelo.
      * @param offsetAbove Desplazamiento vertical hacia arriba desde el suelo para iniciar la niebla.
      * @param spawnBottom Posición Y inferior donde pueden aparecer las partículas.
+     * @param random      Generador aleatorio del nivel.
      */
-    public FogParticleSystem(int floorY, int offsetAbove, int spawnBottom) {
+    public FogParticleSystem(int floorY, int offsetAbove, int spawnBottom, Random random) {
+        this.random = random;
         // El área de niebla se extiende desde floorY - offsetAbove hasta spawnBottom.
         this.spawnTop = floorY - offsetAbove;
         this.spawnBottom = spawnBottom;
-        particles = new ArrayList<>();
+        particles = new ParticleSystem(2048);
         spawnWidth = 1920; // Valor por defecto
         spawnCount = 10;   // Genera 10 partículas por frame para mayor densidad
+        buildGrid();
     }
 
     /**
@@ -40,6 +79,7 @@ public class FogParticleSystem {
      */
     public void setSpawnWidth(int width) {
         this.spawnWidth = width;
+        buildGrid();
     }
 
     /**
@@ -51,6 +91,16 @@ public class FogParticleSystem {
         this.spawnCount = count;
     }
 
+    /**
+     * Activa o desactiva el uso de la rejilla en la repulsión. Sin ella se comprueban todas las
+     * partículas en cada paso; el resultado es el mismo, así que solo sirve para comprobarlo.
+     *
+     * @param enabled {@code true} para recorrer solo las celdas cercanas al jugador.
+     */
+    public void setGridEnabled(boolean enabled) {
+        this.gridEnabled = enabled;
+    }
+
     /**
      * Actualiza las partículas existentes y genera nuevas partículas.
      * Aplica un efecto de repulsión si el jugador se encuentra cerca de una partícula.
@@ -60,24 +110,154 @@ public class FogParticleSystem {
     public void update(Player player) {
         int playerCenterX = player.getX() + player.getWidth() / 2;
         int playerCenterY = player.getY() + player.getHeight() / 2;
-        // Actualizar cada partícula y aplicar efecto de repulsión si el jugador está cerca
-        for (int i = 0; i < particles.size(); i++) {
-            game.effects.Particle p = particles.get(i);
-            float dx = p.x - playerCenterX;
-            float dy = p.y - playerCenterY;
-            float distance = (float) Math.sqrt(dx * dx + dy * dy);
-            if (distance < 50 && distance != 0) {
-                float repulsionStrength = (50 - distance) / 50 * 0.5f;
-                p.dx += (dx / distance) * repulsionStrength;
-                p.dy += (dy / distance) * repulsionStrength;
+        repelNear(playerCenterX, playerCenterY);
+        // Mover cada partícula (repartido en tramos si hay suficientes) y eliminar las que se
+        // quedan sin vida
+        particles.integrate(1f);
+        removeDead();
+        spawnParticles();
+    }
+
+    /**
+     * Aplica el efecto de repulsión a las partículas que están cerca del jugador, recorriendo
+     * solo las listas que pueden contenerlas.
+     */
+    private void repelNear(int playerCenterX, int playerCenterY) {
+        if (!gridEnabled) {
+            for (int i = 0; i < particles.count; i++) {
+                repel(i, playerCenterX, playerCenterY);
+            }
+            return;
+        }
+        // Primero las ya empujadas, para no repeler dos veces las que se mueven a esa lista
+        repelList(pushedList, playerCenterX, playerCenterY);
+        int reach = REPULSION_RADIUS + MAX_DRIFT;
+        int firstColumn = cellColumn(playerCenterX - reach);
+        int lastColumn = cellColumn(playerCenterX + reach);
+        int firstRow = cellRow(playerCenterY - reach);
+        int lastRow = cellRow(playerCenterY + reach);
+        for (int row = firstRow; row <= lastRow; row++) {
+            for (int column = firstColumn; column <= lastColumn; column++) {
+                repelList(row * gridColumns + column, playerCenterX, playerCenterY);
             }
-            p.update();
-            if (!p.isAlive()) {
-                particles.remove(i);
-                i--;
+        }
+    }
+
+    private void repelList(int list, int playerCenterX, int playerCenterY) {
+        for (int i = cellHead[list]; i != NONE; ) {
+            // La partícula puede cambiar de lista al repelerla
+            int next = nextInList[i];
+            repel(i, playerCenterX, playerCenterY);
+            i = next;
+        }
+    }
+
+    private void repel(int i, int playerCenterX, int playerCenterY) {
+        float dx = particles.x[i] - playerCenterX;
+        float dy = particles.y[i] - playerCenterY;
+        float distanceSq = dx * dx + dy * dy;
+        // Solo se calcula la raíz de las partículas que están dentro del radio
+        if (distanceSq < REPULSION_RADIUS * REPULSION_RADIUS && distanceSq != 0) {
+            float distance = (float) Math.sqrt(distanceSq);
+            float repulsionStrength = (REPULSION_RADIUS - distance) / REPULSION_RADIUS * 0.5f;
+            particles.dx[i] += (dx / distance) * repulsionStrength;
+            particles.dy[i] += (dy / distance) * repulsionStrength;
+            if (listOf[i] != pushedList) {
+                // Con la velocidad cambiada ya no se puede acotar su desplazamiento
+                unlink(i);
+                link(i, pushedList);
             }
         }
-        spawnParticles();
+    }
+
+    /**
+     * Elimina las partículas sin vida, igual que {@link ParticleSystem#removeDead()}, y mueve
+     * en la rejilla la partícula que ocupa cada hueco.
+     */
+    private void removeDead() {
+        float[] life = particles.life;
+        for (int i = 0; i < particles.count; ) {
+            if (life[i] > 0) {
+                i++;
+                continue;
+            }
+            // La última ocupa su hueco y se comprueba en esta misma posición
+            int last = particles.count - 1;
+            unlink(i);
+            if (last != i) {
+                int list = listOf[last];
+                unlink(last);
+                link(i, list);
+            }
+            particles.remove(i);
+        }
+    }
+
+    /**
+     * Calcula las dimensiones de la rejilla según el área de generación y vuelve a colocar en
+     * ella las partículas existentes. Las no empujadas se colocan por su posición actual: lo que
+     * aún pueden desplazarse es menor que {@link #MAX_DRIFT}.
+     */
+    private void buildGrid() {
+        int oldPushedList = pushedList;
+        gridColumns = Math.max(0, spawnWidth) / CELL_SIZE + 1;
+        gridRows = Math.max(0, spawnBottom - spawnTop) / CELL_SIZE + 1;
+        pushedList = gridColumns * gridRows;
+        cellHead = new int[pushedList + 1];
+        Arrays.fill(cellHead, NONE);
+        float[] px = particles.x;
+        float[] py = particles.y;
+        for (int i = 0; i < particles.count; i++) {
+            link(i, listOf[i] == oldPushedList ? pushedList : cellOf(px[i], py[i]));
+        }
+    }
+
+    private int cellOf(float x, float y) {
+        return cellRow(y) * gridColumns + cellColumn(x);
+    }
+
+    private int cellColumn(float x) {
+        return Math.max(0, Math.min(gridColumns - 1, (int) (x / CELL_SIZE)));
+    }
+
+    private int cellRow(float y) {
+        return Math.max(0, Math.min(gridRows - 1, (int) ((y - spawnTop) / CELL_SIZE)));
+    }
+
+    /**
+     * Añade una partícula al principio de una lista.
+     */
+    private void link(int i, int list) {
+        if (i >= listOf.length) {
+            int capacity = particles.x.length;
+            listOf = Arrays.copyOf(listOf, capacity);
+            prevInList = Arrays.copyOf(prevInList, capacity);
+            nextInList = Arrays.copyOf(nextInList, capacity);
+        }
+        int head = cellHead[list];
+        listOf[i] = list;
+        prevInList[i] = NONE;
+        nextInList[i] = head;
+        if (head != NONE) {
+            prevInList[head] = i;
+        }
+        cellHead[list] = i;
+    }
+
+    /**
+     * Quita una partícula de su lista.
+     */
+    private void unlink(int i) {
+        int prev = prevInList[i];
+        int next = nextInList[i];
+        if (prev != NONE) {
+            nextInList[prev] = next;
+        } else {
+            cellHead[listOf[i]] = next;
+        }
+        if (next != NONE) {
+            prevInList[next] = prev;
+        }
     }
 
     /**
@@ -85,34 +265,26 @@ public class FogParticleSystem {
      */
     private void spawnParticles() {
         for (int i = 0; i < spawnCount; i++) {
-            int x = (int)(Math.random() * spawnWidth);
+            int x = (int)(random.nextDouble() * spawnWidth);
             // y se genera entre spawnTop y spawnBottom
-            int y = spawnTop + (int)(Math.random() * (spawnBottom - spawnTop));
-            // Movimiento muy suave y aleatorio
-            float dx = (float)((Math.random() - 0.5) * 0.2);
-            float dy = (float)(Math.random() * 0.2 - 0.1);
-            float life = 200 + (float)(Math.random() * 50);
+            int y = spawnTop + (int)(random.nextDouble() * (spawnBottom - spawnTop));
+            // Movimiento muy suave y aleatorio (MAX_DRIFT depende de estos límites)
+            float dx = (float)((random.nextDouble() - 0.5) * (2 * MAX_SPAWN_SPEED));
+            float dy = (float)(random.nextDouble() * (2 * MAX_SPAWN_SPEED) - MAX_SPAWN_SPEED);
+            float life = MIN_LIFE + (float)(random.nextDouble() * LIFE_RANGE);
             // Tamaño entre 1 y 3 píxeles para partículas más pequeñas
-            float size = 1 + (float)(Math.random() * 2);
+            float size = 1 + (float)(random.nextDouble() * 2);
             int color = 0xBBBBBB; // Gris claro
-            particles.add(new game.effects.Particle(x, y, dx, dy, life, color, size));
+            link(particles.spawn(x, y, dx, dy, life, color, size), cellOf(x, y));
         }
     }
 
     /**
-     * Dibuja las partículas de niebla en el contexto gráfico proporcionado.
+     * Vuelca las partículas vivas en el buffer de pintado.
      *
-     * @param g2 Objeto Graphics2D utilizado para el dibujo.
+     * @param out Buffer de destino.
      */
-    public void draw(Graphics2D g2) {
-        for (game.effects.Particle p : particles) {
-            float alpha = p.getAlpha();
-            Color fogColor = new Color((p.colorRGB >> 16) & 0xFF,
-                    (p.colorRGB >> 8) & 0xFF,
-                    p.colorRGB & 0xFF,
-                    (int)(alpha * 255));
-            g2.setColor(fogColor);
-            g2.fillOval((int)p.x, (int)p.y, (int)p.size, (int)p.size);
-        }
+    public void copyTo(ParticleBuffer out) {
+        out.copyFrom(particles);
     }
 }
@@ -0,0 +1,90 @@
+package game.effects;
+
+/**
+ * Paso de integración de un tramo de partículas: {@code x += dx * speed},
+ * {@code y += dy * speed} y {@code life -= 1} para cada índice del tramo.
+ * <p>
+ * Hay dos implementaciones con resultados idénticos bit a bit: una escalar y otra que usa la
+ * Vector API ({@code jdk.incubator.vector}) para procesar varias partículas por instrucción. La
+ * vectorial se compila aparte, con el módulo, en el módulo Maven {@code src/simd}, que genera
+ * {@code astralis-simd.jar}; así el juego compila sin él. {@link #preferred()} elige una al
+ * arrancar: la vectorial solo si ese JAR está en el classpath, el módulo está cargado
+ * ({@code java --add-modules jdk.incubator.vector}) y no se ha desactivado con
+ * {@code -Dastralis.simd=false}; en cualquier otro caso, la escalar.
+ * </p>
+ */
+public interface IntegrationKernel {
+    /** Nombre de la propiedad del sistema que permite desactivar la versión vectorial. */
+    String SIMD_PROPERTY = "astralis.simd";
+
+    /**
+     * Integra las partículas del tramo.
+     *
+     * @param x     Posiciones X.
+     * @param y     Posiciones Y.
+     * @param dx    Velocidades en el eje X.
+     * @param dy    Velocidades en el eje Y.
+     * @param life  Vida restante.
+     * @param from  Primer índice, incluido.
+     * @param to    Último índice, excluido.
+     * @param speed Multiplicador de la velocidad.
+     */
+    void integrate(float[] x, float[] y, float[] dx, float[] dy, float[] life, int from, int to, float speed);
+
+    /**
+     * Obtiene la implementación elegida al arrancar.
+     *
+     * @return La versión vectorial si está disponible y permitida; si no, la escalar.
+     */
+    static IntegrationKernel preferred() {
+        return Selection.PREFERRED;
+    }
+
+    /**
+     * Obtiene la implementación escalar.
+     *
+     * @return Implementación escalar, siempre disponible.
+     */
+    static IntegrationKernel scalar() {
+        return ScalarIntegrationKernel.INSTANCE;
+    }
+
+    /**
+     * Obtiene la implementación vectorial.
+     *
+     * @return Implementación vectorial, o {@code null} si su JAR no está en el classpath o el
+     *         módulo no está cargado.
+     */
+    static IntegrationKernel vector() {
+        return Selection.VECTOR;
+    }
+
+    /**
+     * Elección de la implementación, hecha una única vez al cargar la clase.
+     */
+    final class Selection {
+        private static final String VECTOR_MODULE = "jdk.incubator.vector";
+        private static final IntegrationKernel VECTOR = loadVector();
+        private static final IntegrationKernel PREFERRED =
+                VECTOR != null && !"false".equals(System.getProperty(SIMD_PROPERTY)) ? VECTOR : scalar();
+
+        private Selection() {
+        }
+
+        private static IntegrationKernel loadVector() {
+            if (ModuleLayer.boot().findModule(VECTOR_MODULE).isEmpty()) {
+                return null;
+            }
+            try {
+                // Se carga por nombre: solo existe si astralis-simd.jar está en el classpath
+                return (IntegrationKernel) Class.forName("game.effects.VectorIntegrationKernel")
+                        .getDeclaredConstructor().newInstance();
+            } catch (ClassNotFoundException e) {
+                return null;
+            } catch (ReflectiveOperationException | LinkageError e) {
+                System.err.println("No se pudo cargar la integración vectorial: " + e);
+                return null;
+            }
+        }
+    }
+}
@@ -1,8 +1,6 @@
 package game.effects;
 
-import java.awt.*;
-import java.util.ArrayList;
-import java.util.List;
+import java.awt.Color;
 import java.util.Random;
 
 /**
@@ -11,7 +9,15 @@ import java.util.Random;
  * Genera partículas con propiedades aleatorias para lograr un efecto natural.
  */
 public class LeafParticleEffect {
-    private List<game.effects.Particle> particles;
+    // Tonalidades otoñales en RGB, con alfa opaco
+    private static final int[] AUTUMN_COLORS = {
+            new Color(205, 92, 92).getRGB(),
+            new Color(210, 105, 30).getRGB(),
+            new Color(244, 164, 96).getRGB(),
+            new Color(139, 69, 19).getRGB()
+    };
+
+    private final ParticleSystem particles;
     private Random random;
     private int worldWidth;
     private int maxY;  // Altura máxima en la que pueden aparecer las partículas (por ejemplo, el floor)
@@ -23,13 +29,14 @@ public class LeafParticleEffect {
      * @param worldWidth   Ancho del mundo, usado para posicionar las partículas horizontalmente.
      * @param maxY         Altura máxima en la que pueden generarse las partículas.
      * @param maxParticles Número máximo de partículas simultáneas.
+     * @param random       Generador aleatorio del nivel.
      */
-    public LeafParticleEffect(int worldWidth, int maxY, int maxParticles) {
+    public LeafParticleEffect(int worldWidth, int maxY, int maxParticles, Random random) {
         this.worldWidth = worldWidth;
         this.maxY = maxY;
         this.maxParticles = maxParticles;
-        particles = new ArrayList<>();
-        random = new Random();
+        particles = new ParticleSystem(maxParticles);
+        this.random = random;
     }
 
     /**
@@ -41,14 +48,8 @@ public class LeafParticleEffect {
      * </ul>
      */
     public void update() {
-        for (int i = particles.size() - 1; i >= 0; i--) {
-            game.effects.Particle p = particles.get(i);
-            p.update();
-            if (!p.isAlive()) {
-                particles.remove(i);
-            }
-        }
-        while (particles.size() < maxParticles) {
+        particles.update();
+        while (particles.count < maxParticles) {
             spawnParticle();
         }
     }
@@ -70,29 +71,16 @@ public class LeafParticleEffect {
         float dx = (random.nextFloat() - 0.5f) * 2;
         float dy = (random.nextFloat() - 0.5f) * 2;
         float maxLife = 60 + random.nextInt(60); // Vida entre 60 y 120 frames
-        Color[] autumnColors = {
-                new Color(205, 92, 92),
-                new Color(210, 105, 30),
-                new Color(244, 164, 96),
-                new Color(139, 69, 19)
-        };
-        Color chosen = autumnColors[random.nextInt(autumnColors.length)];
-        int colorRGB = chosen.getRGB();
-        game.effects.Particle particle = new game.effects.Particle(x, y, dx, dy, maxLife, colorRGB, size);
-        particles.add(particle);
+        int colorRGB = AUTUMN_COLORS[random.nextInt(AUTUMN_COLORS.length)];
+        particles.spawn(x, y, dx, dy, maxLife, colorRGB, size);
     }
 
     /**
-     * Dibuja todas las partículas en el contexto gráfico proporcionado.
+     * Vuelca las partículas vivas en el buffer de pintado.
      *
-     * @param g2d Objeto Graphics2D utilizado para renderizar las partículas.
+     * @param out Buffer de destino.
      */
-    public void draw(Graphics2D g2d) {
-        for (game.effects.Particle p : particles) {
-            Color baseColor = new Color(p.colorRGB);
-            Color c = new Color(baseColor.getRed() / 255f, baseColor.getGreen() / 255f, baseColor.getBlue() / 255f, p.getAlpha());
-            g2d.setColor(c);
-            g2d.fillOval((int) p.x, (int) p.y, (int) p.size, (int) p.size);
-        }
+    public void copyTo(ParticleBuffer out) {
+        out.copyFrom(particles);
     }
 }
@@ -1,5 +1,7 @@
 package game.effects;
 
+import game.engine.GameClock;
+
 import java.awt.*;
 import java.awt.geom.AffineTransform;
 import java.util.ArrayList;
@@ -14,9 +16,10 @@ public class Lightning {
     private List<game.effects.LightningBranch> branches;
     private long startTime;
     private long duration;
+    private final GameClock clock;
     private int virtualWidth;  // Ancho de la zona de efecto
     private int virtualHeight; // Alto de la zona de efecto
-    private Random rand = new Random();
+    private final Random rand;
     private int offsetX; // Posición X en el mundo para el efecto (tras transformación)
     private int offsetY; // Posición Y en el mundo para el efecto
 
@@ -28,14 +31,18 @@ public class Lightning {
      * @param offsetY    Coordenada Y de la zona en el mundo.
      * @param zoneWidth  Ancho de la zona en la que se genera el efecto.
      * @param zoneHeight Alto de la zona en la que se genera el efecto.
+     * @param clock      Reloj de juego con el que se mide la duración.
+     * @param rand       Generador aleatorio del nivel, usado para trazar las ramas.
      */
-    public Lightning(long duration, int offsetX, int offsetY, int zoneWidth, int zoneHeight) {
+    public Lightning(long duration, int offsetX, int offsetY, int zoneWidth, int zoneHeight, GameClock clock, Random rand) {
         this.duration = duration;
+        this.rand = rand;
+        this.clock = clock;
         this.virtualWidth = zoneWidth;
         this.virtualHeight = zoneHeight;
         this.offsetX = offsetX;
         this.offsetY = offsetY;
-        this.startTime = System.currentTimeMillis();
+        this.startTime = clock.millis();
         this.branches = generateBranches();
     }
 
@@ -119,6 +126,6 @@ public class Lightning {
      * @return {@code true} si el efecto sigue activo; {@code false} si ha finalizado.
      */
     public boolean isActive() {
-        return System.currentTimeMillis() - startTime < duration;
+        return clock.millis() - startTime < duration;
     }
 }
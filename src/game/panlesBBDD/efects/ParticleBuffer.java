@@ -0,0 +1,72 @@
+package game.effects;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.util.Arrays;
+
+/**
+ * Copia plana de un conjunto de partículas lista para el pintado.
+ * <p>
+ * El hilo de simulación vuelca aquí la posición, el tamaño, la opacidad y el color de cada
+ * partícula viva; el hilo de pintado solo lee estos arrays, sin tocar el {@link ParticleSystem}
+ * que la simulación sigue modificando. Los arrays crecen según sea necesario y se reutilizan
+ * entre frames.
+ * </p>
+ */
+public class ParticleBuffer {
+    public float[] x = new float[64];
+    public float[] y = new float[64];
+    public float[] size = new float[64];
+    public float[] alpha = new float[64];
+    public int[] colorRGB = new int[64];
+    public int count;
+
+    /**
+     * Vacía el buffer conservando la capacidad reservada.
+     */
+    public void clear() {
+        count = 0;
+    }
+
+    /**
+     * Sustituye el contenido del buffer por las partículas vivas del conjunto.
+     *
+     * @param particles Partículas a copiar.
+     */
+    public void copyFrom(ParticleSystem particles) {
+        int n = particles.count;
+        if (x.length < n) {
+            grow(n);
+        }
+        System.arraycopy(particles.x, 0, x, 0, n);
+        System.arraycopy(particles.y, 0, y, 0, n);
+        System.arraycopy(particles.size, 0, size, 0, n);
+        System.arraycopy(particles.colorRGB, 0, colorRGB, 0, n);
+        for (int i = 0; i < n; i++) {
+            alpha[i] = particles.getAlpha(i);
+        }
+        count = n;
+    }
+
+    /**
+     * Dibuja cada partícula como un círculo de su color, con la opacidad según su vida restante.
+     *
+     * @param g2 Objeto Graphics2D utilizado para el dibujo.
+     */
+    public void fillOvals(Graphics2D g2) {
+        for (int i = 0; i < count; i++) {
+            int rgb = colorRGB[i];
+            g2.setColor(new Color((rgb >> 16) & 0xFF, (rgb >> 8) & 0xFF, rgb & 0xFF, (int) (alpha[i] * 255)));
+            g2.fillOval((int) x[i], (int) y[i], (int) size[i], (int) size[i]);
+        }
+    }
+
+    private void grow(int minCapacity) {
+        int capacity = Math.max(minCapacity, x.length * 2);
+        x = Arrays.copyOf(x, capacity);
+        y = Arrays.copyOf(y, capacity);
+        size = Arrays.copyOf(size, capacity);
+        alpha = Arrays.copyOf(alpha, capacity);
+        colorRGB = Arrays.copyOf(colorRGB, capacity);
+    }
+}
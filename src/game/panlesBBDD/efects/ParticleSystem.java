@@ -0,0 +1,316 @@
+package game.effects;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Conjunto de partículas guardado por columnas (estructura de arrays).
+ * <p>
+ * Cada propiedad vive en su propio array primitivo: la partícula {@code i} ocupa la posición
+ * {@code i} de todos ellos y las {@link #count} primeras posiciones son las vivas. No se crea
+ * ningún objeto por partícula; los arrays crecen al doble cuando hace falta y se reutilizan
+ * durante toda la partida. Al morir, una partícula se sustituye por la última del conjunto, de
+ * modo que eliminar cuesta O(1) y el orden de las partículas no se conserva.
+ * </p>
+ * <p>
+ * La opacidad de cada partícula es {@code alphaScale * life / maxLife}; {@code alphaScale} vale
+ * 1 salvo en las partículas que nacen semitransparentes, como las gotas de lluvia.
+ * </p>
+ * <p>
+ * Los cálculos por partícula se reparten en tramos entre los hilos del
+ * {@link ForkJoinPool#commonPool()} cuando el conjunto supera el umbral de paralelismo
+ * ({@link #DEFAULT_PARALLEL_THRESHOLD} por defecto); por debajo se ejecutan en el hilo que
+ * llama. Cada partícula se calcula de forma independiente, así que el resultado es el mismo
+ * con uno o con varios hilos. La compactación de las muertas es secuencial y mantiene el orden
+ * de la versión de un solo hilo.
+ * </p>
+ * <p>
+ * El umbral no está medido en máquinas de varios núcleos, y los efectos del juego nunca lo
+ * alcanzan: la niebla se queda por debajo de 2.500 partículas (10 por paso durante menos de 250
+ * pasos de vida), la lluvia en 1.080 gotas y las hojas y la hierba en unas decenas o cientos.
+ * En el juego, por tanto, todo se calcula en el hilo de simulación; el reparto solo entra en
+ * juego con conjuntos mayores, y {@code ParallelParticleBenchmark} sirve para ajustar el umbral.
+ * </p>
+ * <p>
+ * El paso de integración lo hace el {@link IntegrationKernel} preferido: vectorial si la Vector
+ * API está disponible y escalar en caso contrario.
+ * </p>
+ */
+public class ParticleSystem {
+    /**
+     * Partículas a partir de las cuales la actualización se reparte entre varios hilos. Es una
+     * estimación sin medir, muy por encima de lo que generan los efectos del juego.
+     */
+    public static final int DEFAULT_PARALLEL_THRESHOLD = 16_384;
+
+    // Escalar o vectorial, según se elija al arrancar
+    private static final IntegrationKernel INTEGRATION = IntegrationKernel.preferred();
+
+    /**
+     * Cálculo aplicado a un tramo de partículas. Debe tocar solo las posiciones del tramo.
+     */
+    public interface RangeKernel {
+        /**
+         * Procesa las partículas del tramo.
+         *
+         * @param particles Conjunto de partículas.
+         * @param from      Primer índice, incluido.
+         * @param to        Último índice, excluido.
+         */
+        void apply(ParticleSystem particles, int from, int to);
+    }
+
+    public float[] x;
+    public float[] y;
+    public float[] dx;
+    public float[] dy;
+    public float[] life;
+    public float[] maxLife;
+    public float[] size;
+    public float[] alphaScale;
+    public int[] colorRGB;
+    public int count;
+
+    private int parallelThreshold = DEFAULT_PARALLEL_THRESHOLD;
+    // Multiplicador del paso en curso, leído por el núcleo de integración
+    private float stepSpeed = 1f;
+    private final RangeKernel integrateKernel = (particles, from, to) -> integrateRange(from, to, stepSpeed);
+
+    /**
+     * Crea un conjunto vacío.
+     *
+     * @param initialCapacity Partículas para las que se reserva espacio al principio.
+     */
+    public ParticleSystem(int initialCapacity) {
+        int capacity = Math.max(16, initialCapacity);
+        x = new float[capacity];
+        y = new float[capacity];
+        dx = new float[capacity];
+        dy = new float[capacity];
+        life = new float[capacity];
+        maxLife = new float[capacity];
+        size = new float[capacity];
+        alphaScale = new float[capacity];
+        colorRGB = new int[capacity];
+    }
+
+    /**
+     * Añade una partícula opaca al nacer.
+     *
+     * @param x        Posición X inicial.
+     * @param y        Posición Y inicial.
+     * @param dx       Velocidad en el eje X.
+     * @param dy       Velocidad en el eje Y.
+     * @param maxLife  Vida máxima (y también inicial) en pasos.
+     * @param colorRGB Color de la partícula (sin componente alfa).
+     * @param size     Tamaño de la partícula.
+     * @return Índice de la nueva partícula.
+     */
+    public int spawn(float x, float y, float dx, float dy, float maxLife, int colorRGB, float size) {
+        return spawn(x, y, dx, dy, maxLife, colorRGB, size, 1f);
+    }
+
+    /**
+     * Añade una partícula con una opacidad inicial.
+     *
+     * @param x          Posición X inicial.
+     * @param y          Posición Y inicial.
+     * @param dx         Velocidad en el eje X.
+     * @param dy         Velocidad en el eje Y.
+     * @param maxLife    Vida máxima (y también inicial) en pasos.
+     * @param colorRGB   Color de la partícula (sin componente alfa).
+     * @param size       Tamaño de la partícula.
+     * @param alphaScale Opacidad al nacer, entre 0 y 1.
+     * @return Índice de la nueva partícula.
+     */
+    public int spawn(float x, float y, float dx, float dy, float maxLife, int colorRGB, float size, float alphaScale) {
+        if (count == this.x.length) {
+            grow();
+        }
+        int i = count++;
+        set(i, x, y, dx, dy, maxLife, colorRGB, size, alphaScale);
+        return i;
+    }
+
+    /**
+     * Reinicia una partícula existente con nuevas propiedades, sin cambiar el tamaño del
+     * conjunto.
+     *
+     * @param i          Índice de la partícula.
+     * @param x          Posición X.
+     * @param y          Posición Y.
+     * @param dx         Velocidad en el eje X.
+     * @param dy         Velocidad en el eje Y.
+     * @param maxLife    Vida máxima (y también inicial) en pasos.
+     * @param colorRGB   Color de la partícula (sin componente alfa).
+     * @param size       Tamaño de la partícula.
+     * @param alphaScale Opacidad al nacer, entre 0 y 1.
+     */
+    public void set(int i, float x, float y, float dx, float dy, float maxLife, int colorRGB, float size, float alphaScale) {
+        this.x[i] = x;
+        this.y[i] = y;
+        this.dx[i] = dx;
+        this.dy[i] = dy;
+        this.life[i] = maxLife;
+        this.maxLife[i] = maxLife;
+        this.colorRGB[i] = colorRGB;
+        this.size[i] = size;
+        this.alphaScale[i] = alphaScale;
+    }
+
+    /**
+     * Avanza un paso todas las partículas y elimina las que se quedan sin vida.
+     */
+    public void update() {
+        integrate(1f);
+        removeDead();
+    }
+
+    /**
+     * Avanza un paso todas las partículas con la velocidad multiplicada, sin eliminar ninguna.
+     *
+     * @param speed Multiplicador de la velocidad.
+     */
+    public void integrate(float speed) {
+        stepSpeed = speed;
+        forEachRange(integrateKernel);
+    }
+
+    /**
+     * Avanza un paso las partículas de un tramo, para combinarlo con otros cálculos dentro de
+     * un mismo {@link RangeKernel}.
+     *
+     * @param from  Primer índice, incluido.
+     * @param to    Último índice, excluido.
+     * @param speed Multiplicador de la velocidad.
+     */
+    public void integrateRange(int from, int to, float speed) {
+        INTEGRATION.integrate(x, y, dx, dy, life, from, to, speed);
+    }
+
+    /**
+     * Elimina las partículas sin vida, sustituyendo cada una por la última del conjunto.
+     */
+    public void removeDead() {
+        int n = count;
+        float[] life = this.life;
+        for (int i = 0; i < n; ) {
+            if (life[i] > 0) {
+                i++;
+            } else {
+                // La última ocupa su hueco y se comprueba en esta misma posición
+                move(--n, i);
+            }
+        }
+        count = n;
+    }
+
+    /**
+     * Aplica un cálculo a todas las partículas, repartido en tramos entre varios hilos si el
+     * conjunto supera el umbral de paralelismo.
+     *
+     * @param kernel Cálculo a aplicar a cada tramo.
+     */
+    public void forEachRange(RangeKernel kernel) {
+        int n = count;
+        if (n < parallelThreshold || ForkJoinPool.getCommonPoolParallelism() < 2) {
+            kernel.apply(this, 0, n);
+            return;
+        }
+        int slice = Math.max(parallelThreshold / 2, n / (ForkJoinPool.getCommonPoolParallelism() * 4) + 1);
+        ForkJoinPool.commonPool().invoke(new Slice(this, kernel, 0, n, slice));
+    }
+
+    /**
+     * Establece a partir de cuántas partículas se reparten los cálculos entre varios hilos.
+     *
+     * @param threshold Número de partículas; {@link Integer#MAX_VALUE} para no repartir nunca.
+     */
+    public void setParallelThreshold(int threshold) {
+        this.parallelThreshold = Math.max(1, threshold);
+    }
+
+    /**
+     * Tramo de partículas que se divide por la mitad hasta alcanzar el tamaño mínimo.
+     */
+    private static final class Slice extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final ParticleSystem particles;
+        private final RangeKernel kernel;
+        private final int from;
+        private final int to;
+        private final int minSlice;
+
+        private Slice(ParticleSystem particles, RangeKernel kernel, int from, int to, int minSlice) {
+            this.particles = particles;
+            this.kernel = kernel;
+            this.from = from;
+            this.to = to;
+            this.minSlice = minSlice;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= minSlice) {
+                kernel.apply(particles, from, to);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new Slice(particles, kernel, from, mid, minSlice),
+                    new Slice(particles, kernel, mid, to, minSlice));
+        }
+    }
+
+    /**
+     * Elimina la partícula indicada sustituyéndola por la última.
+     *
+     * @param i Índice de la partícula.
+     */
+    public void remove(int i) {
+        move(--count, i);
+    }
+
+    /**
+     * Vacía el conjunto conservando la capacidad reservada.
+     */
+    public void clear() {
+        count = 0;
+    }
+
+    /**
+     * Calcula la opacidad actual de una partícula según su vida restante.
+     *
+     * @param i Índice de la partícula.
+     * @return Opacidad entre 0 y 1.
+     */
+    public float getAlpha(int i) {
+        return alphaScale[i] * Math.max(0, life[i] / maxLife[i]);
+    }
+
+    private void move(int from, int to) {
+        x[to] = x[from];
+        y[to] = y[from];
+        dx[to] = dx[from];
+        dy[to] = dy[from];
+        life[to] = life[from];
+        maxLife[to] = maxLife[from];
+        size[to] = size[from];
+        alphaScale[to] = alphaScale[from];
+        colorRGB[to] = colorRGB[from];
+    }
+
+    private void grow() {
+        int capacity = x.length * 2;
+        x = Arrays.copyOf(x, capacity);
+        y = Arrays.copyOf(y, capacity);
+        dx = Arrays.copyOf(dx, capacity);
+        dy = Arrays.copyOf(dy, capacity);
+        life = Arrays.copyOf(life, capacity);
+        maxLife = Arrays.copyOf(maxLife, capacity);
+        size = Arrays.copyOf(size, capacity);
+        alphaScale = Arrays.copyOf(alphaScale, capacity);
+        colorRGB = Arrays.copyOf(colorRGB, capacity);
+    }
+}
@@ -0,0 +1,107 @@
+package game.effects;
+
+import java.util.Random;
+
+/**
+ * Simula la lluvia de un nivel como un conjunto de gotas en un {@link ParticleSystem}.
+ * Las gotas caen en diagonal con una velocidad base multiplicada por un factor común, que el
+ * nivel aumenta a medida que arrecia la tormenta; al salir del mundo, cada gota se vuelve a
+ * generar en una posición aleatoria.
+ */
+public class RainEffect {
+    private final ParticleSystem drops;
+    private final int worldWidth;
+    private final int worldHeight;
+    private final Random random;
+    // Multiplicador de la velocidad de caída (1.0 = velocidad base)
+    private float speedMultiplier = 1.0f;
+
+    /**
+     * Crea la lluvia con un número inicial de gotas.
+     *
+     * @param worldWidth   Ancho del mundo.
+     * @param worldHeight  Altura del mundo.
+     * @param initialDrops Número de gotas iniciales.
+     * @param random       Generador aleatorio del nivel.
+     */
+    public RainEffect(int worldWidth, int worldHeight, int initialDrops, Random random) {
+        this.worldWidth = worldWidth;
+        this.worldHeight = worldHeight;
+        this.random = random;
+        drops = new ParticleSystem(initialDrops);
+        fill(initialDrops);
+    }
+
+    /**
+     * Avanza todas las gotas con el multiplicador actual y regenera las que han salido del
+     * mundo.
+     */
+    public void update() {
+        drops.integrate(speedMultiplier);
+        float[] x = drops.x;
+        float[] y = drops.y;
+        for (int i = 0; i < drops.count; i++) {
+            if (x[i] > worldWidth || y[i] > worldHeight) {
+                randomize(i);
+            }
+        }
+    }
+
+    /**
+     * Añade gotas hasta alcanzar la cantidad indicada.
+     *
+     * @param desiredDrops Número de gotas deseado.
+     */
+    public void fill(int desiredDrops) {
+        while (drops.count < desiredDrops) {
+            drops.spawn(0, 0, 0, 0, 1, 0, 0);
+            randomize(drops.count - 1);
+        }
+    }
+
+    /**
+     * Genera una gota aleatoria dentro de los límites del mundo en la posición indicada.
+     */
+    private void randomize(int i) {
+        float x = (float) (random.nextDouble() * worldWidth);
+        float y = (float) (random.nextDouble() * worldHeight);
+        // Velocidades base: entre 3 y 6 para dx y entre 10 y 15 para dy
+        float dx = 3 + (float) (random.nextDouble() * 3); // entre 3 y 6
+        float dy = 10 + (float) (random.nextDouble() * 5); // entre 10 y 15
+        float maxLife = worldHeight / dy;
+        // Tamaño aleatorio entre 1 y 3 (más pequeño)
+        float size = 1 + (float) (random.nextDouble() * 2);
+        // Genera un tono de azul: el componente azul entre 200 y 255; alfa entre 30 y 150
+        int blue = 200 + (int)(random.nextDouble() * 56);
+        int alpha = 30 + (int)(random.nextDouble() * 121);
+        // Guardamos el valor azul en colorRGB (asumiendo que rojo y verde son 0)
+        drops.set(i, x, y, dx, dy, maxLife, blue, size, alpha / 255f);
+    }
+
+    /**
+     * Establece el multiplicador de la velocidad de caída.
+     *
+     * @param speedMultiplier Multiplicador (1.0 = velocidad base).
+     */
+    public void setSpeedMultiplier(float speedMultiplier) {
+        this.speedMultiplier = speedMultiplier;
+    }
+
+    /**
+     * Obtiene el número de gotas.
+     *
+     * @return Gotas activas.
+     */
+    public int size() {
+        return drops.count;
+    }
+
+    /**
+     * Vuelca las gotas en el buffer de pintado.
+     *
+     * @param out Buffer de destino.
+     */
+    public void copyTo(ParticleBuffer out) {
+        out.copyFrom(drops);
+    }
+}
@@ -1,8 +1,5 @@
 package game.effects;
 
-import java.awt.*;
-import java.util.ArrayList;
-import java.util.List;
 import java.util.Random;
 
 /**
@@ -10,7 +7,7 @@ import java.util.Random;
  * hojas o pasto que emergen del suelo (normalmente en los pies del jugador).
  */
 public class RunGrassEffect {
-    private List<game.effects.Particle> particles;
+    private final ParticleSystem particles;
     private Random random;
     private int maxParticles;
 
@@ -18,11 +15,12 @@ public class RunGrassEffect {
      * Crea un efecto de hierba con un número máximo de partículas.
      *
      * @param maxParticles Número máximo de partículas simultáneas.
+     * @param random       Generador aleatorio del nivel.
      */
-    public RunGrassEffect(int maxParticles) {
+    public RunGrassEffect(int maxParticles, Random random) {
         this.maxParticles = maxParticles;
-        particles = new ArrayList<>();
-        random = new Random();
+        particles = new ParticleSystem(maxParticles);
+        this.random = random;
     }
 
     /**
@@ -45,10 +43,10 @@ public class RunGrassEffect {
             float life = 30 + random.nextInt(16);
             // Tono de verde: el componente verde varía entre 100 y 200
             int green = 100 + random.nextInt(101);
-            int colorRGB = new Color(0, green, 0).getRGB();
+            int colorRGB = 0xFF000000 | (green << 8);
             // Tamaño entre 2 y 4 píxeles
             float size = 2 + random.nextFloat() * 2;
-            particles.add(new game.effects.Particle(x, y, dx, dy, life, colorRGB, size));
+            particles.spawn(x, y, dx, dy, life, colorRGB, size);
         }
     }
 
@@ -56,30 +54,15 @@ public class RunGrassEffect {
      * Actualiza el estado de todas las partículas y elimina aquellas que han expirado.
      */
     public void update() {
-        for (int i = particles.size() - 1; i >= 0; i--) {
-            game.effects.Particle p = particles.get(i);
-            p.update();
-            if (!p.isAlive()) {
-                particles.remove(i);
-            }
-        }
+        particles.update();
     }
 
     /**
-     * Dibuja todas las partículas de hierba en el contexto gráfico proporcionado.
+     * Vuelca las partículas vivas en el buffer de pintado.
      *
-     * @param g2d Objeto Graphics2D utilizado para renderizar las partículas.
+     * @param out Buffer de destino.
      */
-    public void draw(Graphics2D g2d) {
-        for (game.effects.Particle p : particles) {
-            Color baseColor = new Color(p.colorRGB);
-            Color c = new Color(
-                    baseColor.getRed() / 255f,
-                    baseColor.getGreen() / 255f,
-                    baseColor.getBlue() / 255f,
-                    p.getAlpha());
-            g2d.setColor(c);
-            g2d.fillOval((int)p.x, (int)p.y, (int)p.size, (int)p.size);
-        }
+    public void copyTo(ParticleBuffer out) {
+        out.copyFrom(particles);
     }
 }
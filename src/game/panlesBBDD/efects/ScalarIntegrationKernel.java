@@ -0,0 +1,21 @@
+package game.effects;
+
+/**
+ * Integración de partículas con un bucle escalar, que el compilador JIT puede vectorizar por
+ * su cuenta.
+ */
+final class ScalarIntegrationKernel implements IntegrationKernel {
+    static final ScalarIntegrationKernel INSTANCE = new ScalarIntegrationKernel();
+
+    private ScalarIntegrationKernel() {
+    }
+
+    @Override
+    public void integrate(float[] x, float[] y, float[] dx, float[] dy, float[] life, int from, int to, float speed) {
+        for (int i = from; i < to; i++) {
+            x[i] += dx[i] * speed;
+            y[i] += dy[i] * speed;
+            life[i] -= 1;
+        }
+    }
+}
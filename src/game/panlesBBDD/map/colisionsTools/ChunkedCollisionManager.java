@@ -0,0 +1,30 @@
+package game.panlesBBDD.map.colisionsTools;
+
+/**
+ * Gestiona las colisiones contra un {@link ChunkedTileMap}, consultando solo sus trozos
+ * residentes.
+ * <p>
+ * No copia ni indexa el mapa: cada consulta lee directamente las celdas de los trozos cargados,
+ * por lo que no ocupa memoria adicional sea cual sea la longitud del mundo. Las celdas de trozos
+ * no residentes se consideran libres; {@link ChunkedTileMap#update(int, int)} garantiza que los
+ * trozos visibles, donde está el jugador, siempre estén cargados.
+ * </p>
+ */
+public class ChunkedCollisionManager extends GridCollisionQuery {
+    private final ChunkedTileMap tileMap;
+
+    /**
+     * Crea una instancia de ChunkedCollisionManager sobre el mapa por streaming.
+     *
+     * @param tileMap Mapa por trozos del nivel.
+     */
+    public ChunkedCollisionManager(ChunkedTileMap tileMap) {
+        super(tileMap.getTileSize(), tileMap.getColumns(), tileMap.getRows());
+        this.tileMap = tileMap;
+    }
+
+    @Override
+    protected boolean isSolid(int col, int row) {
+        return tileMap.getTile(col, row) == 1;
+    }
+}
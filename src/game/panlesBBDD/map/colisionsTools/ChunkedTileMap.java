@@ -0,0 +1,376 @@
+package game.panlesBBDD.map.colisionsTools;
+
+import java.awt.Rectangle;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Mapa de tiles por streaming para mundos de cualquier longitud.
+ * <p>
+ * El mapa compilado ({@link TileMapFormat}) se proyecta en memoria, por ventanas si es muy
+ * grande, y se divide en trozos de {@code chunkColumns} columnas con todas sus filas. En cada
+ * paso, {@link #update(int, int)} recibe la zona visible de la cámara: los trozos visibles se
+ * cargan de inmediato si aún no lo están, los siguientes en la dirección del movimiento se
+ * cargan en un hilo de fondo y los que quedan lejos se descartan, de modo que la memoria ocupada
+ * no depende de la longitud del mundo.
+ * </p>
+ * <p>
+ * Las consultas solo ven los trozos residentes: una celda de un trozo no cargado se trata como
+ * fuera del mapa. Las actualizaciones se hacen desde el hilo de simulación; las consultas de
+ * tiles pueden hacerse también desde el hilo de pintado. El hilo de fondo solo publica trozos
+ * que faltan; únicamente {@link #update(int, int)} descarta trozos, de modo que un trozo visible
+ * no puede desaparecer en mitad de un paso.
+ * </p>
+ */
+public class ChunkedTileMap implements GroundQuery {
+    /** Columnas por trozo por defecto (1280 píxeles con tiles de 40). */
+    public static final int DEFAULT_CHUNK_COLUMNS = 32;
+    /** Trozos que se precargan por delante de la zona visible en la dirección del movimiento. */
+    private static final int PREFETCH_CHUNKS = 2;
+    /** Trozos que se conservan por detrás de la zona visible antes de descartarlos. */
+    private static final int KEEP_BEHIND_CHUNKS = 1;
+
+    private static final int STATE_EMPTY = 0;
+    private static final int STATE_PENDING = 1;
+
+    private final int tileSize;
+    private final int chunkColumns;
+    private final int columns;
+    private final int rows;
+    private final int chunkCount;
+    private final int cellCount;
+    private final TileMapFormat.TileLayer layer;
+    // Celdas de cada trozo por filas (fila * chunkColumns + columna local) seguidas de su índice
+    // del suelo (cellCount + columna local * rows + fila); null si no está cargado
+    private final AtomicReferenceArray<int[]> chunks;
+    private final AtomicIntegerArray loadState;
+    private final ExecutorService loader;
+
+    private int lastViewX = Integer.MIN_VALUE;
+    private int direction = 1;
+    // Rango de trozos que se desea mantener; el cargador lo consulta para no leer trozos que
+    // ya no hacen falta
+    private volatile int keepFirst;
+    private volatile int keepLast = -1;
+    // Rango que update() debe revisar al descartar: el deseado más los trozos de fuera cuya
+    // carga en segundo plano aún no ha terminado. Solo lo usa el hilo de simulación
+    private int trackFirst;
+    private int trackLast = -1;
+
+    /**
+     * Abre un mapa compilado para cargarlo por trozos. Si no se encuentra o no es válido, se
+     * informa por la salida de error y se usa el mapa por defecto de {@link TileMap}.
+     *
+     * @param path         Ruta del recurso compilado.
+     * @param tileSize     Tamaño de cada tile en píxeles.
+     * @param chunkColumns Columnas por trozo.
+     */
+    public ChunkedTileMap(String path, int tileSize, int chunkColumns) {
+        this.tileSize = tileSize;
+        this.chunkColumns = chunkColumns;
+        layer = openLayer(path);
+        columns = layer.columns;
+        rows = layer.rows;
+        chunkCount = (columns + chunkColumns - 1) / chunkColumns;
+        cellCount = rows * chunkColumns;
+        chunks = new AtomicReferenceArray<>(chunkCount);
+        loadState = new AtomicIntegerArray(chunkCount);
+        loader = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "tilemap-streamer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    private TileMapFormat.TileLayer openLayer(String path) {
+        URL url = getClass().getResource(path);
+        if (url == null) {
+            System.err.println("No se encontró el mapa compilado: " + path + ". Se usará el mapa por defecto.");
+        } else {
+            try {
+                return TileMapFormat.openTiles(url);
+            } catch (IOException e) {
+                System.err.println("Error al cargar el mapa compilado " + path + ": " + e.getMessage());
+            }
+        }
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            TileMapFormat.write(TileMap.createDefaultTiles(), out);
+            return TileMapFormat.locateTiles(ByteBuffer.wrap(out.toByteArray()));
+        } catch (IOException e) {
+            // El mapa por defecto siempre es válido
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Ajusta los trozos residentes a la zona visible. Los trozos visibles se cargan en el propio
+     * hilo si el de fondo no los tiene listos, para que las colisiones junto al jugador nunca
+     * consulten un trozo ausente.
+     *
+     * @param viewX     Coordenada X del borde izquierdo de la zona visible.
+     * @param viewWidth Ancho de la zona visible.
+     */
+    public void update(int viewX, int viewWidth) {
+        if (lastViewX != Integer.MIN_VALUE && viewX != lastViewX) {
+            direction = viewX > lastViewX ? 1 : -1;
+        }
+        lastViewX = viewX;
+
+        int chunkWidth = chunkColumns * tileSize;
+        int firstVisible = clampChunk(Math.floorDiv(viewX, chunkWidth));
+        int lastVisible = clampChunk(Math.floorDiv(viewX + Math.max(1, viewWidth) - 1, chunkWidth));
+        int first = clampChunk(firstVisible - (direction < 0 ? PREFETCH_CHUNKS : KEEP_BEHIND_CHUNKS));
+        int last = clampChunk(lastVisible + (direction > 0 ? PREFETCH_CHUNKS : KEEP_BEHIND_CHUNKS));
+        // Basta revisar el rango anterior y el nuevo: fuera de ellos no hay trozos residentes
+        // ni cargas pendientes
+        int from = trackLast < 0 ? first : Math.min(trackFirst, first);
+        int to = trackLast < 0 ? last : Math.max(trackLast, last);
+        keepFirst = first;
+        keepLast = last;
+        int nextTrackFirst = first;
+        int nextTrackLast = last;
+
+        for (int chunk = from; chunk <= to; chunk++) {
+            if (chunk < first || chunk > last) {
+                // El estado se lee antes de descartar: si la carga ya terminó, su trozo ya está
+                // publicado y se descarta ahora; si no, se vuelve a revisar en el siguiente paso
+                if (loadState.get(chunk) == STATE_PENDING) {
+                    nextTrackFirst = Math.min(nextTrackFirst, chunk);
+                    nextTrackLast = Math.max(nextTrackLast, chunk);
+                }
+                chunks.set(chunk, null);
+            } else if (chunks.get(chunk) == null) {
+                if (chunk >= firstVisible && chunk <= lastVisible) {
+                    chunks.compareAndSet(chunk, null, readChunk(chunk));
+                } else if (loadState.compareAndSet(chunk, STATE_EMPTY, STATE_PENDING)) {
+                    final int index = chunk;
+                    loader.execute(() -> loadInBackground(index));
+                }
+            }
+        }
+        trackFirst = nextTrackFirst;
+        trackLast = nextTrackLast;
+    }
+
+    private void loadInBackground(int chunk) {
+        try {
+            // Solo se publica un trozo que falta; si la cámara se aleja mientras se lee, lo
+            // descartará update() en el hilo de simulación
+            if (chunk >= keepFirst && chunk <= keepLast && chunks.get(chunk) == null) {
+                chunks.compareAndSet(chunk, null, readChunk(chunk));
+            }
+        } finally {
+            loadState.set(chunk, STATE_EMPTY);
+        }
+    }
+
+    private int[] readChunk(int chunk) {
+        int firstCol = chunk * chunkColumns;
+        int width = Math.min(chunkColumns, columns - firstCol);
+        int[] cells = new int[2 * cellCount];
+        for (int row = 0; row < rows; row++) {
+            layer.readRow(row, firstCol, cells, row * chunkColumns, width);
+        }
+        // Índice del suelo del trozo: fila del primer tile sólido en o por debajo de cada celda
+        for (int col = 0; col < chunkColumns; col++) {
+            int next = rows;
+            for (int row = rows - 1; row >= 0; row--) {
+                if (cells[row * chunkColumns + col] == 1) {
+                    next = row;
+                }
+                cells[cellCount + col * rows + row] = next;
+            }
+        }
+        return cells;
+    }
+
+    private int clampChunk(int chunk) {
+        return Math.max(0, Math.min(chunkCount - 1, chunk));
+    }
+
+    /**
+     * Obtiene el tipo de una celda.
+     *
+     * @param col Columna.
+     * @param row Fila.
+     * @return Valor del tile, o -1 si está fuera del mapa o en un trozo no residente.
+     */
+    public int getTile(int col, int row) {
+        if (col < 0 || col >= columns || row < 0 || row >= rows) {
+            return -1;
+        }
+        int[] cells = chunks.get(col / chunkColumns);
+        if (cells == null) {
+            return -1;
+        }
+        return cells[row * chunkColumns + col % chunkColumns];
+    }
+
+    /**
+     * Devuelve el tipo de tile en una posición específica (en píxeles).
+     *
+     * @param x Coordenada X en píxeles.
+     * @param y Coordenada Y en píxeles.
+     * @return El valor del tile, o -1 si la posición está fuera del mapa o no está residente.
+     */
+    public int getTileAt(int x, int y) {
+        return getTile(Math.floorDiv(x, tileSize), Math.floorDiv(y, tileSize));
+    }
+
+    /**
+     * Comprueba si el rectángulo solapa algún tile residente del tipo indicado, con la misma
+     * semántica que {@link TileMap#containsTileType(int, int, int, int, int)}.
+     *
+     * @param x      Coordenada X del rectángulo en píxeles.
+     * @param y      Coordenada Y del rectángulo en píxeles.
+     * @param width  Ancho del rectángulo.
+     * @param height Alto del rectángulo.
+     * @param type   Tipo de tile buscado.
+     * @return {@code true} si alguna celda solapada y residente es de ese tipo.
+     */
+    public boolean containsTileType(int x, int y, int width, int height, int type) {
+        if (width <= 0 || height <= 0) {
+            return false;
+        }
+        int startCol = Math.max(0, Math.floorDiv(x, tileSize));
+        int endCol = Math.min(columns - 1, Math.floorDiv(x + width - 1, tileSize));
+        int startRow = Math.max(0, Math.floorDiv(y, tileSize));
+        int endRow = Math.min(rows - 1, Math.floorDiv(y + height - 1, tileSize));
+        for (int row = startRow; row <= endRow; row++) {
+            for (int col = startCol; col <= endCol; col++) {
+                if (getTile(col, row) == type) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Comprueba si el rectángulo solapa algún tile residente del tipo indicado.
+     *
+     * @param rect El rectángulo que se evalúa.
+     * @param type Tipo de tile buscado.
+     * @return {@code true} si alguna celda solapada y residente es de ese tipo.
+     */
+    public boolean containsTileType(Rectangle rect, int type) {
+        return containsTileType(rect.x, rect.y, rect.width, rect.height, type);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Las columnas de trozos no residentes no aportan suelo.
+     * </p>
+     */
+    @Override
+    public int getFloorY(int x, int y, int width) {
+        int startRow = Math.max(0, -Math.floorDiv(-y, tileSize));
+        if (width <= 0 || startRow >= rows) {
+            return NO_FLOOR;
+        }
+        int startCol = Math.max(0, Math.floorDiv(x, tileSize));
+        int endCol = Math.min(columns - 1, Math.floorDiv(x + width - 1, tileSize));
+        int floorRow = rows;
+        for (int col = startCol; col <= endCol; col++) {
+            int[] cells = chunks.get(col / chunkColumns);
+            if (cells != null) {
+                floorRow = Math.min(floorRow, cells[cellCount + (col % chunkColumns) * rows + startRow]);
+            }
+        }
+        return floorRow < rows ? floorRow * tileSize : NO_FLOOR;
+    }
+
+    /**
+     * Indica si el trozo que contiene la columna está cargado.
+     *
+     * @param col Columna.
+     * @return {@code true} si la columna es consultable.
+     */
+    public boolean isResident(int col) {
+        return col >= 0 && col < columns && chunks.get(col / chunkColumns) != null;
+    }
+
+    /**
+     * Obtiene el número de trozos cargados en este momento.
+     *
+     * @return Trozos residentes.
+     */
+    public int getResidentChunkCount() {
+        int count = 0;
+        for (int chunk = 0; chunk < chunkCount; chunk++) {
+            if (chunks.get(chunk) != null) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Detiene el hilo de carga. Se invoca al terminar el nivel.
+     */
+    public void close() {
+        loader.shutdownNow();
+    }
+
+    /**
+     * Obtiene el tamaño de cada tile.
+     *
+     * @return El tamaño de los tiles en píxeles.
+     */
+    public int getTileSize() {
+        return tileSize;
+    }
+
+    /**
+     * Obtiene el número total de columnas del mapa, residentes o no.
+     *
+     * @return Columnas del mapa.
+     */
+    public int getColumns() {
+        return columns;
+    }
+
+    /**
+     * Obtiene el número de filas del mapa.
+     *
+     * @return Filas del mapa.
+     */
+    public int getRows() {
+        return rows;
+    }
+
+    /**
+     * Obtiene el número total de trozos del mapa.
+     *
+     * @return Trozos del mapa.
+     */
+    public int getChunkCount() {
+        return chunkCount;
+    }
+
+    /**
+     * Obtiene el ancho total del mundo.
+     *
+     * @return El ancho del mundo en píxeles.
+     */
+    public int getWorldWidth() {
+        return columns * tileSize;
+    }
+
+    /**
+     * Obtiene la altura total del mundo.
+     *
+     * @return La altura del mundo en píxeles.
+     */
+    public int getWorldHeight() {
+        return rows * tileSize;
+    }
+}
@@ -0,0 +1,17 @@
+package game.panlesBBDD.map.colisionsTools;
+
+import java.awt.Rectangle;
+
+/**
+ * Entidad con un área de colisión, que puede indexarse en un {@link SpatialHash}.
+ */
+public interface Collidable {
+
+    /**
+     * Escribe en {@code out} el área de colisión actual de la entidad, sin reservar memoria.
+     *
+     * @param out Rectángulo que se sobrescribe.
+     * @return El mismo {@code out}, para encadenar llamadas.
+     */
+    Rectangle getBounds(Rectangle out);
+}
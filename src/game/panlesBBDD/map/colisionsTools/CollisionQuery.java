@@ -0,0 +1,118 @@
+package game.panlesBBDD.map.colisionsTools;
+
+import java.awt.Rectangle;
+
+/**
+ * Consultas de colisión contra los obstáculos estáticos de un mapa.
+ * <p>
+ * La implementan {@link CollisionManager}, que indexa cada tile sólido en una rejilla,
+ * {@link ChunkedCollisionManager}, que consulta la misma rejilla sobre un mapa cargado por
+ * trozos, y {@link MergedCollisionManager}, que fusiona los tiles contiguos en rectángulos
+ * mayores; los paneles pueden usar cualquiera de ellas sin cambiar su código.
+ * </p>
+ * <p>
+ * Cada consulta existe en dos formas: con los límites como enteros, que no reserva memoria, y
+ * con un {@link Rectangle} por comodidad, que delega en la primera.
+ * </p>
+ */
+public interface CollisionQuery {
+
+    /**
+     * Comprueba si el rectángulo colisiona con algún obstáculo.
+     *
+     * @param x      Coordenada X del rectángulo.
+     * @param y      Coordenada Y del rectángulo.
+     * @param width  Ancho del rectángulo.
+     * @param height Alto del rectángulo.
+     * @return {@code true} si hay colisión; {@code false} en caso contrario.
+     */
+    boolean isColliding(int x, int y, int width, int height);
+
+    /**
+     * Comprueba si el rectángulo colisiona con algún obstáculo.
+     *
+     * @param rect El rectángulo a evaluar.
+     * @return {@code true} si hay colisión; {@code false} en caso contrario.
+     */
+    default boolean isColliding(Rectangle rect) {
+        return isColliding(rect.x, rect.y, rect.width, rect.height);
+    }
+
+    /**
+     * Comprueba si el rectángulo colisiona con la parte superior de algún obstáculo,
+     * considerando un desplazamiento vertical.
+     *
+     * @param x      Coordenada X del rectángulo.
+     * @param y      Coordenada Y del rectángulo.
+     * @param width  Ancho del rectángulo.
+     * @param height Alto del rectángulo.
+     * @param dy     El desplazamiento vertical aplicado.
+     * @return {@code true} si hay colisión en la parte inferior; {@code false} en caso contrario.
+     */
+    boolean isCollidingBelow(int x, int y, int width, int height, int dy);
+
+    /**
+     * Comprueba si el rectángulo colisiona con la parte superior de algún obstáculo,
+     * considerando un desplazamiento vertical.
+     *
+     * @param rect El rectángulo a evaluar.
+     * @param dy   El desplazamiento vertical aplicado.
+     * @return {@code true} si hay colisión en la parte inferior; {@code false} en caso contrario.
+     */
+    default boolean isCollidingBelow(Rectangle rect, int dy) {
+        return isCollidingBelow(rect.x, rect.y, rect.width, rect.height, dy);
+    }
+
+    /**
+     * Calcula cuánto puede desplazarse horizontalmente la caja antes de tocar un obstáculo
+     * (tiempo de impacto de un barrido AABB). Se tienen en cuenta todos los obstáculos que
+     * atraviesa el recorrido completo, por lo que ninguna velocidad permite atravesarlos; los
+     * obstáculos que ya solapan la caja se ignoran para que pueda salir de ellos.
+     *
+     * @param x      Coordenada X de la caja en su posición actual.
+     * @param y      Coordenada Y de la caja.
+     * @param width  Ancho de la caja.
+     * @param height Alto de la caja.
+     * @param dx     Desplazamiento horizontal deseado.
+     * @return Desplazamiento permitido, con el mismo signo que {@code dx} y nunca mayor en valor
+     *         absoluto; igual a {@code dx} si no hay obstáculos en el camino.
+     */
+    int sweepX(int x, int y, int width, int height, int dx);
+
+    /**
+     * Calcula cuánto puede desplazarse horizontalmente la caja antes de tocar un obstáculo.
+     *
+     * @param box Caja de colisión en su posición actual.
+     * @param dx  Desplazamiento horizontal deseado.
+     * @return Desplazamiento permitido; igual a {@code dx} si no hay obstáculos en el camino.
+     * @see #sweepX(int, int, int, int, int)
+     */
+    default int sweepX(Rectangle box, int dx) {
+        return sweepX(box.x, box.y, box.width, box.height, dx);
+    }
+
+    /**
+     * Calcula cuánto puede desplazarse verticalmente la caja antes de tocar un obstáculo.
+     * Equivalente a {@link #sweepX(int, int, int, int, int)} en el eje Y.
+     *
+     * @param x      Coordenada X de la caja.
+     * @param y      Coordenada Y de la caja en su posición actual.
+     * @param width  Ancho de la caja.
+     * @param height Alto de la caja.
+     * @param dy     Desplazamiento vertical deseado.
+     * @return Desplazamiento permitido; igual a {@code dy} si no hay obstáculos en el camino.
+     */
+    int sweepY(int x, int y, int width, int height, int dy);
+
+    /**
+     * Calcula cuánto puede desplazarse verticalmente la caja antes de tocar un obstáculo.
+     *
+     * @param box Caja de colisión en su posición actual.
+     * @param dy  Desplazamiento vertical deseado.
+     * @return Desplazamiento permitido; igual a {@code dy} si no hay obstáculos en el camino.
+     * @see #sweepY(int, int, int, int, int)
+     */
+    default int sweepY(Rectangle box, int dy) {
+        return sweepY(box.x, box.y, box.width, box.height, dy);
+    }
+}
@@ -0,0 +1,177 @@
+package game.panlesBBDD.map.colisionsTools;
+
+import java.awt.Rectangle;
+
+/**
+ * Base de las consultas de colisión sobre una rejilla uniforme de tiles.
+ * <p>
+ * Implementa las consultas de {@link CollisionQuery} recorriendo únicamente las celdas que
+ * solapa o atraviesa cada rectángulo; las subclases solo indican qué celdas son sólidas, ya sea
+ * a partir de un mapa completo en memoria ({@link CollisionManager}) o de los trozos residentes
+ * de un mapa por streaming ({@link ChunkedCollisionManager}).
+ * </p>
+ */
+public abstract class GridCollisionQuery implements CollisionQuery {
+    protected final int tileSize;
+    protected final int columns;
+    protected final int rows;
+
+    /**
+     * @param tileSize Tamaño de cada tile en píxeles.
+     * @param columns  Número de columnas de la rejilla.
+     * @param rows     Número de filas de la rejilla.
+     */
+    protected GridCollisionQuery(int tileSize, int columns, int rows) {
+        this.tileSize = tileSize;
+        this.columns = columns;
+        this.rows = rows;
+    }
+
+    /**
+     * Indica si la celda es un obstáculo. Solo se invoca con índices dentro de la rejilla.
+     *
+     * @param col Columna de la celda.
+     * @param row Fila de la celda.
+     * @return {@code true} si la celda es sólida.
+     */
+    protected abstract boolean isSolid(int col, int row);
+
+    /**
+     * Verifica si el rectángulo especificado colisiona con alguna de las áreas de colisión.
+     *
+     * @param x      Coordenada X del rectángulo.
+     * @param y      Coordenada Y del rectángulo.
+     * @param width  Ancho del rectángulo.
+     * @param height Alto del rectángulo.
+     * @return {@code true} si hay colisión; {@code false} en caso contrario.
+     */
+    @Override
+    public boolean isColliding(int x, int y, int width, int height) {
+        return anySolid(x, y, width, height, Integer.MIN_VALUE);
+    }
+
+
+    /**
+     * Verifica si hay colisión en la parte inferior del rectángulo, considerando un desplazamiento vertical.
+     * <p>
+     * Este método se puede utilizar para detectar colisiones en los pies del jugador.
+     * </p>
+     *
+     * @param x      Coordenada X del rectángulo.
+     * @param y      Coordenada Y del rectángulo.
+     * @param width  Ancho del rectángulo.
+     * @param height Alto del rectángulo.
+     * @param dy     Desplazamiento vertical a aplicar.
+     * @return {@code true} si hay colisión en la parte inferior; {@code false} en caso contrario.
+     */
+    @Override
+    public boolean isCollidingBelow(int x, int y, int width, int height, int dy) {
+        return anySolid(x, y, width, height, y + height - dy);
+    }
+
+    @Override
+    public int sweepX(int x, int y, int width, int height, int dx) {
+        if (dx == 0 || width <= 0 || height <= 0) {
+            return dx;
+        }
+        int startRow = Math.max(0, Math.floorDiv(y, tileSize));
+        int endRow = Math.min(rows - 1, Math.floorDiv(y + height - 1, tileSize));
+        if (dx > 0) {
+            int right = x + width;
+            // Columnas cuyo borde izquierdo está entre el borde derecho de la caja y su destino
+            int firstCol = Math.max(0, Math.floorDiv(right + tileSize - 1, tileSize));
+            int lastCol = Math.min(columns - 1, Math.floorDiv(right + dx - 1, tileSize));
+            for (int col = firstCol; col <= lastCol; col++) {
+                if (anySolidInColumn(col, startRow, endRow)) {
+                    return col * tileSize - right;
+                }
+            }
+        } else {
+            int firstCol = Math.min(columns - 1, Math.floorDiv(x, tileSize) - 1);
+            int lastCol = Math.max(0, Math.floorDiv(x + dx, tileSize));
+            for (int col = firstCol; col >= lastCol; col--) {
+                if (anySolidInColumn(col, startRow, endRow)) {
+                    return (col + 1) * tileSize - x;
+                }
+            }
+        }
+        return dx;
+    }
+
+    @Override
+    public int sweepY(int x, int y, int width, int height, int dy) {
+        if (dy == 0 || width <= 0 || height <= 0) {
+            return dy;
+        }
+        int startCol = Math.max(0, Math.floorDiv(x, tileSize));
+        int endCol = Math.min(columns - 1, Math.floorDiv(x + width - 1, tileSize));
+        if (dy > 0) {
+            int bottom = y + height;
+            int firstRow = Math.max(0, Math.floorDiv(bottom + tileSize - 1, tileSize));
+            int lastRow = Math.min(rows - 1, Math.floorDiv(bottom + dy - 1, tileSize));
+            for (int row = firstRow; row <= lastRow; row++) {
+                if (anySolidInRow(row, startCol, endCol)) {
+                    return row * tileSize - bottom;
+                }
+            }
+        } else {
+            int firstRow = Math.min(rows - 1, Math.floorDiv(y, tileSize) - 1);
+            int lastRow = Math.max(0, Math.floorDiv(y + dy, tileSize));
+            for (int row = firstRow; row >= lastRow; row--) {
+                if (anySolidInRow(row, startCol, endCol)) {
+                    return (row + 1) * tileSize - y;
+                }
+            }
+        }
+        return dy;
+    }
+
+    private boolean anySolidInColumn(int col, int startRow, int endRow) {
+        for (int row = startRow; row <= endRow; row++) {
+            if (isSolid(col, row)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean anySolidInRow(int row, int startCol, int endCol) {
+        for (int col = startCol; col <= endCol; col++) {
+            if (isSolid(col, row)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Recorre las celdas que solapa el rectángulo y comprueba si alguna es sólida.
+     * Sigue la semántica de {@link Rectangle#intersects(Rectangle)}: los bordes que solo se
+     * tocan no cuentan como colisión y un rectángulo vacío nunca colisiona.
+     *
+     * @param minCellY Solo se consideran las celdas cuyo borde superior esté en esta Y o por debajo.
+     * @return {@code true} si alguna celda considerada es sólida.
+     */
+    private boolean anySolid(int x, int y, int width, int height, int minCellY) {
+        if (width <= 0 || height <= 0) {
+            return false;
+        }
+        int startCol = Math.max(0, Math.floorDiv(x, tileSize));
+        int endCol = Math.min(columns - 1, Math.floorDiv(x + width - 1, tileSize));
+        int startRow = Math.max(0, Math.floorDiv(y, tileSize));
+        int endRow = Math.min(rows - 1, Math.floorDiv(y + height - 1, tileSize));
+        if (minCellY > Integer.MIN_VALUE) {
+            // Primera fila cuyo borde superior no queda por encima de minCellY
+            startRow = Math.max(startRow, Math.floorDiv(minCellY + tileSize - 1, tileSize));
+        }
+        for (int row = startRow; row <= endRow; row++) {
+            for (int col = startCol; col <= endCol; col++) {
+                if (isSolid(col, row)) {
+                    // Se encontró la primera colisión; se retorna inmediatamente.
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
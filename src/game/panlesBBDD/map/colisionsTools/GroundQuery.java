@@ -0,0 +1,54 @@
+package game.panlesBBDD.map.colisionsTools;
+
+import java.awt.Rectangle;
+
+/**
+ * Consultas del suelo bajo una posición: la superficie del primer tile sólido que hay debajo.
+ * <p>
+ * La implementan {@link TileMap} y {@link ChunkedTileMap} a partir de un índice que guarda, para
+ * cada celda, la fila del siguiente tile sólido de su columna; cada consulta cuesta una lectura
+ * por columna abarcada, sin importar a qué distancia esté el suelo. Sirve para aterrizar, para
+ * saber si algo está apoyado y para predecir saltos o caídas.
+ * </p>
+ */
+public interface GroundQuery {
+    /** Valor devuelto cuando no hay ningún tile sólido por debajo. */
+    int NO_FLOOR = Integer.MAX_VALUE;
+
+    /**
+     * Obtiene la Y de la superficie más alta entre los tiles sólidos cuyo borde superior está en
+     * {@code y} o por debajo, en las columnas que abarca el tramo horizontal indicado. Los tiles
+     * que ya cruzan {@code y} se ignoran, igual que en los barridos de {@link CollisionQuery}.
+     *
+     * @param x     Coordenada X del tramo.
+     * @param y     Coordenada Y desde la que se busca hacia abajo.
+     * @param width Ancho del tramo.
+     * @return Coordenada Y de la superficie, o {@link #NO_FLOOR} si no hay suelo debajo.
+     */
+    int getFloorY(int x, int y, int width);
+
+    /**
+     * Calcula la distancia desde la base de la caja hasta el suelo que tiene debajo.
+     *
+     * @param x      Coordenada X de la caja.
+     * @param y      Coordenada Y de la caja.
+     * @param width  Ancho de la caja.
+     * @param height Alto de la caja.
+     * @return Píxeles hasta el suelo (0 si está apoyada), o {@link #NO_FLOOR} si no hay suelo.
+     */
+    default int distanceToFloor(int x, int y, int width, int height) {
+        int bottom = y + height;
+        int floorY = getFloorY(x, bottom, width);
+        return floorY == NO_FLOOR ? NO_FLOOR : floorY - bottom;
+    }
+
+    /**
+     * Calcula la distancia desde la base de la caja hasta el suelo que tiene debajo.
+     *
+     * @param box La caja que se evalúa.
+     * @return Píxeles hasta el suelo (0 si está apoyada), o {@link #NO_FLOOR} si no hay suelo.
+     */
+    default int distanceToFloor(Rectangle box) {
+        return distanceToFloor(box.x, box.y, box.width, box.height);
+    }
+}
@@ -0,0 +1,270 @@
+package game.panlesBBDD.map.colisionsTools;
+
+import java.awt.Rectangle;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Gestiona las colisiones con obstáculos fusionados en rectángulos maximales.
+ * <p>
+ * Al crearse, recorre el TileMap por filas y agrupa los tiles sólidos contiguos (valor 1):
+ * primero extiende cada rectángulo a lo ancho tanto como puede y después hacia abajo mientras
+ * la fila siguiente sea sólida en todo ese ancho. Una plataforma larga pasa así de decenas de
+ * tiles de 40x40 a un único rectángulo, lo que reduce el número de colisionadores y evita que
+ * el jugador se enganche en las juntas entre tiles.
+ * </p>
+ * <p>
+ * Para las consultas, cada fila de tiles guarda los rectángulos que la atraviesan ordenados
+ * por X; dentro de una fila no se solapan, de modo que basta una búsqueda binaria por fila.
+ * </p>
+ */
+public class MergedCollisionManager implements CollisionQuery {
+    private final int tileSize;
+    private final Rectangle[] colliders;
+    // Índices de los colisionadores que atraviesan cada fila, ordenados por X
+    private final int[][] rowColliders;
+
+    /**
+     * Crea una instancia de MergedCollisionManager a partir del TileMap.
+     *
+     * @param tileMap El mapa de tiles desde el cual extraer las áreas de colisión.
+     */
+    public MergedCollisionManager(TileMap tileMap) {
+        tileSize = tileMap.getTileSize();
+        int[][] tiles = tileMap.getTiles();
+        List<Rectangle> merged = mergeSolids(tiles, tileSize);
+        colliders = merged.toArray(new Rectangle[0]);
+
+        List<List<Integer>> perRow = new ArrayList<>();
+        for (int row = 0; row < tiles.length; row++) {
+            perRow.add(new ArrayList<>());
+        }
+        for (int i = 0; i < colliders.length; i++) {
+            int firstRow = colliders[i].y / tileSize;
+            int lastRow = (colliders[i].y + colliders[i].height) / tileSize - 1;
+            for (int row = firstRow; row <= lastRow; row++) {
+                perRow.get(row).add(i);
+            }
+        }
+        rowColliders = new int[tiles.length][];
+        for (int row = 0; row < tiles.length; row++) {
+            List<Integer> ids = perRow.get(row);
+            ids.sort(Comparator.comparingInt(id -> colliders[id].x));
+            rowColliders[row] = ids.stream().mapToInt(Integer::intValue).toArray();
+        }
+    }
+
+    /**
+     * Agrupa los tiles sólidos del mapa en rectángulos maximales (fusión voraz por filas y
+     * columnas). Cada tile sólido queda cubierto por exactamente un rectángulo.
+     *
+     * @param tiles    Matriz de tiles del mapa.
+     * @param tileSize Tamaño de cada tile en píxeles.
+     * @return Rectángulos resultantes, en píxeles.
+     */
+    public static List<Rectangle> mergeSolids(int[][] tiles, int tileSize) {
+        List<Rectangle> result = new ArrayList<>();
+        boolean[][] used = new boolean[tiles.length][];
+        for (int row = 0; row < tiles.length; row++) {
+            used[row] = new boolean[tiles[row].length];
+        }
+        for (int row = 0; row < tiles.length; row++) {
+            for (int col = 0; col < tiles[row].length; col++) {
+                if (!isFree(tiles, used, row, col)) {
+                    continue;
+                }
+                int width = 1;
+                while (isFree(tiles, used, row, col + width)) {
+                    width++;
+                }
+                int height = 1;
+                while (isRunFree(tiles, used, row + height, col, width)) {
+                    height++;
+                }
+                for (int r = row; r < row + height; r++) {
+                    Arrays.fill(used[r], col, col + width, true);
+                }
+                result.add(new Rectangle(col * tileSize, row * tileSize, width * tileSize, height * tileSize));
+            }
+        }
+        return result;
+    }
+
+    private static boolean isFree(int[][] tiles, boolean[][] used, int row, int col) {
+        return row < tiles.length && col < tiles[row].length && tiles[row][col] == 1 && !used[row][col];
+    }
+
+    private static boolean isRunFree(int[][] tiles, boolean[][] used, int row, int col, int width) {
+        for (int c = col; c < col + width; c++) {
+            if (!isFree(tiles, used, row, c)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Obtiene el número de colisionadores tras la fusión.
+     *
+     * @return Número de rectángulos.
+     */
+    public int getColliderCount() {
+        return colliders.length;
+    }
+
+    /**
+     * Obtiene una copia de los colisionadores fusionados, por ejemplo para depuración visual.
+     *
+     * @return Lista de rectángulos en píxeles.
+     */
+    public List<Rectangle> getColliders() {
+        List<Rectangle> copy = new ArrayList<>(colliders.length);
+        for (Rectangle collider : colliders) {
+            copy.add(new Rectangle(collider));
+        }
+        return copy;
+    }
+
+    @Override
+    public boolean isColliding(int x, int y, int width, int height) {
+        if (width <= 0 || height <= 0) {
+            return false;
+        }
+        int startRow = Math.max(0, Math.floorDiv(y, tileSize));
+        int endRow = Math.min(rowColliders.length - 1, Math.floorDiv(y + height - 1, tileSize));
+        for (int row = startRow; row <= endRow; row++) {
+            int[] ids = rowColliders[row];
+            int i = firstEndingAfter(ids, x);
+            // Todos los colisionadores de la fila cubren la franja completa, así que basta el solape en X
+            if (i < ids.length && colliders[ids[i]].x < x + width) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Con los obstáculos fusionados, la parte superior es la de todo el rectángulo fusionado y
+     * no la de cada tile: las juntas interiores de un bloque sólido no cuentan como suelo.
+     * </p>
+     */
+    @Override
+    public boolean isCollidingBelow(int x, int y, int width, int height, int dy) {
+        if (width <= 0 || height <= 0) {
+            return false;
+        }
+        int bottom = y + height;
+        int startRow = Math.max(0, Math.floorDiv(y, tileSize));
+        int endRow = Math.min(rowColliders.length - 1, Math.floorDiv(bottom - 1, tileSize));
+        for (int row = startRow; row <= endRow; row++) {
+            int[] ids = rowColliders[row];
+            for (int i = firstEndingAfter(ids, x); i < ids.length; i++) {
+                Rectangle area = colliders[ids[i]];
+                if (area.x >= x + width) {
+                    break;
+                }
+                if (bottom <= area.y + dy) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Por cada fila que cruza la caja basta una búsqueda binaria del obstáculo más cercano en la
+     * dirección del movimiento, así que el coste no depende de la velocidad.
+     * </p>
+     */
+    @Override
+    public int sweepX(int x, int y, int width, int height, int dx) {
+        if (dx == 0 || width <= 0 || height <= 0) {
+            return dx;
+        }
+        int allowed = dx;
+        int right = x + width;
+        int startRow = Math.max(0, Math.floorDiv(y, tileSize));
+        int endRow = Math.min(rowColliders.length - 1, Math.floorDiv(y + height - 1, tileSize));
+        for (int row = startRow; row <= endRow; row++) {
+            int[] ids = rowColliders[row];
+            if (dx > 0) {
+                // Primer obstáculo que empieza en el borde derecho de la caja o más allá
+                int i = firstEndingAfter(ids, right);
+                if (i < ids.length && colliders[ids[i]].x < right) {
+                    i++;
+                }
+                if (i < ids.length) {
+                    allowed = Math.min(allowed, colliders[ids[i]].x - right);
+                }
+            } else {
+                // Último obstáculo que termina en el borde izquierdo de la caja o antes
+                int i = firstEndingAfter(ids, x) - 1;
+                if (i >= 0) {
+                    Rectangle area = colliders[ids[i]];
+                    allowed = Math.max(allowed, area.x + area.width - x);
+                }
+            }
+        }
+        return allowed;
+    }
+
+    @Override
+    public int sweepY(int x, int y, int width, int height, int dy) {
+        if (dy == 0 || width <= 0 || height <= 0) {
+            return dy;
+        }
+        int right = x + width;
+        if (dy > 0) {
+            int bottom = y + height;
+            int firstRow = Math.max(0, Math.floorDiv(bottom + tileSize - 1, tileSize));
+            int lastRow = Math.min(rowColliders.length - 1, Math.floorDiv(bottom + dy - 1, tileSize));
+            for (int row = firstRow; row <= lastRow; row++) {
+                int[] ids = rowColliders[row];
+                for (int i = firstEndingAfter(ids, x); i < ids.length && colliders[ids[i]].x < right; i++) {
+                    Rectangle area = colliders[ids[i]];
+                    if (area.y >= bottom) {
+                        return area.y - bottom;
+                    }
+                }
+            }
+        } else {
+            int firstRow = Math.min(rowColliders.length - 1, Math.floorDiv(y, tileSize) - 1);
+            int lastRow = Math.max(0, Math.floorDiv(y + dy, tileSize));
+            for (int row = firstRow; row >= lastRow; row--) {
+                int[] ids = rowColliders[row];
+                for (int i = firstEndingAfter(ids, x); i < ids.length && colliders[ids[i]].x < right; i++) {
+                    Rectangle area = colliders[ids[i]];
+                    if (area.y + area.height <= y) {
+                        return area.y + area.height - y;
+                    }
+                }
+            }
+        }
+        return dy;
+    }
+
+    /**
+     * Búsqueda binaria del primer colisionador de la fila cuyo borde derecho quede a la
+     * derecha de {@code x}.
+     */
+    private int firstEndingAfter(int[] ids, int x) {
+        int low = 0;
+        int high = ids.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            Rectangle area = colliders[ids[mid]];
+            if (area.x + area.width <= x) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
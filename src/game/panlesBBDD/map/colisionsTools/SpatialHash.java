@@ -0,0 +1,330 @@
+package game.panlesBBDD.map.colisionsTools;
+
+import java.awt.Rectangle;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Fase amplia de colisiones para entidades dinámicas (coleccionables, peligros, NPCs...).
+ * <p>
+ * Reparte las entidades en celdas cuadradas de {@code cellSize} píxeles según su área de
+ * colisión; una consulta solo examina las celdas que solapa el área buscada, de modo que su
+ * coste depende de las entidades cercanas y no del total del nivel. Las celdas se guardan en una
+ * tabla hash de direccionamiento abierto con claves {@code long}, por lo que el mundo no tiene
+ * límites y, una vez creadas las celdas, ni las consultas ni las actualizaciones reservan memoria.
+ * </p>
+ * <p>
+ * Las entidades reciben identificadores consecutivos desde 0 en el orden en que se añaden, y
+ * las consultas devuelven los candidatos en ese orden para que la simulación sea determinista.
+ * Cuando una entidad se mueve hay que llamar a {@link #update(int)} para refrescar su posición
+ * en el índice.
+ * </p>
+ *
+ * @param <T> Tipo de las entidades indexadas.
+ */
+public class SpatialHash<T extends Collidable> {
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final int cellSize;
+    private final Rectangle scratch = new Rectangle();
+
+    // Entidades y, por identificador, su área y el rango de celdas en que está registrada
+    private Object[] entities = new Object[16];
+    private int[] bounds = new int[16 * 4];
+    private int[] cellRange = new int[16 * 4];
+    private int size;
+
+    // Tabla de celdas: claves (cx, cy) empaquetadas y listas de identificadores por celda
+    private long[] keys = new long[INITIAL_CAPACITY];
+    private int[][] members = new int[INITIAL_CAPACITY][];
+    private int[] memberCounts = new int[INITIAL_CAPACITY];
+    private boolean[] used = new boolean[INITIAL_CAPACITY];
+    private int cellCount;
+
+    // Marca de la consulta en curso para no devolver dos veces una entidad de varias celdas
+    private int[] stamps = new int[16];
+    private int stamp;
+    private int[] found = new int[16];
+
+    /**
+     * Crea un índice vacío.
+     *
+     * @param cellSize Lado de las celdas en píxeles; conviene que sea similar al tamaño de las
+     *                 entidades o de las áreas consultadas.
+     */
+    public SpatialHash(int cellSize) {
+        this.cellSize = cellSize;
+    }
+
+    /**
+     * Añade una entidad con su área de colisión actual.
+     *
+     * @param entity Entidad que se indexa.
+     * @return Identificador de la entidad, igual al número de entidades añadidas antes que ella.
+     */
+    public int add(T entity) {
+        if (size == entities.length) {
+            int capacity = size * 2;
+            entities = Arrays.copyOf(entities, capacity);
+            bounds = Arrays.copyOf(bounds, capacity * 4);
+            cellRange = Arrays.copyOf(cellRange, capacity * 4);
+            stamps = Arrays.copyOf(stamps, capacity);
+            found = Arrays.copyOf(found, capacity);
+        }
+        int id = size++;
+        entities[id] = entity;
+        storeBounds(id);
+        int base = id * 4;
+        setCellRange(id);
+        insert(id, cellRange[base], cellRange[base + 1], cellRange[base + 2], cellRange[base + 3]);
+        return id;
+    }
+
+    /**
+     * Refresca la posición de una entidad que se ha movido. Si sigue en las mismas celdas solo
+     * se actualiza su área; si no, se traslada a las nuevas.
+     *
+     * @param id Identificador devuelto por {@link #add(Collidable)}.
+     */
+    public void update(int id) {
+        int base = id * 4;
+        int minCx = cellRange[base];
+        int minCy = cellRange[base + 1];
+        int maxCx = cellRange[base + 2];
+        int maxCy = cellRange[base + 3];
+        storeBounds(id);
+        setCellRange(id);
+        if (minCx != cellRange[base] || minCy != cellRange[base + 1]
+                || maxCx != cellRange[base + 2] || maxCy != cellRange[base + 3]) {
+            remove(id, minCx, minCy, maxCx, maxCy);
+            insert(id, cellRange[base], cellRange[base + 1], cellRange[base + 2], cellRange[base + 3]);
+        }
+    }
+
+    /**
+     * Refresca la posición de todas las entidades.
+     */
+    public void updateAll() {
+        for (int id = 0; id < size; id++) {
+            update(id);
+        }
+    }
+
+    /**
+     * Busca las entidades cuya área de colisión, según su última actualización, interseca el
+     * rectángulo indicado (con la semántica de {@link Rectangle#intersects(Rectangle)}).
+     *
+     * @param x      Coordenada X del área buscada.
+     * @param y      Coordenada Y del área buscada.
+     * @param width  Ancho del área buscada.
+     * @param height Alto del área buscada.
+     * @param out    Lista que se vacía y se rellena con los resultados, en orden de identificador.
+     * @return Número de entidades encontradas.
+     */
+    @SuppressWarnings("unchecked")
+    public int query(int x, int y, int width, int height, List<? super T> out) {
+        out.clear();
+        if (width <= 0 || height <= 0) {
+            return 0;
+        }
+        if (++stamp == 0) {
+            Arrays.fill(stamps, 0);
+            stamp = 1;
+        }
+        int count = 0;
+        int maxCx = Math.floorDiv(x + width - 1, cellSize);
+        int maxCy = Math.floorDiv(y + height - 1, cellSize);
+        for (int cy = Math.floorDiv(y, cellSize); cy <= maxCy; cy++) {
+            for (int cx = Math.floorDiv(x, cellSize); cx <= maxCx; cx++) {
+                int slot = find(cx, cy);
+                if (slot < 0) {
+                    continue;
+                }
+                int[] ids = members[slot];
+                for (int i = 0; i < memberCounts[slot]; i++) {
+                    int id = ids[i];
+                    if (stamps[id] != stamp) {
+                        stamps[id] = stamp;
+                        if (intersects(id, x, y, width, height)) {
+                            found[count++] = id;
+                        }
+                    }
+                }
+            }
+        }
+        // Pocos candidatos: una ordenación por inserción basta para devolverlos por identificador
+        for (int i = 1; i < count; i++) {
+            int id = found[i];
+            int j = i - 1;
+            while (j >= 0 && found[j] > id) {
+                found[j + 1] = found[j];
+                j--;
+            }
+            found[j + 1] = id;
+        }
+        for (int i = 0; i < count; i++) {
+            out.add((T) entities[found[i]]);
+        }
+        return count;
+    }
+
+    /**
+     * Busca las entidades cuya área de colisión interseca el rectángulo indicado.
+     *
+     * @param area Área buscada.
+     * @param out  Lista que se vacía y se rellena con los resultados, en orden de identificador.
+     * @return Número de entidades encontradas.
+     * @see #query(int, int, int, int, List)
+     */
+    public int query(Rectangle area, List<? super T> out) {
+        return query(area.x, area.y, area.width, area.height, out);
+    }
+
+    /**
+     * Obtiene una entidad por su identificador.
+     *
+     * @param id Identificador de la entidad.
+     * @return La entidad.
+     */
+    @SuppressWarnings("unchecked")
+    public T get(int id) {
+        return (T) entities[id];
+    }
+
+    /**
+     * Obtiene el número de entidades indexadas.
+     *
+     * @return Número de entidades.
+     */
+    public int size() {
+        return size;
+    }
+
+    private void storeBounds(int id) {
+        Rectangle r = ((Collidable) entities[id]).getBounds(scratch);
+        int base = id * 4;
+        bounds[base] = r.x;
+        bounds[base + 1] = r.y;
+        bounds[base + 2] = r.width;
+        bounds[base + 3] = r.height;
+    }
+
+    private void setCellRange(int id) {
+        int base = id * 4;
+        int x = bounds[base];
+        int y = bounds[base + 1];
+        // Un área vacía se registra en la celda de su esquina para poder moverla después
+        int width = Math.max(1, bounds[base + 2]);
+        int height = Math.max(1, bounds[base + 3]);
+        cellRange[base] = Math.floorDiv(x, cellSize);
+        cellRange[base + 1] = Math.floorDiv(y, cellSize);
+        cellRange[base + 2] = Math.floorDiv(x + width - 1, cellSize);
+        cellRange[base + 3] = Math.floorDiv(y + height - 1, cellSize);
+    }
+
+    private boolean intersects(int id, int x, int y, int width, int height) {
+        int base = id * 4;
+        int bx = bounds[base];
+        int by = bounds[base + 1];
+        int bw = bounds[base + 2];
+        int bh = bounds[base + 3];
+        return bw > 0 && bh > 0 && bx < x + width && x < bx + bw && by < y + height && y < by + bh;
+    }
+
+    private void insert(int id, int minCx, int minCy, int maxCx, int maxCy) {
+        for (int cy = minCy; cy <= maxCy; cy++) {
+            for (int cx = minCx; cx <= maxCx; cx++) {
+                int slot = findOrCreate(cx, cy);
+                int[] ids = members[slot];
+                if (memberCounts[slot] == ids.length) {
+                    ids = Arrays.copyOf(ids, ids.length * 2);
+                    members[slot] = ids;
+                }
+                ids[memberCounts[slot]++] = id;
+            }
+        }
+    }
+
+    private void remove(int id, int minCx, int minCy, int maxCx, int maxCy) {
+        for (int cy = minCy; cy <= maxCy; cy++) {
+            for (int cx = minCx; cx <= maxCx; cx++) {
+                int slot = find(cx, cy);
+                int[] ids = members[slot];
+                int count = memberCounts[slot];
+                for (int i = 0; i < count; i++) {
+                    if (ids[i] == id) {
+                        ids[i] = ids[count - 1];
+                        memberCounts[slot] = count - 1;
+                        break;
+                    }
+                }
+            }
+        }
+    }
+
+    private static long key(int cx, int cy) {
+        return ((long) cx << 32) | (cy & 0xFFFFFFFFL);
+    }
+
+    private static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private int find(int cx, int cy) {
+        long key = key(cx, cy);
+        int mask = keys.length - 1;
+        for (int slot = hash(key) & mask; used[slot]; slot = (slot + 1) & mask) {
+            if (keys[slot] == key) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    private int findOrCreate(int cx, int cy) {
+        long key = key(cx, cy);
+        int mask = keys.length - 1;
+        int slot = hash(key) & mask;
+        while (used[slot]) {
+            if (keys[slot] == key) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        if ((cellCount + 1) * 2 > keys.length) {
+            grow();
+            return findOrCreate(cx, cy);
+        }
+        used[slot] = true;
+        keys[slot] = key;
+        members[slot] = new int[4];
+        cellCount++;
+        return slot;
+    }
+
+    private void grow() {
+        long[] oldKeys = keys;
+        int[][] oldMembers = members;
+        int[] oldCounts = memberCounts;
+        boolean[] oldUsed = used;
+        int capacity = oldKeys.length * 2;
+        keys = new long[capacity];
+        members = new int[capacity][];
+        memberCounts = new int[capacity];
+        used = new boolean[capacity];
+        int mask = capacity - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldUsed[i]) {
+                int slot = hash(oldKeys[i]) & mask;
+                while (used[slot]) {
+                    slot = (slot + 1) & mask;
+                }
+                used[slot] = true;
+                keys[slot] = oldKeys[i];
+                members[slot] = oldMembers[i];
+                memberCounts[slot] = oldCounts[i];
+            }
+        }
+    }
+}
@@ -2,39 +2,93 @@ package game.panlesBBDD.map.colisionsTools;
 
 import java.awt.Rectangle;
 import java.io.BufferedReader;
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.net.URL;
 import java.util.ArrayList;
 import java.util.List;
 
 /**
  * Representa el mapa de tiles del juego.
  * <p>
- * Esta clase carga un mapa desde un archivo CSV o, en caso de no encontrarse el archivo,
- * genera un mapa por defecto. Proporciona métodos para obtener información sobre los tiles,
+ * Esta clase carga un mapa desde un archivo CSV o desde un mapa compilado con
+ * {@link TileMapCompiler} o, en caso de no encontrarse el archivo, genera un mapa por defecto. Proporciona métodos para obtener información sobre los tiles,
  * como su tamaño y tipo en una posición determinada.
  * </p>
  */
-public class TileMap {
+public class TileMap implements GroundQuery {
     private int[][] tiles;
     private int tileSize;
     private int worldWidth;
     private int worldHeight;
 
+    /** Número de tipos de tile indexados (0 a 31), para que quepan en una máscara {@code int}. */
+    public static final int MAX_INDEXED_TYPES = 32;
+
+    // Máscaras de bits por tipo: typeMasks[tipo][fila * wordsPerRow + palabra], un bit por columna
+    private long[][] typeMasks;
+    private int columns;
+    private int wordsPerRow;
+    // Fila del primer tile sólido en o por debajo de cada celda: floorRows[columna * filas + fila]
+    private int[] floorRows;
+
     /**
-     * Crea un TileMap a partir de un archivo CSV.
+     * Crea un TileMap a partir de un archivo CSV o de un mapa compilado
+     * ({@link TileMapFormat#EXTENSION}), según la extensión de la ruta.
      *
-     * @param csvFilePath Ruta del archivo CSV que define el mapa.
+     * @param csvFilePath Ruta del archivo CSV o del mapa compilado que define el mapa.
      * @param tileSize    Tamaño de cada tile en píxeles.
      */
     public TileMap(String csvFilePath, int tileSize) {
         this.tileSize = tileSize;
+        if (csvFilePath.endsWith(TileMapFormat.EXTENSION)) {
+            loadCompiled(csvFilePath);
+            return;
+        }
         InputStream is = getClass().getResourceAsStream(csvFilePath);
         if (is == null) {
             System.err.println("No se encontró el archivo CSV: " + csvFilePath + ". Se usará el mapa por defecto.");
             createDefaultMap();
             return;
         }
+        try {
+            setTiles(readCsv(is));
+        } catch (Exception e) {
+            e.printStackTrace();
+            createDefaultMap();
+        }
+    }
+
+    /**
+     * Carga un mapa compilado, proyectándolo en memoria si es un fichero del disco.
+     *
+     * @param path Ruta del recurso compilado.
+     */
+    private void loadCompiled(String path) {
+        URL url = getClass().getResource(path);
+        if (url == null) {
+            System.err.println("No se encontró el mapa compilado: " + path + ". Se usará el mapa por defecto.");
+            createDefaultMap();
+            return;
+        }
+        try {
+            setTiles(TileMapFormat.read(TileMapFormat.open(url)));
+        } catch (IOException e) {
+            System.err.println("Error al cargar el mapa compilado " + path + ": " + e.getMessage());
+            createDefaultMap();
+        }
+    }
+
+    /**
+     * Lee un mapa en formato CSV: una fila de tiles por línea, valores separados por comas y
+     * celdas vacías como 0. Las líneas en blanco se ignoran. Cierra el flujo al terminar.
+     *
+     * @param is Flujo con el contenido CSV.
+     * @return Matriz de tiles por filas.
+     * @throws IOException Si falla la lectura.
+     */
+    static int[][] readCsv(InputStream is) throws IOException {
         try (BufferedReader br = new BufferedReader(new InputStreamReader(is))) {
             List<int[]> rowsList = new ArrayList<>();
             String line;
@@ -50,22 +104,34 @@ public class TileMap {
                 }
                 rowsList.add(row);
             }
-            tiles = rowsList.toArray(new int[rowsList.size()][]);
-            worldWidth = tiles[0].length * tileSize;
-            worldHeight = tiles.length * tileSize;
-        } catch (Exception e) {
-            e.printStackTrace();
-            createDefaultMap();
+            return rowsList.toArray(new int[rowsList.size()][]);
         }
     }
 
+    private void setTiles(int[][] tiles) {
+        this.tiles = tiles;
+        worldWidth = tiles[0].length * tileSize;
+        worldHeight = tiles.length * tileSize;
+        buildTypeMasks();
+        buildFloorIndex();
+    }
+
     /**
      * Crea un mapa por defecto de 75 columnas x 27 filas (3000 x 1080).
      */
     private void createDefaultMap() {
+        setTiles(createDefaultTiles());
+    }
+
+    /**
+     * Genera los tiles del mapa por defecto: un recinto cerrado por tiles sólidos.
+     *
+     * @return Matriz de 27 filas x 75 columnas.
+     */
+    static int[][] createDefaultTiles() {
         int columns = 75;
         int rows = 27;
-        tiles = new int[rows][columns];
+        int[][] tiles = new int[rows][columns];
         for (int row = 0; row < rows; row++) {
             for (int col = 0; col < columns; col++) {
                 if (row == 0 || row == rows - 1 || col == 0 || col == columns - 1) {
@@ -75,8 +141,69 @@ public class TileMap {
                 }
             }
         }
-        worldWidth = columns * tileSize;
-        worldHeight = rows * tileSize;
+        return tiles;
+    }
+
+    /**
+     * Construye, para cada tipo de tile presente en el mapa, una máscara de bits por fila con
+     * una posición por columna. Las consultas por región se reducen así a unas pocas
+     * operaciones sobre palabras de 64 bits en lugar de recorrer cada tile.
+     */
+    private void buildTypeMasks() {
+        columns = 0;
+        for (int[] row : tiles) {
+            columns = Math.max(columns, row.length);
+        }
+        wordsPerRow = (columns + 63) >>> 6;
+        typeMasks = new long[MAX_INDEXED_TYPES][];
+        for (int row = 0; row < tiles.length; row++) {
+            for (int col = 0; col < tiles[row].length; col++) {
+                int type = tiles[row][col];
+                if (type < 0 || type >= MAX_INDEXED_TYPES) {
+                    continue;
+                }
+                if (typeMasks[type] == null) {
+                    typeMasks[type] = new long[tiles.length * wordsPerRow];
+                }
+                typeMasks[type][row * wordsPerRow + (col >>> 6)] |= 1L << col;
+            }
+        }
+    }
+
+    /**
+     * Construye el índice del suelo recorriendo cada columna de abajo arriba: cada celda guarda
+     * la fila del primer tile sólido (tipo 1) que hay en ella o debajo, o el número de filas si
+     * no hay ninguno.
+     */
+    private void buildFloorIndex() {
+        int rows = tiles.length;
+        floorRows = new int[columns * rows];
+        for (int col = 0; col < columns; col++) {
+            int next = rows;
+            for (int row = rows - 1; row >= 0; row--) {
+                if (col < tiles[row].length && tiles[row][col] == 1) {
+                    next = row;
+                }
+                floorRows[col * rows + row] = next;
+            }
+        }
+    }
+
+    @Override
+    public int getFloorY(int x, int y, int width) {
+        int rows = tiles.length;
+        // Primera fila cuyo borde superior no queda por encima de y
+        int startRow = Math.max(0, -Math.floorDiv(-y, tileSize));
+        if (width <= 0 || startRow >= rows) {
+            return NO_FLOOR;
+        }
+        int startCol = Math.max(0, Math.floorDiv(x, tileSize));
+        int endCol = Math.min(columns - 1, Math.floorDiv(x + width - 1, tileSize));
+        int floorRow = rows;
+        for (int col = startCol; col <= endCol; col++) {
+            floorRow = Math.min(floorRow, floorRows[col * rows + startRow]);
+        }
+        return floorRow < rows ? floorRow * tileSize : NO_FLOOR;
     }
 
     /**
@@ -120,9 +247,124 @@ public class TileMap {
      * @return El valor del tile central.
      */
     public int getTileTypeAtRect(Rectangle rect) {
-        int centerX = rect.x + rect.width / 2;
-        int centerY = rect.y + rect.height / 2;
-        return getTileAt(centerX, centerY);
+        return getTileTypeAtRect(rect.x, rect.y, rect.width, rect.height);
+    }
+
+    /**
+     * Obtiene el tipo de tile ubicado en el centro de un rectángulo dado por sus límites,
+     * sin necesidad de crear un {@link Rectangle}.
+     *
+     * @param x      Coordenada X del rectángulo.
+     * @param y      Coordenada Y del rectángulo.
+     * @param width  Ancho del rectángulo.
+     * @param height Alto del rectángulo.
+     * @return El valor del tile central.
+     */
+    public int getTileTypeAtRect(int x, int y, int width, int height) {
+        return getTileAt(x + width / 2, y + height / 2);
+    }
+
+    /**
+     * Comprueba si el rectángulo solapa algún tile del tipo indicado. Como en las colisiones,
+     * los bordes que solo se tocan no cuentan y las zonas fuera del mapa se ignoran.
+     *
+     * @param x      Coordenada X del rectángulo en píxeles.
+     * @param y      Coordenada Y del rectángulo en píxeles.
+     * @param width  Ancho del rectángulo.
+     * @param height Alto del rectángulo.
+     * @param type   Tipo de tile buscado (por ejemplo, 2 para agua).
+     * @return {@code true} si alguna celda solapada es de ese tipo.
+     */
+    public boolean containsTileType(int x, int y, int width, int height, int type) {
+        if (type < 0 || type >= MAX_INDEXED_TYPES || typeMasks[type] == null) {
+            return false;
+        }
+        return getTileTypesIn(x, y, width, height, 1 << type) != 0;
+    }
+
+    /**
+     * Comprueba si el rectángulo solapa algún tile del tipo indicado.
+     *
+     * @param rect El rectángulo que se evalúa.
+     * @param type Tipo de tile buscado.
+     * @return {@code true} si alguna celda solapada es de ese tipo.
+     */
+    public boolean containsTileType(Rectangle rect, int type) {
+        return containsTileType(rect.x, rect.y, rect.width, rect.height, type);
+    }
+
+    /**
+     * Obtiene los tipos de tile que solapa el rectángulo, como máscara de bits en la que el bit
+     * {@code t} indica que hay al menos un tile de tipo {@code t}.
+     *
+     * @param x      Coordenada X del rectángulo en píxeles.
+     * @param y      Coordenada Y del rectángulo en píxeles.
+     * @param width  Ancho del rectángulo.
+     * @param height Alto del rectángulo.
+     * @return Máscara de tipos presentes; 0 si el rectángulo queda fuera del mapa.
+     */
+    public int getTileTypesIn(int x, int y, int width, int height) {
+        return getTileTypesIn(x, y, width, height, -1);
+    }
+
+    /**
+     * Obtiene los tipos de tile que solapa el rectángulo.
+     *
+     * @param rect El rectángulo que se evalúa.
+     * @return Máscara de tipos presentes.
+     * @see #getTileTypesIn(int, int, int, int)
+     */
+    public int getTileTypesIn(Rectangle rect) {
+        return getTileTypesIn(rect.x, rect.y, rect.width, rect.height);
+    }
+
+    /**
+     * Calcula la máscara de tipos presentes en la región, limitada a los tipos de
+     * {@code wanted}; termina en cuanto los ha encontrado todos.
+     */
+    private int getTileTypesIn(int x, int y, int width, int height, int wanted) {
+        if (width <= 0 || height <= 0) {
+            return 0;
+        }
+        int startCol = Math.max(0, Math.floorDiv(x, tileSize));
+        int endCol = Math.min(columns - 1, Math.floorDiv(x + width - 1, tileSize));
+        int startRow = Math.max(0, Math.floorDiv(y, tileSize));
+        int endRow = Math.min(tiles.length - 1, Math.floorDiv(y + height - 1, tileSize));
+        if (startCol > endCol || startRow > endRow) {
+            return 0;
+        }
+        int startWord = startCol >>> 6;
+        int endWord = endCol >>> 6;
+        long firstMask = -1L << startCol;
+        long lastMask = -1L >>> (63 - (endCol & 63));
+        int found = 0;
+        for (int type = 0; type < MAX_INDEXED_TYPES; type++) {
+            long[] masks = typeMasks[type];
+            if (masks == null || (wanted & (1 << type)) == 0) {
+                continue;
+            }
+            search:
+            for (int row = startRow; row <= endRow; row++) {
+                int base = row * wordsPerRow;
+                for (int word = startWord; word <= endWord; word++) {
+                    long bits = masks[base + word];
+                    if (word == startWord) {
+                        bits &= firstMask;
+                    }
+                    if (word == endWord) {
+                        bits &= lastMask;
+                    }
+                    if (bits != 0) {
+                        found |= 1 << type;
+                        break search;
+                    }
+                }
+            }
+            if (found == wanted) {
+                break;
+            }
+        }
+        return found;
     }
 
     /**
@@ -0,0 +1,41 @@
+package game.panlesBBDD.map.colisionsTools;
+
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Convierte mapas CSV al formato compilado de {@link TileMapFormat}.
+ * <p>
+ * Uso: {@code java game.panlesBBDD.map.colisionsTools.TileMapCompiler Map01.csv [Map03.csv ...]}.
+ * Cada mapa se escribe junto al original con la extensión {@link TileMapFormat#EXTENSION}.
+ * Debe volver a ejecutarse cada vez que se edite un CSV.
+ * </p>
+ */
+public class TileMapCompiler {
+
+    public static void main(String[] args) {
+        if (args.length == 0) {
+            System.err.println("Uso: TileMapCompiler <mapa.csv> [<mapa.csv> ...]");
+            System.exit(1);
+        }
+        boolean failed = false;
+        for (String csvPath : args) {
+            String outPath = csvPath.replaceFirst("\\.csv$", "") + TileMapFormat.EXTENSION;
+            try {
+                int[][] tiles = TileMap.readCsv(new FileInputStream(csvPath));
+                try (OutputStream out = new FileOutputStream(outPath)) {
+                    TileMapFormat.write(tiles, out);
+                }
+                System.out.println(csvPath + " -> " + outPath + " (" + tiles[0].length + "x" + tiles.length + ")");
+            } catch (IOException | RuntimeException e) {
+                System.err.println("No se pudo compilar " + csvPath + ": " + e.getMessage());
+                failed = true;
+            }
+        }
+        if (failed) {
+            System.exit(1);
+        }
+    }
+}
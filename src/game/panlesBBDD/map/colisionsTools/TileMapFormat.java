@@ -0,0 +1,337 @@
+package game.panlesBBDD.map.colisionsTools;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Formato binario compilado de los mapas de tiles ({@code .amap}).
+ * <p>
+ * Cabecera de 16 bytes: {@link #MAGIC} ({@code int}), {@link #VERSION} ({@code short}),
+ * número de capas ({@code short}), columnas y filas ({@code int} cada una). Le sigue una sección
+ * por capa con su identificador ({@code short}), el tamaño de celda en bytes ({@code short}, 1 o
+ * 2) y {@code filas * columnas} celdas por filas. La capa {@link #LAYER_TILES} contiene los
+ * tipos de tile que usa {@link TileMap}; las demás capas se reservan para datos futuros y los
+ * lectores actuales las ignoran.
+ * </p>
+ * <p>
+ * Al leerse, el mapa se proyecta en memoria con {@link FileChannel#map}, sin copias intermedias
+ * ni análisis de texto; para cargarlo por partes se proyecta en varias ventanas y las posiciones
+ * se calculan con {@code long}, de modo que puede superar los 2 GB. Los mapas empaquetados en el JAR se extraen antes, una sola vez, a un
+ * fichero temporal, de modo que el mapa nunca se carga entero en el heap.
+ * </p>
+ */
+public final class TileMapFormat {
+    /** Identificador de los mapas compilados ("AMAP"). */
+    public static final int MAGIC = 0x414D4150;
+    /** Versión del formato. */
+    public static final short VERSION = 1;
+    /** Extensión de los mapas compilados. */
+    public static final String EXTENSION = ".amap";
+    /** Capa con los tipos de tile (0 vacío, 1 sólido, 2 agua...). */
+    public static final short LAYER_TILES = 0;
+
+    private static final int HEADER_BYTES = 16;
+    private static final int LAYER_HEADER_BYTES = 4;
+    // Tamaño de las ventanas en que openTiles proyecta el fichero, y bytes que cada ventana
+    // comparte con la siguiente para que ningún valor quede partido entre dos
+    private static final long WINDOW_SIZE = Integer.MAX_VALUE - Integer.BYTES;
+    private static final int WINDOW_OVERLAP = Integer.BYTES;
+
+    // Ficheros temporales con los mapas ya extraídos del JAR, por URL del recurso
+    private static final Map<String, Path> EXTRACTED = new HashMap<>();
+
+    private TileMapFormat() {
+    }
+
+    /**
+     * Escribe un mapa con una única capa de tiles. Se usan celdas de un byte si todos los
+     * valores caben en él y de dos en caso contrario. Las filas más cortas se completan con 0.
+     *
+     * @param tiles  Matriz de tiles.
+     * @param stream Flujo de destino; se vacía pero no se cierra.
+     * @throws IOException Si falla la escritura o algún valor no cabe en dos bytes.
+     */
+    public static void write(int[][] tiles, OutputStream stream) throws IOException {
+        int rows = tiles.length;
+        int columns = 0;
+        int min = 0;
+        int max = 0;
+        for (int[] row : tiles) {
+            columns = Math.max(columns, row.length);
+            for (int value : row) {
+                min = Math.min(min, value);
+                max = Math.max(max, value);
+            }
+        }
+        if (min < Short.MIN_VALUE || max > Short.MAX_VALUE) {
+            throw new IOException("Valor de tile fuera de rango: " + (min < Short.MIN_VALUE ? min : max));
+        }
+        int cellBytes = (min >= Byte.MIN_VALUE && max <= Byte.MAX_VALUE) ? 1 : 2;
+
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(stream));
+        out.writeInt(MAGIC);
+        out.writeShort(VERSION);
+        out.writeShort(1);
+        out.writeInt(columns);
+        out.writeInt(rows);
+        out.writeShort(LAYER_TILES);
+        out.writeShort(cellBytes);
+        for (int[] row : tiles) {
+            for (int col = 0; col < columns; col++) {
+                int value = col < row.length ? row[col] : 0;
+                if (cellBytes == 1) {
+                    out.writeByte(value);
+                } else {
+                    out.writeShort(value);
+                }
+            }
+        }
+        out.flush();
+    }
+
+    /**
+     * Lee la capa de tiles de un mapa compilado.
+     *
+     * @param buffer Contenido del fichero, desde su posición actual.
+     * @return Matriz de tiles por filas.
+     * @throws IOException Si el contenido no tiene el formato esperado.
+     */
+    public static int[][] read(ByteBuffer buffer) throws IOException {
+        TileLayer layer = locateTiles(buffer);
+        int[][] tiles = new int[layer.rows][];
+        for (int row = 0; row < layer.rows; row++) {
+            tiles[row] = layer.readRow(row, 0, layer.columns);
+        }
+        return tiles;
+    }
+
+    /**
+     * Localiza la capa de tiles de un mapa compilado sin leer sus celdas, para poder cargarlas
+     * después por partes.
+     *
+     * @param buffer Contenido del fichero, desde su posición actual.
+     * @return Descripción de la capa de tiles.
+     * @throws IOException Si el contenido no tiene el formato esperado.
+     */
+    public static TileLayer locateTiles(ByteBuffer buffer) throws IOException {
+        ByteBuffer content = buffer.slice();
+        return locate(new ByteBuffer[] {content}, content.capacity());
+    }
+
+    /**
+     * Abre la capa de tiles de un mapa compilado para cargarla por partes. El fichero se proyecta
+     * en ventanas de menos de 2 GB, de modo que su tamaño no está limitado por el de un buffer.
+     * Si el recurso no es un fichero del disco, se proyecta su copia temporal.
+     *
+     * @param url Ubicación del recurso.
+     * @return Descripción de la capa de tiles.
+     * @throws IOException Si no se puede leer o no tiene el formato esperado.
+     */
+    public static TileLayer openTiles(URL url) throws IOException {
+        try (FileChannel channel = FileChannel.open(pathOf(url), StandardOpenOption.READ)) {
+            long size = channel.size();
+            ByteBuffer[] windows = new ByteBuffer[(int) Math.max(1, (size + WINDOW_SIZE - 1) / WINDOW_SIZE)];
+            for (int window = 0; window < windows.length; window++) {
+                long start = window * WINDOW_SIZE;
+                windows[window] = channel.map(FileChannel.MapMode.READ_ONLY, start,
+                        Math.min(WINDOW_SIZE + WINDOW_OVERLAP, size - start));
+            }
+            return locate(windows, size);
+        }
+    }
+
+    private static TileLayer locate(ByteBuffer[] windows, long size) throws IOException {
+        if (size < HEADER_BYTES) {
+            throw new IOException("Mapa compilado truncado");
+        }
+        if (getInt(windows, 0) != MAGIC) {
+            throw new IOException("No es un mapa compilado");
+        }
+        short version = getShort(windows, 4);
+        if (version != VERSION) {
+            throw new IOException("Versión de mapa no soportada: " + version);
+        }
+        int layers = getShort(windows, 6);
+        int columns = getInt(windows, 8);
+        int rows = getInt(windows, 12);
+        if (columns <= 0 || rows <= 0) {
+            throw new IOException("Dimensiones de mapa no válidas: " + columns + "x" + rows);
+        }
+        long position = HEADER_BYTES;
+        for (int layer = 0; layer < layers; layer++) {
+            if (size - position < LAYER_HEADER_BYTES) {
+                throw new IOException("Mapa compilado truncado");
+            }
+            short id = getShort(windows, position);
+            int cellBytes = getShort(windows, position + 2);
+            if (cellBytes != 1 && cellBytes != 2) {
+                throw new IOException("Tamaño de celda no soportado: " + cellBytes);
+            }
+            position += LAYER_HEADER_BYTES;
+            long layerSize = (long) rows * columns * cellBytes;
+            if (layerSize > size - position) {
+                throw new IOException("Mapa compilado truncado");
+            }
+            if (id == LAYER_TILES) {
+                return new TileLayer(windows, position, columns, rows, cellBytes);
+            }
+            position += layerSize;
+        }
+        throw new IOException("El mapa no contiene la capa de tiles");
+    }
+
+    // Lecturas absolutas en la ventana que contiene la posición; el solape entre ventanas
+    // garantiza que ningún valor queda partido entre dos
+    private static int window(ByteBuffer[] windows, long position) {
+        return (int) Math.min(position / WINDOW_SIZE, windows.length - 1);
+    }
+
+    private static byte getByte(ByteBuffer[] windows, long position) {
+        int window = window(windows, position);
+        return windows[window].get((int) (position - window * WINDOW_SIZE));
+    }
+
+    private static short getShort(ByteBuffer[] windows, long position) {
+        int window = window(windows, position);
+        return windows[window].getShort((int) (position - window * WINDOW_SIZE));
+    }
+
+    private static int getInt(ByteBuffer[] windows, long position) {
+        int window = window(windows, position);
+        return windows[window].getInt((int) (position - window * WINDOW_SIZE));
+    }
+
+    /**
+     * Capa de tiles de un mapa compilado, leída bajo demanda desde su contenido proyectado.
+     */
+    public static final class TileLayer {
+        private final ByteBuffer[] windows;
+        private final long offset;
+        /** Número de columnas del mapa. */
+        public final int columns;
+        /** Número de filas del mapa. */
+        public final int rows;
+        private final int cellBytes;
+
+        private TileLayer(ByteBuffer[] windows, long offset, int columns, int rows, int cellBytes) {
+            this.windows = windows;
+            this.offset = offset;
+            this.columns = columns;
+            this.rows = rows;
+            this.cellBytes = cellBytes;
+        }
+
+        /**
+         * Lee un tramo de columnas de una fila. Usa lecturas absolutas, por lo que puede
+         * llamarse desde varios hilos a la vez.
+         *
+         * @param row      Fila.
+         * @param firstCol Primera columna.
+         * @param count    Número de columnas.
+         * @return Valores de los tiles.
+         */
+        public int[] readRow(int row, int firstCol, int count) {
+            int[] cells = new int[count];
+            readRow(row, firstCol, cells, 0, count);
+            return cells;
+        }
+
+        /**
+         * Lee un tramo de columnas de una fila en el array indicado.
+         *
+         * @param row      Fila.
+         * @param firstCol Primera columna.
+         * @param dest     Array de destino.
+         * @param destPos  Posición inicial en el destino.
+         * @param count    Número de columnas.
+         */
+        public void readRow(int row, int firstCol, int[] dest, int destPos, int count) {
+            long position = offset + ((long) row * columns + firstCol) * cellBytes;
+            for (int i = 0; i < count; i++) {
+                dest[destPos + i] = cellBytes == 1
+                        ? getByte(windows, position + i)
+                        : getShort(windows, position + 2L * i);
+            }
+        }
+    }
+
+    /**
+     * Obtiene el contenido de un mapa compilado proyectado en memoria. Si el recurso no es un
+     * fichero del disco (por ejemplo, está dentro del JAR), se proyecta su copia temporal.
+     *
+     * @param url Ubicación del recurso.
+     * @return Buffer de solo lectura con el contenido.
+     * @throws IOException Si no se puede leer o no cabe en un único buffer.
+     */
+    public static ByteBuffer open(URL url) throws IOException {
+        return map(pathOf(url));
+    }
+
+    /**
+     * Obtiene la ruta del fichero de un recurso, extrayéndolo antes si no está en el disco.
+     */
+    private static Path pathOf(URL url) throws IOException {
+        if ("file".equals(url.getProtocol())) {
+            try {
+                return Paths.get(url.toURI());
+            } catch (URISyntaxException e) {
+                throw new IOException("Ruta de mapa no válida: " + url, e);
+            }
+        }
+        return extract(url);
+    }
+
+    /**
+     * Copia un recurso a un fichero temporal, que se borra al salir, la primera vez que se
+     * pide; las siguientes devuelven la misma copia.
+     */
+    private static synchronized Path extract(URL url) throws IOException {
+        String key = url.toExternalForm();
+        Path path = EXTRACTED.get(key);
+        if (path != null && Files.isRegularFile(path)) {
+            return path;
+        }
+        path = Files.createTempFile("astralis-", EXTENSION);
+        path.toFile().deleteOnExit();
+        try (InputStream in = url.openStream()) {
+            Files.copy(in, path, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            Files.deleteIfExists(path);
+            throw e;
+        }
+        EXTRACTED.put(key, path);
+        return path;
+    }
+
+    /**
+     * Proyecta en memoria un mapa compilado.
+     *
+     * @param path Ruta del fichero.
+     * @return Buffer de solo lectura con el contenido del fichero.
+     * @throws IOException Si no se puede abrir o no cabe en un único buffer; los mapas mayores
+     *                     se abren por partes con {@link #openTiles(URL)}.
+     */
+    public static ByteBuffer map(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Mapa demasiado grande para cargarlo entero (" + size + " bytes): " + path);
+            }
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package game.panlesBBDD.map.colisionsTools;
+
+import java.awt.Rectangle;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Volúmenes de activación (triggers) con eventos de entrada, permanencia y salida.
+ * <p>
+ * Cada volumen se registra una sola vez con su región y su {@link Listener}. En cada paso,
+ * {@link #update(Rectangle)} recibe el área del sujeto (normalmente el jugador) y consulta un
+ * {@link SpatialHash}, de modo que solo se examinan los volúmenes cercanos y los que el sujeto
+ * ocupaba en el paso anterior: al entrar se emite {@link Listener#onEnter()}, en cada paso dentro
+ * {@link Listener#onStay()} y al salir {@link Listener#onExit()}. Los niveles ya no necesitan
+ * comprobar cada región ni guardar banderas para saber si el sujeto acaba de llegar.
+ * </p>
+ * <p>
+ * Los eventos se emiten en el hilo de simulación: primero las entradas y permanencias, en orden
+ * de registro, y después las salidas.
+ * </p>
+ */
+public class TriggerSystem {
+
+    /**
+     * Receptor de los eventos de un volumen. Los tres métodos son opcionales.
+     */
+    public interface Listener {
+        /** El sujeto ha empezado a solapar el volumen en este paso. */
+        default void onEnter() {
+        }
+
+        /** El sujeto sigue solapando el volumen, después del paso en que entró. */
+        default void onStay() {
+        }
+
+        /** El sujeto ha dejado de solapar el volumen en este paso. */
+        default void onExit() {
+        }
+    }
+
+    private static final class Trigger implements Collidable {
+        private final Collidable region;
+        private final Listener listener;
+        private boolean inside;
+        private int seenFrame;
+
+        private Trigger(Collidable region, Listener listener) {
+            this.region = region;
+            this.listener = listener;
+        }
+
+        @Override
+        public Rectangle getBounds(Rectangle out) {
+            return region.getBounds(out);
+        }
+    }
+
+    private final SpatialHash<Trigger> index;
+    private final List<Trigger> nearby = new ArrayList<>();
+    // Volúmenes que el sujeto ocupaba al terminar el último paso
+    private final List<Trigger> occupied = new ArrayList<>();
+    private int frame;
+
+    /**
+     * Crea un sistema de triggers vacío.
+     *
+     * @param cellSize Lado de las celdas del índice espacial en píxeles.
+     */
+    public TriggerSystem(int cellSize) {
+        index = new SpatialHash<>(cellSize);
+    }
+
+    /**
+     * Registra un volumen cuya región es el área de colisión de una entidad, por ejemplo un NPC.
+     *
+     * @param region   Región del volumen.
+     * @param listener Receptor de sus eventos.
+     * @return Identificador del volumen, para {@link #refresh(int)}.
+     */
+    public int add(Collidable region, Listener listener) {
+        return index.add(new Trigger(region, listener));
+    }
+
+    /**
+     * Registra un volumen rectangular fijo.
+     *
+     * @param x        Coordenada X de la región.
+     * @param y        Coordenada Y de la región.
+     * @param width    Ancho de la región.
+     * @param height   Alto de la región.
+     * @param listener Receptor de sus eventos.
+     * @return Identificador del volumen.
+     */
+    public int add(int x, int y, int width, int height, Listener listener) {
+        Rectangle region = new Rectangle(x, y, width, height);
+        return add(out -> {
+            out.setBounds(region);
+            return out;
+        }, listener);
+    }
+
+    /**
+     * Refresca la región de un volumen que se ha movido.
+     *
+     * @param id Identificador devuelto al registrarlo.
+     */
+    public void refresh(int id) {
+        index.update(id);
+    }
+
+    /**
+     * Compara el área del sujeto con los volúmenes y emite los eventos correspondientes.
+     *
+     * @param subject Área del sujeto en este paso.
+     */
+    public void update(Rectangle subject) {
+        frame++;
+        index.query(subject, nearby);
+        for (int i = 0; i < nearby.size(); i++) {
+            Trigger trigger = nearby.get(i);
+            trigger.seenFrame = frame;
+            if (trigger.inside) {
+                trigger.listener.onStay();
+            } else {
+                trigger.inside = true;
+                occupied.add(trigger);
+                trigger.listener.onEnter();
+            }
+        }
+        for (int i = occupied.size() - 1; i >= 0; i--) {
+            Trigger trigger = occupied.get(i);
+            if (trigger.seenFrame != frame) {
+                trigger.inside = false;
+                occupied.remove(i);
+                trigger.listener.onExit();
+            }
+        }
+    }
+
+    /**
+     * Olvida qué volúmenes ocupa el sujeto sin emitir eventos de salida, por ejemplo al
+     * reaparecer tras una muerte. El siguiente {@link #update(Rectangle)} volverá a emitir
+     * entradas.
+     */
+    public void reset() {
+        for (int i = 0; i < occupied.size(); i++) {
+            occupied.get(i).inside = false;
+        }
+        occupied.clear();
+    }
+}
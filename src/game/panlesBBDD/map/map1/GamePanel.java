@@ -5,11 +5,29 @@ import game.objects.Collectible;
 import game.objects.Collectible.Type;
 import game.objects.PortalNPC;
 import game.effects.LeafParticleEffect;
+import game.effects.ParticleBuffer;
 import game.effects.RunGrassEffect;
+import game.engine.ActiveRenderCanvas;
+import game.engine.Background;
+import game.engine.GameClock;
+import game.engine.GameLoop;
+import game.engine.GameLoopListener;
+import game.engine.Headless;
+import game.engine.ImageLoader;
+import game.engine.InputQueue;
+import game.engine.LevelSimulation;
+import game.engine.RenderMode;
+import game.engine.RenderSnapshot;
+import game.engine.ReplaySession;
+import game.engine.Sprite;
+import game.engine.TripleBuffer;
 import game.listeners.LevelTransitionListener;
 
-import game.panlesBBDD.map.colisionsTools.CollisionManager;
-import game.panlesBBDD.map.colisionsTools.TileMap;
+import game.panlesBBDD.map.colisionsTools.ChunkedCollisionManager;
+import game.panlesBBDD.map.colisionsTools.ChunkedTileMap;
+import game.panlesBBDD.map.colisionsTools.CollisionQuery;
+import game.panlesBBDD.map.colisionsTools.SpatialHash;
+import game.panlesBBDD.map.colisionsTools.TriggerSystem;
 import game.panlesBBDD.map.map1.DeathStyledDialog;
 
 
@@ -19,23 +37,66 @@ import java.awt.event.*;
 import java.net.URL;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
 import javax.sound.sampled.*;
 
 /**
  * Panel principal del juego que se encarga de la renderización y actualización
  * de todos los elementos (jugador, fondo, objetos, efectos y transiciones de nivel).
+ * <p>
+ * La simulación se ejecuta en el hilo del {@link GameLoop}; el pintado solo lee el último
+ * {@link Snapshot} publicado, por lo que ambos avanzan en paralelo sin bloqueos.
+ * </p>
  */
-public class GamePanel extends JPanel implements ActionListener, KeyListener {
-    private Timer timer;
+public class GamePanel extends JPanel implements GameLoopListener, KeyListener, LevelSimulation {
+
+    /**
+     * Estado del nivel 1 necesario para pintar un frame.
+     */
+    private static class Snapshot extends RenderSnapshot {
+        boolean[] collectibleVisible = new boolean[0];
+        int[] collectibleY = new int[0];
+        int portalMessageIndex;
+        final ParticleBuffer leafParticles = new ParticleBuffer();
+        final ParticleBuffer grassParticles = new ParticleBuffer();
+        String collectibleMessage;
+        int collectibleMessageX;
+        int collectibleMessageY;
+        // Milisegundos desde que aparecieron las instrucciones, o -1 si ya no se muestran
+        long instructionsElapsed;
+    }
+
+    private GameLoop gameLoop;
+    // Reloj de juego que avanza el bucle; todo lo temporizado del nivel lo consulta
+    private final GameClock clock = new GameClock();
+    // Grabación o repetición de la entrada y semilla aleatoria del nivel
+    private final ReplaySession replaySession = ReplaySession.open("level1");
+    private final Random random = replaySession.newRandom();
+    private final TripleBuffer<Snapshot> snapshots = new TripleBuffer<>(Snapshot::new);
+    private final InputQueue inputQueue = new InputQueue();
+    // Canvas de pintado activo (null en modo pasivo)
+    private ActiveRenderCanvas activeCanvas;
     private Player player;
     private Camera camera;
-    private TileMap tileMap;
-    private CollisionManager collisionManager;
-    private Image backgroundImage;
-    private int worldWidth = 6493;
+    // Mapa cargado por trozos alrededor de la cámara
+    private ChunkedTileMap tileMap;
+    private CollisionQuery collisionManager;
+    // Rectángulos reutilizados en cada paso para que la simulación no genere basura
+    private final Rectangle playerBox = new Rectangle();
+    private final Rectangle entityBox = new Rectangle();
+    // Coleccionables (identificadores 0..n-1, en el orden de la lista)
+    private final SpatialHash<Collectible> collectibleIndex = new SpatialHash<>(256);
+    private final List<Collectible> nearbyCollectibles = new ArrayList<>();
+    // Zonas de activación del nivel (el NPC portal)
+    private final TriggerSystem triggers = new TriggerSystem(256);
+    // Fondo escalado al mundo una sola vez; cada frame se copia solo la parte visible
+    private Background background;
+    // Ancho del mundo, tomado del mapa al abrirlo para que un mapa más largo amplíe el nivel
+    private int worldWidth;
     private int worldHeight = 1080;
     private final int floorY = 1000;
-    private final int initialStartY = 650;
+    // Borde superior del suelo del mapa: el jugador aparece apoyado, sin solapar ningún tile
+    private final int initialStartY = 640;
     private final boolean debugMode = false;
 
     private BackgroundSound backgroundSound;
@@ -61,9 +122,14 @@ public class GamePanel extends JPanel implements ActionListener, KeyListener {
     private int customInstructionsY = 800;
 
     private PortalNPC portalNpc;
-    private long portalMessageStartTime;
+    // Momento en que empezó la conversación del portal, o -1 si aún no ha empezado
+    private long portalMessageStartTime = -1;
     private final long PORTAL_MESSAGE_DURATION = 18000; // 18 s
-    private boolean portalMessageTriggered = false;
+    // Distancias del NPC portal y de la casa al borde derecho del mundo: el final del nivel se
+    // coloca respecto al ancho del mapa, y el jugador detenido en el borde sigue solapando la
+    // zona del portal
+    private static final int PORTAL_FROM_RIGHT_EDGE = 293;
+    private static final int HOUSE_FROM_RIGHT_EDGE = 393;
 
     private boolean deathTriggered = false;
 
@@ -73,8 +139,6 @@ public class GamePanel extends JPanel implements ActionListener, KeyListener {
     private int maxLeafParticles = 150;
     private int maxGrassParticles = 30;
 
-    // Variable para controlar la transición
-    private boolean transitionTriggered = false;
     private LevelTransitionListener levelTransitionListener;
 
     // Nueva variable para la casa
@@ -84,7 +148,7 @@ public class GamePanel extends JPanel implements ActionListener, KeyListener {
 
     /**
      * Constructor que inicializa el GamePanel, carga los recursos (mapa, fondo, sonidos, objetos)
-     * y configura el timer de actualización.
+     * y arranca el bucle de juego de paso fijo.
      */
     public GamePanel() {
         setPreferredSize(new Dimension(1920, 1080));
@@ -93,18 +157,26 @@ public class GamePanel extends JPanel implements ActionListener, KeyListener {
         setFocusTraversalKeysEnabled(false);
         addKeyListener(this);
 
-        int tileSize = 40;
-        tileMap = new TileMap("/resources/Map01.csv", tileSize);
-        collisionManager = new CollisionManager(tileMap);
+        if (RenderMode.current() == RenderMode.ACTIVE) {
+            activeCanvas = new ActiveRenderCanvas(this::renderFrame);
+            setLayout(new BorderLayout());
+            add(activeCanvas, BorderLayout.CENTER);
+        }
 
-        player = new Player(10, initialStartY, worldWidth);
+        int tileSize = 40;
+        tileMap = new ChunkedTileMap("/resources/Map01.amap", tileSize, ChunkedTileMap.DEFAULT_CHUNK_COLUMNS);
+        worldWidth = tileMap.getWorldWidth();
+        collisionManager = new ChunkedCollisionManager(tileMap);
+
+        player = new Player(10, initialStartY, worldWidth, clock);
+        // La caja de colisión con el mapa empieza a la altura de la cabeza
+        player.setColliders(collisionManager, 20);
+        player.setGround(tileMap);
         camera = new Camera(player, 3000, 1080, worldWidth, worldHeight);
+        tileMap.update(camera.getOffsetX(), camera.getScreenWidth());
 
-        URL bgUrl = getClass().getResource("/resources/imagen/fondoS10.png");
-        if (bgUrl != null) {
-            backgroundImage = new ImageIcon(bgUrl).getImage();
-        } else {
-            System.err.println("No se encontró el fondo en /resources/imagen/fondoS10.png");
+        if (!Headless.isEnabled()) {
+            background = Background.load("/resources/imagen/fondoS10.png", worldWidth, worldHeight);
         }
 
         backgroundSound = new BackgroundSound("/resources/sound/background/background.wav");
@@ -114,24 +186,46 @@ public class GamePanel extends JPanel implements ActionListener, KeyListener {
         collectibles.add(new Collectible(Type.SANDIA, 400, 370, 60, 60, "/resources/imagen/collect/sandia.png"));
         collectibles.add(new Collectible(Type.BOTAS, 1500, 550, 50, 50, "/resources/imagen/collect/botas.png"));
 
-        portalNpc = new PortalNPC(6200, 440, 200, 200, "/resources/imagen/npc/guard.gif");
+        portalNpc = new PortalNPC(worldWidth - PORTAL_FROM_RIGHT_EDGE, 440, 200, 200, "/resources/imagen/npc/guard.gif", clock);
+        for (Collectible col : collectibles) {
+            collectibleIndex.add(col);
+        }
+        // Al llegar al NPC empieza la conversación; si sigue con él al terminarla, se cambia de nivel
+        triggers.add(portalNpc, new TriggerSystem.Listener() {
+            @Override
+            public void onEnter() {
+                if (portalMessageStartTime < 0) {
+                    portalNpc.triggerMessage();
+                    portalMessageStartTime = clock.millis();
+                } else {
+                    checkPortalTransition();
+                }
+            }
+
+            @Override
+            public void onStay() {
+                checkPortalTransition();
+            }
+        });
 
         // Cargar imagen de la casa y definir sus coordenadas
-        URL houseUrl = getClass().getResource("/resources/imagen/casa.png");
-        if (houseUrl != null) {
-            houseImage = new ImageIcon(houseUrl).getImage();
-            houseX = 6100;
-            houseY = 45;
-        } else {
-            System.err.println("No se encontró la imagen de la casa en /resources/imagen/house.png");
+        if (!Headless.isEnabled()) {
+            houseImage = ImageLoader.load("/resources/imagen/casa.png");
+            if (houseImage != null) {
+                houseX = worldWidth - HOUSE_FROM_RIGHT_EDGE;
+                houseY = 45;
+            }
         }
 
-        instructionStartTime = System.currentTimeMillis();
-        timer = new Timer(16, this);
-        timer.start();
+        instructionStartTime = clock.millis();
+
+        leafParticleEffect = new LeafParticleEffect(worldWidth, floorY, maxLeafParticles, random);
+        runGrassEffect = new RunGrassEffect(maxGrassParticles, random);
 
-        leafParticleEffect = new LeafParticleEffect(worldWidth, floorY, maxLeafParticles);
-        runGrassEffect = new RunGrassEffect(maxGrassParticles);
+        replaySession.attach(inputQueue);
+        publishSnapshot(0f);
+        gameLoop = new GameLoop(this, clock);
+        gameLoop.start();
     }
 
     /**
@@ -143,6 +237,16 @@ public class GamePanel extends JPanel implements ActionListener, KeyListener {
         this.levelTransitionListener = listener;
     }
 
+    @Override
+    public GameLoop getGameLoop() {
+        return gameLoop;
+    }
+
+    @Override
+    public InputQueue getInputQueue() {
+        return inputQueue;
+    }
+
     @Override
     public void addNotify() {
         super.addNotify();
@@ -152,14 +256,29 @@ public class GamePanel extends JPanel implements ActionListener, KeyListener {
     @Override
     public void paintComponent(Graphics g) {
         super.paintComponent(g);
+        if (activeCanvas == null) {
+            renderFrame((Graphics2D) g);
+        }
+    }
+
+    /**
+     * Dibuja el frame completo del nivel, tanto desde {@code paintComponent} como
+     * desde el canvas de pintado activo.
+     *
+     * @param g Contexto gráfico de destino.
+     */
+    private void renderFrame(Graphics2D g) {
+        Snapshot frame = snapshots.acquire();
         camera.setScreenSize(getWidth(), getHeight());
         Graphics2D g2d = (Graphics2D) g.create();
-        int offsetX = camera.getOffsetX();
+        int playerX = frame.getPlayerRenderX();
+        int playerY = frame.getPlayerRenderY();
+        int offsetX = camera.getOffsetXFor(playerX);
         int offsetY = camera.getOffsetY();
         g2d.translate(-offsetX, -offsetY);
 
-        if (backgroundImage != null) {
-            g2d.drawImage(backgroundImage, 0, 0, worldWidth, worldHeight, this);
+        if (background != null) {
+            background.draw(g2d, offsetX, offsetY, getWidth(), getHeight());
         }
 
         // Dibujar la casa
@@ -170,44 +289,51 @@ public class GamePanel extends JPanel implements ActionListener, KeyListener {
         if (debugMode) {
             Composite originalComposite = g2d.getComposite();
             g2d.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, 0.5f));
-            drawTileMap(g2d);
+            drawTileMap(g2d, offsetX);
             g2d.setComposite(originalComposite);
         }
 
-        for (Collectible col : collectibles) {
-            col.draw(g2d);
+        for (int i = 0; i < frame.collectibleVisible.length; i++) {
+            if (frame.collectibleVisible[i]) {
+                collectibles.get(i).drawAt(g2d, frame.collectibleY[i]);
+            }
         }
 
-        Image playerImg = player.getImage();
-        if (playerImg != null) {
-            g2d.drawImage(playerImg, player.getX(), player.getY(), player.getWidth(), player.getHeight(), this);
+        Sprite playerSprite = frame.playerSprite;
+        if (playerSprite != null) {
+            playerSprite.draw(g2d, playerX, playerY, frame.playerWidth, frame.playerHeight);
         } else {
             g2d.setColor(Color.RED);
-            g2d.fillRect(player.getX(), player.getY(), player.getWidth(), player.getHeight());
+            g2d.fillRect(playerX, playerY, frame.playerWidth, frame.playerHeight);
         }
 
         // Dibujar el NPC (se mantiene activa la entrada de teclas)
-        portalNpc.draw(g2d);
+        portalNpc.draw(g2d, frame.portalMessageIndex);
 
-        leafParticleEffect.draw(g2d);
-        runGrassEffect.draw(g2d);
+        frame.leafParticles.fillOvals(g2d);
+        frame.grassParticles.fillOvals(g2d);
 
-        drawOverlayMessages(g2d);
+        drawOverlayMessages(g2d, frame);
         g2d.dispose();
     }
 
     /**
-     * Dibuja el mapa de tiles (útil en modo debug).
+     * Dibuja el mapa de tiles (útil en modo debug). Solo se recorren las columnas visibles y
+     * se omiten las que pertenecen a trozos no cargados.
      *
-     * @param g2d Objeto Graphics2D para el dibujo.
+     * @param g2d     Objeto Graphics2D para el dibujo.
+     * @param offsetX Desplazamiento horizontal de la cámara en este frame.
      */
-    private void drawTileMap(Graphics2D g2d) {
+    private void drawTileMap(Graphics2D g2d, int offsetX) {
         int tileSize = tileMap.getTileSize();
-        int[][] tiles = tileMap.getTiles();
-        for (int row = 0; row < tiles.length; row++) {
-            int cols = tiles[row].length;
-            for (int col = 0; col < cols; col++) {
-                int tileType = tiles[row][col];
+        int firstCol = Math.max(0, offsetX / tileSize);
+        int lastCol = Math.min(tileMap.getColumns() - 1, (offsetX + getWidth()) / tileSize);
+        for (int col = firstCol; col <= lastCol; col++) {
+            if (!tileMap.isResident(col)) {
+                continue;
+            }
+            for (int row = 0; row < tileMap.getRows(); row++) {
+                int tileType = tileMap.getTile(col, row);
                 switch (tileType) {
                     case 0: g2d.setColor(new Color(200, 200, 200)); break;
                     case 1: g2d.setColor(Color.DARK_GRAY); break;
@@ -224,14 +350,57 @@ public class GamePanel extends JPanel implements ActionListener, KeyListener {
     }
 
     @Override
-    public void actionPerformed(ActionEvent e) {
-        int oldX = player.getX();
-        int oldY = player.getY();
+    public void render(float interpolation) {
+        publishSnapshot(interpolation);
+        if (activeCanvas != null) {
+            activeCanvas.present();
+        } else {
+            repaint();
+        }
+    }
+
+    /**
+     * Captura el estado visible del nivel y lo publica para el hilo de pintado.
+     *
+     * @param interpolation Fracción de paso transcurrida.
+     */
+    private void publishSnapshot(float interpolation) {
+        Snapshot frame = snapshots.getWriteBuffer();
+        frame.capture(player, interpolation);
+        int count = collectibles.size();
+        if (frame.collectibleVisible.length != count) {
+            frame.collectibleVisible = new boolean[count];
+            frame.collectibleY = new int[count];
+        }
+        for (int i = 0; i < count; i++) {
+            Collectible col = collectibles.get(i);
+            frame.collectibleVisible[i] = !col.isCollected();
+            frame.collectibleY[i] = col.getY();
+        }
+        frame.portalMessageIndex = portalNpc.getMessageIndex();
+        leafParticleEffect.copyTo(frame.leafParticles);
+        runGrassEffect.copyTo(frame.grassParticles);
+        frame.collectibleMessage = collectibleMessage;
+        frame.collectibleMessageX = collectibleMessageX;
+        frame.collectibleMessageY = collectibleMessageY;
+        frame.instructionsElapsed = showInstructions ? clock.millis() - instructionStartTime : -1;
+        snapshots.publish();
+    }
+
+    @Override
+    public void tick() {
+        inputQueue.drain(clock.getTicks(), this::handleKey);
+        updateOverlayMessages();
+
+        // Los trozos alrededor del jugador deben estar cargados antes de resolver su movimiento
+        tileMap.update(camera.getOffsetX(), camera.getScreenWidth());
         player.update();
 
-        for (Collectible col : collectibles) {
+        for (int i = 0; i < collectibles.size(); i++) {
+            Collectible col = collectibles.get(i);
             if (!col.isCollected()) {
                 col.update();
+                collectibleIndex.update(i);
             }
         }
 
@@ -239,161 +408,136 @@ public class GamePanel extends JPanel implements ActionListener, KeyListener {
         runGrassEffect.update();
 
         if (player.getDx() != 0 && !player.isJumping()) {
-            Rectangle feet = player.getFeetRectangle();
+            Rectangle feet = player.getFeetRectangle(playerBox);
             int originX = feet.x + feet.width / 2;
             int originY = feet.y + feet.height / 2;
             runGrassEffect.spawnParticles(originX, originY);
         }
 
-        Rectangle feetRect = player.getFeetRectangle();
-        Rectangle waterRect = new Rectangle(feetRect.x, feetRect.y, feetRect.width, feetRect.height + 30);
-        int tileSize = tileMap.getTileSize();
-        int startCol = waterRect.x / tileSize;
-        int endCol = (waterRect.x + waterRect.width) / tileSize;
-        int startRow = waterRect.y / tileSize;
-        int endRow = (waterRect.y + waterRect.height) / tileSize;
-        boolean waterCollision = false;
-        for (int row = startRow; row <= endRow; row++) {
-            for (int col = startCol; col <= endCol; col++) {
-                if (tileMap.getTileAt(col * tileSize, row * tileSize) == 2) {
-                    waterCollision = true;
-                    break;
-                }
-            }
-            if (waterCollision) break;
-        }
+        // Agua (tiles tipo 2) bajo los pies, con margen de 30 px hacia abajo
+        Rectangle waterRect = player.getFeetRectangle(playerBox);
+        waterRect.height += 30;
+        boolean waterCollision = tileMap.containsTileType(waterRect, 2);
         if (!deathTriggered && waterCollision) {
             triggerDeath();
             return;
         }
 
-        if (player.getDy() < 0) {
-            Rectangle headRect = player.getHeadRectangle();
-            if (collisionManager.isColliding(headRect)) {
-                int collisionRow = headRect.y / tileSize;
-                int newY = (collisionRow + 1) * tileSize;
-                player.setPosition(player.getX(), newY);
-                player.resetVerticalMotion();
+        player.getCollisionRectangle(playerBox);
+        collectibleIndex.query(playerBox, nearbyCollectibles);
+        for (int i = 0; i < nearbyCollectibles.size(); i++) {
+            Collectible col = nearbyCollectibles.get(i);
+            if (col.isCollected()) {
+                continue;
+            }
+            col.setCollected(true);
+            col.getBounds(entityBox);
+            collectibleMessageX = entityBox.x;
+            collectibleMessageY = entityBox.y - 50;
+
+            if (col.getType() == Collectible.Type.SANDIA) {
+                player.getPlayerState().setSandia(true);
+                collectibleMessage = "Has recogido la Sandía: ¡Incrementa tu energía y habilita dash!";
+            } else if (col.getType() == Collectible.Type.BOTAS) {
+                player.applyBoots();
+                collectibleMessage = "¡Has recogido las Botas: Aumenta tu velocidad!";
             }
+            collectibleMessageStartTime = clock.millis();
+            playCollectSound();
         }
 
-        // --- Modificación para plataformas: se invoca onLanding() al detectar colisión con el "suelo" de la plataforma ---
-        Rectangle feetCollisionRect = player.getFeetRectangle();
-        if (player.getDy() >= 0 && collisionManager.isColliding(feetCollisionRect)) {
-            player.onLanding();  // Se llama a onLanding para reproducir el sonido de aterrizaje y reiniciar el sonido de pisadas
-            int collisionRow = (feetCollisionRect.y + feetCollisionRect.height) / tileSize;
-            int newY = collisionRow * tileSize - player.getHeight();
-            player.setPosition(player.getX(), newY);
-            player.resetVerticalMotion();
+        triggers.update(playerBox);
+        if (!gameLoop.isRunning()) {
+            // El portal ha iniciado la transición de nivel
+            return;
         }
-        // -----------------------------------------------------------------------------------------------
 
-        Rectangle collisionRect = player.getCollisionRectangle();
-        if (collisionManager.isColliding(collisionRect)) {
-            player.setPosition(oldX, player.getY());
-            player.stop();
+        boolean collisionWithType2 = tileMap.containsTileType(playerBox, 2);
+        if (!deathTriggered && collisionWithType2) {
+            triggerDeath();
         }
+    }
 
-        for (Collectible col : collectibles) {
-            if (!col.isCollected() && player.getCollisionRectangle().intersects(col.getBounds())) {
-                col.setCollected(true);
-                Rectangle bounds = col.getBounds();
-                collectibleMessageX = bounds.x;
-                collectibleMessageY = bounds.y - 50;
-
-                if (col.getType() == Collectible.Type.SANDIA) {
-                    player.getPlayerState().setSandia(true);
-                    collectibleMessage = "Has recogido la Sandía: ¡Incrementa tu energía y habilita dash!";
-                } else if (col.getType() == Collectible.Type.BOTAS) {
-                    player.applyBoots();
-                    collectibleMessage = "¡Has recogido las Botas: Aumenta tu velocidad!";
-                }
-                collectibleMessageStartTime = System.currentTimeMillis();
-                playCollectSound();
-            }
+    /**
+     * Cambia de nivel si la conversación del portal ha terminado mientras el jugador sigue
+     * junto al NPC.
+     */
+    private void checkPortalTransition() {
+        if (clock.millis() - portalMessageStartTime < PORTAL_MESSAGE_DURATION) {
+            return;
         }
-
-        // Manejo del NPC Portal y transición:
-        // Al colisionar con el NPC se activa el mensaje.
-        if (!transitionTriggered && player.getCollisionRectangle().intersects(portalNpc.getBounds())) {
-            if (!portalMessageTriggered) {
-                portalNpc.triggerMessage();
-                portalMessageStartTime = System.currentTimeMillis();
-                portalMessageTriggered = true;
-            } else if (System.currentTimeMillis() - portalMessageStartTime >= PORTAL_MESSAGE_DURATION) {
-                transitionTriggered = true;
-                timer.stop();
-                if (backgroundSound != null) {
-                    backgroundSound.stop();
-                }
-                if (levelTransitionListener != null) {
-                    levelTransitionListener.onLevelTransitionRequested();
-                }
-                return;
-            }
+        gameLoop.stop();
+        replaySession.close();
+        tileMap.close();
+        if (background != null) {
+            background.close();
         }
-
-        Rectangle playerRect = player.getCollisionRectangle();
-        startCol = playerRect.x / tileSize;
-        int endColRect = (playerRect.x + playerRect.width) / tileSize;
-        int startRowRect = playerRect.y / tileSize;
-        int endRowRect = (playerRect.y + playerRect.height) / tileSize;
-        boolean collisionWithType2 = false;
-        for (int row = startRowRect; row <= endRowRect; row++) {
-            for (int col = startCol; col <= endColRect; col++) {
-                if (tileMap.getTileAt(col * tileSize, row * tileSize) == 2) {
-                    collisionWithType2 = true;
-                    break;
-                }
-            }
-            if (collisionWithType2) break;
+        if (backgroundSound != null) {
+            backgroundSound.stop();
         }
-        if (!deathTriggered && collisionWithType2) {
-            triggerDeath();
+        if (levelTransitionListener != null) {
+            SwingUtilities.invokeLater(levelTransitionListener::onLevelTransitionRequested);
         }
-
-        repaint();
     }
 
     /**
      * Ejecuta la secuencia de muerte, deteniendo sonidos y transiciones,
      * mostrando el diálogo de muerte y reiniciando el juego según la lógica definida.
+     * Se invoca desde el hilo de simulación; el diálogo se muestra en el hilo de Swing.
      */
     private void triggerDeath() {
         deathTriggered = true;
-        timer.stop();
+        gameLoop.stop();
         if (backgroundSound != null) {
             backgroundSound.stop();
         }
         player.stop();
         player.stopWalkingSound();
 
-        Frame owner = (Frame) SwingUtilities.getWindowAncestor(this);
-        DeathStyledDialog dsd = new DeathStyledDialog(owner, () -> {
-            player.setPosition(130, initialStartY - player.getHeight());
-            player.stop();
-            player.stopWalkingSound();
-            player.getPlayerState().reset();
-            for (Collectible col : collectibles) {
-                col.setCollected(false);
-            }
-            // Reiniciamos las variables del diálogo para que se pueda iniciar de nuevo
-            portalMessageTriggered = false;
-            portalMessageStartTime = 0;
-            transitionTriggered = false;
-
-            backgroundSound.play();
-            timer.start();
-            deathTriggered = false;
-            SwingUtilities.invokeLater(() -> requestFocusInWindow());
+        if (Headless.isEnabled()) {
+            // Sin interfaz no hay diálogo: se reaparece directamente
+            respawn();
+            gameLoop.start();
+            return;
+        }
+        SwingUtilities.invokeLater(() -> {
+            Frame owner = (Frame) SwingUtilities.getWindowAncestor(this);
+            DeathStyledDialog dsd = new DeathStyledDialog(owner, () -> {
+                inputQueue.clear();
+                gameLoop.post(this::respawn);
+                gameLoop.start();
+                requestFocusInWindow();
+            });
+            dsd.showDialog();
         });
-        dsd.showDialog();
+    }
+
+    /**
+     * Reinicia el nivel tras la muerte. Se ejecuta en el hilo de simulación.
+     */
+    private void respawn() {
+        player.setPosition(130, initialStartY - player.getHeight());
+        player.stop();
+        player.stopWalkingSound();
+        player.getPlayerState().reset();
+        for (Collectible col : collectibles) {
+            col.setCollected(false);
+        }
+        // Reiniciamos las variables del diálogo para que se pueda iniciar de nuevo
+        portalMessageStartTime = -1;
+        triggers.reset();
+
+        backgroundSound.play();
+        deathTriggered = false;
     }
 
     /**
      * Reproduce el sonido de recogida al interactuar con un coleccionable.
      */
     private void playCollectSound() {
+        if (Headless.isEnabled()) {
+            return;
+        }
         try {
             URL url = getClass().getResource("/resources/sound/collect/collect.wav");
             if (url == null) {
@@ -409,88 +553,118 @@ public class GamePanel extends JPanel implements ActionListener, KeyListener {
         }
     }
 
+    /**
+     * Retira los mensajes superpuestos cuya duración ha terminado.
+     */
+    private void updateOverlayMessages() {
+        long currentTime = clock.millis();
+        if (collectibleMessage != null && currentTime - collectibleMessageStartTime >= COLLECTIBLE_MESSAGE_DURATION) {
+            collectibleMessage = null;
+        }
+        if (showInstructions && currentTime - instructionStartTime >= INSTRUCTION_DURATION) {
+            showInstructions = false;
+        }
+    }
+
     /**
      * Dibuja los mensajes superpuestos (colección y instrucciones) en la pantalla.
      *
-     * @param g2d Objeto Graphics2D utilizado para renderizar los mensajes.
+     * @param g2d   Objeto Graphics2D utilizado para renderizar los mensajes.
+     * @param frame Estado del frame a pintar.
      */
-    private void drawOverlayMessages(Graphics2D g2d) {
-        long currentTime = System.currentTimeMillis();
+    private void drawOverlayMessages(Graphics2D g2d, Snapshot frame) {
+        String collectibleMessage = frame.collectibleMessage;
+        int collectibleMessageX = frame.collectibleMessageX;
+        int collectibleMessageY = frame.collectibleMessageY;
         if (collectibleMessage != null) {
-            if (currentTime - collectibleMessageStartTime >= COLLECTIBLE_MESSAGE_DURATION) {
-                collectibleMessage = null;
+            int overlayWidth = 400;
+            int overlayHeight = 50;
+            if (collectibleOverlayImg != null) {
+                g2d.drawImage(collectibleOverlayImg, collectibleMessageX, collectibleMessageY, overlayWidth, overlayHeight, null);
             } else {
-                int overlayWidth = 400;
-                int overlayHeight = 50;
-                if (collectibleOverlayImg != null) {
-                    g2d.drawImage(collectibleOverlayImg, collectibleMessageX, collectibleMessageY, overlayWidth, overlayHeight, null);
-                } else {
-                    g2d.setColor(new Color(0, 0, 0, 150));
-                    g2d.fillRoundRect(collectibleMessageX, collectibleMessageY, overlayWidth, overlayHeight, 15, 15);
-                }
-                g2d.setColor(Color.WHITE);
-                FontMetrics fm = g2d.getFontMetrics();
-                int textWidth = fm.stringWidth(collectibleMessage);
-                int textX = collectibleMessageX + (overlayWidth - textWidth) / 2;
-                int textY = collectibleMessageY + (overlayHeight + fm.getAscent()) / 2 - 5;
-                g2d.drawString(collectibleMessage, textX, textY);
+                g2d.setColor(new Color(0, 0, 0, 150));
+                g2d.fillRoundRect(collectibleMessageX, collectibleMessageY, overlayWidth, overlayHeight, 15, 15);
             }
+            g2d.setColor(Color.WHITE);
+            FontMetrics fm = g2d.getFontMetrics();
+            int textWidth = fm.stringWidth(collectibleMessage);
+            int textX = collectibleMessageX + (overlayWidth - textWidth) / 2;
+            int textY = collectibleMessageY + (overlayHeight + fm.getAscent()) / 2 - 5;
+            g2d.drawString(collectibleMessage, textX, textY);
         }
-        if (showInstructions) {
-            long elapsed = currentTime - instructionStartTime;
-            if (elapsed >= INSTRUCTION_DURATION) {
-                showInstructions = false;
-            } else {
-                float alpha = 1.0f;
-                if (elapsed < FADE_IN_DURATION) {
-                    alpha = (float) elapsed / FADE_IN_DURATION;
-                } else if (elapsed > FADE_IN_DURATION + VISIBLE_DURATION) {
-                    long fadeOutElapsed = elapsed - (FADE_IN_DURATION + VISIBLE_DURATION);
-                    alpha = 1.0f - (float) fadeOutElapsed / FADE_OUT_DURATION;
-                }
-                g2d.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, alpha));
+        long elapsed = frame.instructionsElapsed;
+        if (elapsed >= 0) {
+            float alpha = 1.0f;
+            if (elapsed < FADE_IN_DURATION) {
+                alpha = (float) elapsed / FADE_IN_DURATION;
+            } else if (elapsed > FADE_IN_DURATION + VISIBLE_DURATION) {
+                long fadeOutElapsed = elapsed - (FADE_IN_DURATION + VISIBLE_DURATION);
+                alpha = 1.0f - (float) fadeOutElapsed / FADE_OUT_DURATION;
+            }
+            g2d.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, alpha));
 
-                int overlayWidth = 700;
-                int overlayHeight = 120;
-                int instructionsOverlayX = 100;
-                int instructionsOverlayY = 170;
+            int overlayWidth = 700;
+            int overlayHeight = 120;
+            int instructionsOverlayX = 100;
+            int instructionsOverlayY = 170;
 
-                if (instructionsOverlayImg != null) {
-                    g2d.drawImage(instructionsOverlayImg, instructionsOverlayX, instructionsOverlayY, overlayWidth, overlayHeight, null);
-                } else {
-                    g2d.setColor(new Color(0, 0, 0, 200));
-                    g2d.fillRoundRect(instructionsOverlayX, instructionsOverlayY, overlayWidth, overlayHeight, 20, 20);
-                }
+            if (instructionsOverlayImg != null) {
+                g2d.drawImage(instructionsOverlayImg, instructionsOverlayX, instructionsOverlayY, overlayWidth, overlayHeight, null);
+            } else {
+                g2d.setColor(new Color(0, 0, 0, 200));
+                g2d.fillRoundRect(instructionsOverlayX, instructionsOverlayY, overlayWidth, overlayHeight, 20, 20);
+            }
 
-                g2d.setColor(Color.WHITE);
-                String instructionText = "Controles: W o ↑ para saltar, A o ← para izquierda, D o → para derecha, doble salto w o ↑ y shift para dash";
-
-                Font originalFont = g2d.getFont();
-                FontMetrics fm = g2d.getFontMetrics(originalFont);
-                int textWidth = fm.stringWidth(instructionText);
-                int maxTextWidth = overlayWidth - 10;
-
-                if (textWidth > maxTextWidth) {
-                    float scalingFactor = (float) maxTextWidth / textWidth;
-                    float newFontSize = Math.max(10, originalFont.getSize2D() * scalingFactor);
-                    Font newFont = originalFont.deriveFont(newFontSize);
-                    g2d.setFont(newFont);
-                    fm = g2d.getFontMetrics(newFont);
-                    textWidth = fm.stringWidth(instructionText);
-                }
+            g2d.setColor(Color.WHITE);
+            String instructionText = "Controles: W o ↑ para saltar, A o ← para izquierda, D o → para derecha, doble salto w o ↑ y shift para dash";
+
+            Font originalFont = g2d.getFont();
+            FontMetrics fm = g2d.getFontMetrics(originalFont);
+            int textWidth = fm.stringWidth(instructionText);
+            int maxTextWidth = overlayWidth - 10;
+
+            if (textWidth > maxTextWidth) {
+                float scalingFactor = (float) maxTextWidth / textWidth;
+                float newFontSize = Math.max(10, originalFont.getSize2D() * scalingFactor);
+                Font newFont = originalFont.deriveFont(newFontSize);
+                g2d.setFont(newFont);
+                fm = g2d.getFontMetrics(newFont);
+                textWidth = fm.stringWidth(instructionText);
+            }
 
-                int textX = instructionsOverlayX + (overlayWidth - textWidth) / 2;
-                int textY = instructionsOverlayY + (overlayHeight + fm.getAscent()) / 2 - 5;
-                g2d.drawString(instructionText, textX, textY);
+            int textX = instructionsOverlayX + (overlayWidth - textWidth) / 2;
+            int textY = instructionsOverlayY + (overlayHeight + fm.getAscent()) / 2 - 5;
+            g2d.drawString(instructionText, textX, textY);
 
-                g2d.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, 1.0f));
-            }
+            g2d.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, 1.0f));
         }
     }
 
     @Override
     public void keyPressed(KeyEvent e) {
-        int key = e.getKeyCode();
+        inputQueue.post(e.getKeyCode(), true);
+    }
+
+    @Override
+    public void keyReleased(KeyEvent e) {
+        inputQueue.post(e.getKeyCode(), false);
+    }
+
+    /**
+     * Aplica un evento de teclado al jugador. Se ejecuta en el hilo de simulación.
+     *
+     * @param key     Código de tecla.
+     * @param pressed {@code true} si la tecla se pulsó; {@code false} si se soltó.
+     */
+    private void handleKey(int key, boolean pressed) {
+        if (pressed) {
+            keyPressed(key);
+        } else {
+            keyReleased(key);
+        }
+    }
+
+    private void keyPressed(int key) {
         switch (key) {
             case KeyEvent.VK_A:
             case KeyEvent.VK_LEFT:
@@ -514,9 +688,7 @@ public class GamePanel extends JPanel implements ActionListener, KeyListener {
         }
     }
 
-    @Override
-    public void keyReleased(KeyEvent e) {
-        int key = e.getKeyCode();
+    private void keyReleased(int key) {
         switch (key) {
             case KeyEvent.VK_A:
             case KeyEvent.VK_LEFT:
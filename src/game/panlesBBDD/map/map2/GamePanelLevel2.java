@@ -2,10 +2,25 @@ package game.controls.movements;
 
 import game.audio.BackgroundSound;
 import game.objects.PortalNPC;
-import game.effects.RainParticle;
-import game.effects.Particle;
+import game.effects.RainEffect;
 import game.effects.Lightning;
+import game.engine.ActiveRenderCanvas;
+import game.engine.Background;
+import game.engine.GameClock;
+import game.engine.GameLoop;
+import game.engine.GameLoopListener;
+import game.engine.Headless;
+import game.engine.InputQueue;
+import game.engine.LevelSimulation;
+import game.engine.RenderMode;
+import game.engine.RenderSnapshot;
+import game.engine.ReplaySession;
+import game.engine.Sprite;
+import game.engine.TripleBuffer;
+import game.effects.ParticleBuffer;
+import game.effects.ParticleSystem;
 import game.listeners.LevelTransitionListener;
+import game.panlesBBDD.map.colisionsTools.TriggerSystem;
 import game.panlesBBDD.map.map1.DeathStyledDialog;
 
 import javax.sound.sampled.AudioInputStream;
@@ -17,8 +32,6 @@ import java.awt.*;
 import java.awt.event.*;
 import java.awt.geom.AffineTransform;
 import java.net.URL;
-import java.util.ArrayList;
-import java.util.List;
 import java.util.Random;
 
 /**
@@ -29,8 +42,28 @@ import java.util.Random;
  * <p>
  * Nota: Solo se han agregado comentarios para documentación sin modificar ninguna parte funcional del código.
  * </p>
+ * <p>
+ * La simulación se ejecuta en el hilo del {@link GameLoop}; el pintado solo lee el último
+ * {@link Snapshot} publicado.
+ * </p>
  */
-public class GamePanelLevel2 extends JPanel implements ActionListener, KeyListener {
+public class GamePanelLevel2 extends JPanel implements GameLoopListener, KeyListener, LevelSimulation {
+
+    /**
+     * Estado del nivel 2 necesario para pintar un frame.
+     */
+    private static class Snapshot extends RenderSnapshot {
+        int portalMessageIndex;
+        final ParticleBuffer footParticles = new ParticleBuffer();
+        final ParticleBuffer rainParticles = new ParticleBuffer();
+        boolean warningActive;
+        int warningX, warningY, warningWidth, warningHeight;
+        // El rayo no cambia tras construirse, por lo que se comparte la referencia
+        Lightning lightning;
+        // Milisegundos de juego desde que cayó el rayo
+        long lightningElapsed;
+        float darknessLevel;
+    }
 
     // Parámetros del mundo y fase
     private int worldWidth = 5760;
@@ -39,23 +72,34 @@ public class GamePanelLevel2 extends JPanel implements ActionListener, KeyListen
     private final int initialStartY = 670;
     private final boolean debugMode = false;
 
+    // Reloj de juego que avanza el bucle; todo lo temporizado del nivel lo consulta
+    private final GameClock clock = new GameClock();
+    // Grabación o repetición de la entrada y semilla aleatoria del nivel
+    private final ReplaySession replaySession = ReplaySession.open("level2");
+    private final Random random = replaySession.newRandom();
+
     // Elementos del juego
     private Player player;
+    // Rectángulos reutilizados en cada paso para que la simulación no genere basura
+    private final Rectangle playerBox = new Rectangle();
+    // Zonas de activación del nivel (la entrada a la cueva)
+    private final TriggerSystem triggers = new TriggerSystem(256);
     private Camera camera;
-    private Image backgroundImage;
+    // Fondo escalado al mundo una sola vez; cada frame se copia solo la parte visible
+    private Background background;
 
     // Audio y NPC
     private BackgroundSound backgroundSound;
     private PortalNPC portalNpc;
 
     // Partículas
-    private List<RainParticle> rainParticles;
+    private RainEffect rainEffect;
     private final int baseRainDrops = 600;
-    private List<Particle> footParticles;
+    private final ParticleSystem footParticles = new ParticleSystem(64);
 
     // Efectos de rayo
     private Lightning currentLightning;
-    private long nextLightningTime = System.currentTimeMillis() + 4000;
+    private long nextLightningTime = clock.millis() + 4000;
     private final long lightningDuration = 1500; // ms
     private Clip lightningClip;
     private boolean lightningSoundStarted = false;
@@ -73,8 +117,6 @@ public class GamePanelLevel2 extends JPanel implements ActionListener, KeyListen
     private final int screenWidth = 1920;
     private final int screenHeight = 1080;
 
-    private final Random rand = new Random();
-
     // Zona de advertencia para el rayo
     private boolean warningActive = false;
     private long warningStartTime = 0;
@@ -82,14 +124,20 @@ public class GamePanelLevel2 extends JPanel implements ActionListener, KeyListen
     private Rectangle warningZone = null;
 
     // Listener para transición
-    private boolean transitionTriggered = false;
     private LevelTransitionListener levelTransitionListener;
 
-    // Timer
-    private Timer timer;
+    // Bucle de juego de paso fijo
+    private GameLoop gameLoop;
+    private final TripleBuffer<Snapshot> snapshots = new TripleBuffer<>(Snapshot::new);
+    private final InputQueue inputQueue = new InputQueue();
+    // Canvas de pintado activo (null en modo pasivo)
+    private ActiveRenderCanvas activeCanvas;
 
     // Efecto de lluvia
-    private long rainStartTime = System.currentTimeMillis();
+    private long rainStartTime = clock.millis();
+
+    // Instante en que se ejecuta la muerte por rayo pendiente (0 si no hay ninguna)
+    private long pendingDeathTime = 0;
 
     /**
      * Crea una instancia de GamePanelLevel2, inicializando el panel, cargando recursos y configurando
@@ -102,54 +150,56 @@ public class GamePanelLevel2 extends JPanel implements ActionListener, KeyListen
         setFocusTraversalKeysEnabled(false);
         addKeyListener(this);
 
+        if (RenderMode.current() == RenderMode.ACTIVE) {
+            activeCanvas = new ActiveRenderCanvas(this::renderFrame);
+            setLayout(new BorderLayout());
+            add(activeCanvas, BorderLayout.CENTER);
+        }
+
         // Se han eliminado TileMap y CollisionManager
 
-        player = new Player(150, initialStartY, worldWidth);
+        player = new Player(150, initialStartY, worldWidth, clock);
         // En este mapa el jugador NO debe tener sandía (solo 1 salto, sin dash)
         player.getPlayerState().setSandia(false);
 
         camera = new Camera(player, screenWidth, screenHeight, worldWidth, worldHeight);
 
-        URL bgUrl = getClass().getResource("/resources/imagen/fondoS2.png");
-        if (bgUrl != null) {
-            backgroundImage = new ImageIcon(bgUrl).getImage();
-        } else {
-            System.err.println("No se encontró el fondo en /resources/imagen/fondoS2.png");
+        if (!Headless.isEnabled()) {
+            background = Background.load("/resources/imagen/fondoS2.png", worldWidth, worldHeight);
         }
 
         backgroundSound = new BackgroundSound("/resources/sound/background/background2.wav");
         backgroundSound.play();
 
-        portalNpc = new PortalNPC(5380, 290, 500, 500, "/resources/imagen/cave.png");
+        portalNpc = new PortalNPC(5380, 290, 500, 500, "/resources/imagen/cave.png", clock);
+        triggers.add(portalNpc, new TriggerSystem.Listener() {
+            @Override
+            public void onEnter() {
+                enterCave();
+            }
+        });
 
-        try {
-            URL soundURL = getClass().getResource("/resources/sound/lightning.wav");
-            if (soundURL != null) {
-                AudioInputStream audioIn = AudioSystem.getAudioInputStream(soundURL);
-                lightningClip = AudioSystem.getClip();
-                lightningClip.open(audioIn);
-            } else {
-                System.err.println("No se encontró el sonido del rayo en /resources/sound/lightning.wav");
+        if (!Headless.isEnabled()) {
+            try {
+                URL soundURL = getClass().getResource("/resources/sound/lightning.wav");
+                if (soundURL != null) {
+                    AudioInputStream audioIn = AudioSystem.getAudioInputStream(soundURL);
+                    lightningClip = AudioSystem.getClip();
+                    lightningClip.open(audioIn);
+                } else {
+                    System.err.println("No se encontró el sonido del rayo en /resources/sound/lightning.wav");
+                }
+            } catch (Exception ex) {
+                ex.printStackTrace();
             }
-        } catch (Exception ex) {
-            ex.printStackTrace();
         }
 
-        timer = new Timer(16, this);
-        timer.start();
+        rainEffect = new RainEffect(worldWidth, worldHeight, baseRainDrops, random);
 
-        initRainParticles();
-        footParticles = new ArrayList<>();
-    }
-
-    /**
-     * Inicializa las partículas de lluvia.
-     */
-    private void initRainParticles() {
-        rainParticles = new ArrayList<>();
-        for (int i = 0; i < baseRainDrops; i++) {
-            rainParticles.add(RainParticle.createRandom(worldWidth, worldHeight));
-        }
+        replaySession.attach(inputQueue);
+        publishSnapshot(0f);
+        gameLoop = new GameLoop(this, clock);
+        gameLoop.start();
     }
 
     /**
@@ -161,6 +211,16 @@ public class GamePanelLevel2 extends JPanel implements ActionListener, KeyListen
         this.levelTransitionListener = listener;
     }
 
+    @Override
+    public GameLoop getGameLoop() {
+        return gameLoop;
+    }
+
+    @Override
+    public InputQueue getInputQueue() {
+        return inputQueue;
+    }
+
     @Override
     public void addNotify() {
         super.addNotify();
@@ -173,47 +233,54 @@ public class GamePanelLevel2 extends JPanel implements ActionListener, KeyListen
     @Override
     public void paintComponent(Graphics g) {
         super.paintComponent(g);
+        if (activeCanvas == null) {
+            renderFrame((Graphics2D) g);
+        }
+    }
+
+    /**
+     * Dibuja el frame completo del nivel, tanto desde {@code paintComponent} como
+     * desde el canvas de pintado activo.
+     *
+     * @param g Contexto gráfico de destino.
+     */
+    private void renderFrame(Graphics2D g) {
+        Snapshot frame = snapshots.acquire();
         Graphics2D gWorld = (Graphics2D) g.create();
         camera.setScreenSize(getWidth(), getHeight());
-        int camOffsetX = camera.getOffsetX();
+        int playerX = frame.getPlayerRenderX();
+        int playerY = frame.getPlayerRenderY();
+        int camOffsetX = camera.getOffsetXFor(playerX);
         int camOffsetY = camera.getOffsetY();
         gWorld.translate(-camOffsetX, -camOffsetY);
 
-        if (backgroundImage != null) {
-            gWorld.drawImage(backgroundImage, 0, 0, worldWidth, worldHeight, this);
+        if (background != null) {
+            background.draw(gWorld, camOffsetX, camOffsetY, getWidth(), getHeight());
         }
         // Se eliminó el dibujo del mapa (CSV)
-        for (Particle p : footParticles) {
-            float alpha = p.getAlpha();
-            Color footColor = new Color((p.colorRGB >> 16) & 0xFF,
-                    (p.colorRGB >> 8) & 0xFF,
-                    p.colorRGB & 0xFF,
-                    (int)(alpha * 255));
-            gWorld.setColor(footColor);
-            gWorld.fillOval((int) p.x, (int) p.y, (int) p.size, (int) p.size);
-        }
-        Image playerImg = player.getImage();
-        if (playerImg != null) {
-            gWorld.drawImage(playerImg, player.getX(), player.getY(), player.getWidth(), player.getHeight(), this);
+        frame.footParticles.fillOvals(gWorld);
+        Sprite playerSprite = frame.playerSprite;
+        if (playerSprite != null) {
+            playerSprite.draw(gWorld, playerX, playerY, frame.playerWidth, frame.playerHeight);
         } else {
             gWorld.setColor(Color.RED);
-            gWorld.fillRect(player.getX(), player.getY(), player.getWidth(), player.getHeight());
+            gWorld.fillRect(playerX, playerY, frame.playerWidth, frame.playerHeight);
         }
-        portalNpc.draw(gWorld);
-        if (warningActive && warningZone != null) {
+        portalNpc.draw(gWorld, frame.portalMessageIndex);
+        if (frame.warningActive) {
             gWorld.setColor(new Color(255, 0, 0, 30));
-            gWorld.fillRect(warningZone.x, warningZone.y, warningZone.width, warningZone.height);
+            gWorld.fillRect(frame.warningX, frame.warningY, frame.warningWidth, frame.warningHeight);
             gWorld.setColor(new Color(255, 0, 0, 40));
-            gWorld.drawRect(warningZone.x, warningZone.y, warningZone.width, warningZone.height);
+            gWorld.drawRect(frame.warningX, frame.warningY, frame.warningWidth, frame.warningHeight);
         }
-        if (currentLightning != null) {
-            currentLightning.draw(gWorld);
+        if (frame.lightning != null) {
+            frame.lightning.draw(gWorld);
         }
         gWorld.dispose();
 
         Graphics2D gDark = (Graphics2D) g.create();
         gDark.setTransform(new AffineTransform());
-        gDark.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, darknessLevel));
+        gDark.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, frame.darknessLevel));
         gDark.setColor(Color.BLACK);
         int darkWidth = getWidth() * 2;
         int darkHeight = getHeight() * 2;
@@ -223,23 +290,23 @@ public class GamePanelLevel2 extends JPanel implements ActionListener, KeyListen
         Graphics2D gRain = (Graphics2D) g.create();
         gRain.translate(-camOffsetX, -camOffsetY);
         gRain.setStroke(new BasicStroke(2));
-        for (RainParticle drop : rainParticles) {
-            float alpha = drop.getAlpha();
-            int a = (int)(alpha * 255);
+        ParticleBuffer rain = frame.rainParticles;
+        for (int i = 0; i < rain.count; i++) {
+            int a = (int)(rain.alpha[i] * 255);
             Color startColor = new Color(255, 255, 255, a);
             Color endColor = new Color(0, 0, 139, a);
-            int x1 = (int) drop.x;
-            int y1 = (int) drop.y;
-            int x2 = (int)(drop.x + drop.size * 2);
-            int y2 = (int)(drop.y + drop.size * 4);
+            int x1 = (int) rain.x[i];
+            int y1 = (int) rain.y[i];
+            int x2 = (int)(rain.x[i] + rain.size[i] * 2);
+            int y2 = (int)(rain.y[i] + rain.size[i] * 4);
             GradientPaint gp = new GradientPaint(x1, y1, startColor, x2, y2, endColor);
             gRain.setPaint(gp);
             gRain.drawLine(x1, y1, x2, y2);
         }
         gRain.dispose();
 
-        if (currentLightning != null) {
-            long elapsedFlash = System.currentTimeMillis() - lightningStartTime;
+        if (frame.lightning != null) {
+            long elapsedFlash = frame.lightningElapsed;
             long flashPeriod = lightningDuration / 3;
             long mod = elapsedFlash % flashPeriod;
             if (mod < flashPeriod * 0.2) {
@@ -254,28 +321,56 @@ public class GamePanelLevel2 extends JPanel implements ActionListener, KeyListen
     }
 
     @Override
-    public void actionPerformed(ActionEvent e) {
-        long currentTime = System.currentTimeMillis();
+    public void render(float interpolation) {
+        publishSnapshot(interpolation);
+        if (activeCanvas != null) {
+            activeCanvas.present();
+        } else {
+            repaint();
+        }
+    }
 
-        player.update();
-        for (int i = 0; i < footParticles.size(); i++) {
-            Particle p = footParticles.get(i);
-            p.update();
-            if (!p.isAlive()) {
-                footParticles.remove(i);
-                i--;
-            }
+    /**
+     * Captura el estado visible del nivel y lo publica para el hilo de pintado.
+     *
+     * @param interpolation Fracción de paso transcurrida.
+     */
+    private void publishSnapshot(float interpolation) {
+        Snapshot frame = snapshots.getWriteBuffer();
+        frame.capture(player, interpolation);
+        frame.portalMessageIndex = portalNpc.getMessageIndex();
+        frame.footParticles.copyFrom(footParticles);
+        rainEffect.copyTo(frame.rainParticles);
+        frame.warningActive = warningActive && warningZone != null;
+        if (frame.warningActive) {
+            frame.warningX = warningZone.x;
+            frame.warningY = warningZone.y;
+            frame.warningWidth = warningZone.width;
+            frame.warningHeight = warningZone.height;
         }
-        if (player.getDx() != 0 && !player.isJumping()) {
-            spawnFootParticles(player.getFeetRectangle());
+        frame.lightning = currentLightning;
+        frame.lightningElapsed = clock.millis() - lightningStartTime;
+        frame.darknessLevel = darknessLevel;
+        snapshots.publish();
+    }
+
+    @Override
+    public void tick() {
+        long currentTime = clock.millis();
+        inputQueue.drain(clock.getTicks(), this::handleKey);
+
+        if (pendingDeathTime != 0 && currentTime >= pendingDeathTime) {
+            pendingDeathTime = 0;
+            lightningDeath();
+            return;
         }
-        for (int i = 0; i < rainParticles.size(); i++) {
-            RainParticle drop = rainParticles.get(i);
-            drop.update();
-            if (drop.x > worldWidth || drop.y > worldHeight) {
-                rainParticles.set(i, RainParticle.createRandom(worldWidth, worldHeight));
-            }
+
+        player.update();
+        footParticles.update();
+        if (player.getDx() != 0 && !player.isJumping()) {
+            spawnFootParticles(player.getFeetRectangle(playerBox));
         }
+        rainEffect.update();
 
         long elapsedRain = currentTime - rainStartTime;
         float rainMultiplier = 0.5f;
@@ -284,11 +379,8 @@ public class GamePanelLevel2 extends JPanel implements ActionListener, KeyListen
         } else {
             rainMultiplier = 1.8f;
         }
-        RainParticle.speedMultiplier = rainMultiplier;
-        int desiredDrops = (int) (baseRainDrops * rainMultiplier);
-        while (rainParticles.size() < desiredDrops) {
-            rainParticles.add(RainParticle.createRandom(worldWidth, worldHeight));
-        }
+        rainEffect.setSpeedMultiplier(rainMultiplier);
+        rainEffect.fill((int) (baseRainDrops * rainMultiplier));
 
         if (!warningActive && currentTime >= nextLightningTime) {
             warningActive = true;
@@ -297,13 +389,13 @@ public class GamePanelLevel2 extends JPanel implements ActionListener, KeyListen
             int camOffsetY = camera.getOffsetY();
             int zoneWidth = 200;
             int zoneHeight = screenHeight;
-            int warnX = camOffsetX + rand.nextInt(screenWidth - zoneWidth + 1);
+            int warnX = camOffsetX + random.nextInt(screenWidth - zoneWidth + 1);
             int warnY = camOffsetY;
             warningZone = new Rectangle(warnX, warnY, zoneWidth, zoneHeight);
             System.out.println("Warning zone activated: " + warningZone);
         }
         if (warningActive && currentTime >= warningStartTime + warningDuration) {
-            currentLightning = new Lightning(lightningDuration, warningZone.x, warningZone.y, warningZone.width, warningZone.height);
+            currentLightning = new Lightning(lightningDuration, warningZone.x, warningZone.y, warningZone.width, warningZone.height, clock, random);
             if (lightningClip != null) {
                 lightningClip.stop();
                 lightningClip.setFramePosition(0);
@@ -317,17 +409,10 @@ public class GamePanelLevel2 extends JPanel implements ActionListener, KeyListen
                 lightningSoundStarted = true;
                 lightningStartTime = currentTime;
             }
-            if (player.getCollisionRectangle().intersects(warningZone)) {
+            if (player.getCollisionRectangle(playerBox).intersects(warningZone)) {
                 System.out.println("Player in warning zone. Scheduling lightning death.");
                 // Retrasar la muerte para permitir ver el rayo.
-                Timer delayDeath = new Timer(500, new ActionListener() {
-                    @Override
-                    public void actionPerformed(ActionEvent evt) {
-                        lightningDeath();
-                    }
-                });
-                delayDeath.setRepeats(false);
-                delayDeath.start();
+                pendingDeathTime = currentTime + 500;
             } else {
                 System.out.println("Player avoided warning zone. Lightning appears.");
             }
@@ -358,34 +443,9 @@ public class GamePanelLevel2 extends JPanel implements ActionListener, KeyListen
             currentLightning = null;
         }
 
-        if (!transitionTriggered && player.getCollisionRectangle().intersects(portalNpc.getBounds())) {
-            System.out.println("NPC collision detected in GamePanelLevel2");
-            transitionTriggered = true;
-
-            // Desactivar entrada para evitar reactivación de sonidos
-            removeKeyListener(this);
-
-            // Detener el timer para que no se sigan actualizando movimientos
-            timer.stop();
-
-            // Evitar que se reanude el audio: deshabilitar y marcar al jugador como no vivo
-            player.disableFootstepSound();
-            player.setAlive(false);
-            player.stopAllSounds();
-
-            if (backgroundSound != null) {
-                backgroundSound.stop();
-            }
-            if (lightningClip != null && lightningClip.isRunning()) {
-                lightningClip.stop();
-            }
-
-            if (levelTransitionListener != null) {
-                System.out.println("Calling levelTransitionListener.onLevelTransitionRequested()");
-                levelTransitionListener.onLevelTransitionRequested();
-            } else {
-                System.err.println("LevelTransitionListener is null in GamePanelLevel2");
-            }
+        triggers.update(player.getCollisionRectangle(playerBox));
+        if (!gameLoop.isRunning()) {
+            // Se ha entrado en la cueva
             return;
         }
 
@@ -395,8 +455,46 @@ public class GamePanelLevel2 extends JPanel implements ActionListener, KeyListen
                 darknessLevel = maxDarkness;
             }
         }
+    }
+
+    /**
+     * Termina el nivel al entrar en la cueva: detiene la simulación y el audio y solicita la
+     * transición al siguiente nivel.
+     */
+    private void enterCave() {
+        System.out.println("NPC collision detected in GamePanelLevel2");
+
+        // Desactivar entrada para evitar reactivación de sonidos
+        if (!Headless.isEnabled()) {
+            SwingUtilities.invokeLater(() -> removeKeyListener(this));
+        }
+        inputQueue.clear();
+
+        // Detener el bucle para que no se sigan actualizando movimientos
+        gameLoop.stop();
+        replaySession.close();
+
+        // Evitar que se reanude el audio: deshabilitar y marcar al jugador como no vivo
+        player.disableFootstepSound();
+        player.setAlive(false);
+        player.stopAllSounds();
+
+        if (backgroundSound != null) {
+            backgroundSound.stop();
+        }
+        if (background != null) {
+            background.close();
+        }
+        if (lightningClip != null && lightningClip.isRunning()) {
+            lightningClip.stop();
+        }
 
-        repaint();
+        if (levelTransitionListener != null) {
+            System.out.println("Calling levelTransitionListener.onLevelTransitionRequested()");
+            SwingUtilities.invokeLater(levelTransitionListener::onLevelTransitionRequested);
+        } else {
+            System.err.println("LevelTransitionListener is null in GamePanelLevel2");
+        }
     }
 
     /**
@@ -407,23 +505,24 @@ public class GamePanelLevel2 extends JPanel implements ActionListener, KeyListen
     private void spawnFootParticles(Rectangle feet) {
         int numParticles = 2;
         for (int i = 0; i < numParticles; i++) {
-            float x = feet.x + (float) (Math.random() * feet.width);
+            float x = feet.x + (float) (random.nextDouble() * feet.width);
             float y = feet.y + feet.height;
-            float dx = (float) (Math.random() - 0.5);
-            float dy = -(float) (Math.random() * 1 + 0.5f);
+            float dx = (float) (random.nextDouble() - 0.5);
+            float dy = -(float) (random.nextDouble() * 1 + 0.5f);
             float maxLife = 20;
             int colorRGB = 0x777777;
-            float size = 5 + (float) (Math.random() * 3);
-            footParticles.add(new Particle(x, y, dx, dy, maxLife, colorRGB, size));
+            float size = 5 + (float) (random.nextDouble() * 3);
+            footParticles.spawn(x, y, dx, dy, maxLife, colorRGB, size);
         }
     }
 
     /**
-     * Ejecuta la secuencia de muerte por rayo.
+     * Ejecuta la secuencia de muerte por rayo. Se invoca desde el hilo de simulación;
+     * el diálogo se muestra en el hilo de Swing.
      */
     private void lightningDeath() {
         System.out.println("Executing lightning death animation...");
-        timer.stop();
+        gameLoop.stop();
         // Marcar al jugador como no vivo para evitar nuevos sonidos
         player.setAlive(false);
         player.stop();
@@ -435,22 +534,60 @@ public class GamePanelLevel2 extends JPanel implements ActionListener, KeyListen
         if (lightningClip != null && lightningClip.isRunning()) {
             lightningClip.stop();
         }
-        Frame owner = (Frame) SwingUtilities.getWindowAncestor(this);
-        DeathStyledDialog dsd = new DeathStyledDialog(owner, () -> {
-            player.setPosition(150, initialStartY - player.getHeight());
-            player.getPlayerState().reset();
-            player.setAlive(true);
-            backgroundSound.play();
-            timer.start();
-            System.out.println("Player repositioned after lightning death.");
+        if (Headless.isEnabled()) {
+            // Sin interfaz no hay diálogo: se reaparece directamente
+            respawn();
+            gameLoop.start();
+            return;
+        }
+        SwingUtilities.invokeLater(() -> {
+            Frame owner = (Frame) SwingUtilities.getWindowAncestor(this);
+            DeathStyledDialog dsd = new DeathStyledDialog(owner, () -> {
+                inputQueue.clear();
+                gameLoop.post(this::respawn);
+                gameLoop.start();
+            });
+            dsd.showDialog();
         });
-        dsd.showDialog();
+    }
+
+    /**
+     * Reinicia al jugador tras la muerte por rayo. Se ejecuta en el hilo de simulación.
+     */
+    private void respawn() {
+        player.setPosition(150, initialStartY - player.getHeight());
+        player.getPlayerState().reset();
+        player.setAlive(true);
+        backgroundSound.play();
+        System.out.println("Player repositioned after lightning death.");
     }
 
     @Override
     public void keyPressed(KeyEvent e) {
+        inputQueue.post(e.getKeyCode(), true);
+    }
+
+    @Override
+    public void keyReleased(KeyEvent e) {
+        inputQueue.post(e.getKeyCode(), false);
+    }
+
+    /**
+     * Aplica un evento de teclado al jugador. Se ejecuta en el hilo de simulación.
+     *
+     * @param key     Código de tecla.
+     * @param pressed {@code true} si la tecla se pulsó; {@code false} si se soltó.
+     */
+    private void handleKey(int key, boolean pressed) {
         if (!player.isAlive()) return;
-        int key = e.getKeyCode();
+        if (pressed) {
+            keyPressed(key);
+        } else {
+            keyReleased(key);
+        }
+    }
+
+    private void keyPressed(int key) {
         switch (key) {
             case KeyEvent.VK_A, KeyEvent.VK_LEFT -> player.moveLeft();
             case KeyEvent.VK_D, KeyEvent.VK_RIGHT -> player.moveRight();
@@ -459,10 +596,7 @@ public class GamePanelLevel2 extends JPanel implements ActionListener, KeyListen
         }
     }
 
-    @Override
-    public void keyReleased(KeyEvent e) {
-        if (!player.isAlive()) return;
-        int key = e.getKeyCode();
+    private void keyReleased(int key) {
         switch (key) {
             case KeyEvent.VK_A, KeyEvent.VK_LEFT, KeyEvent.VK_D, KeyEvent.VK_RIGHT -> player.stop();
             case KeyEvent.VK_S, KeyEvent.VK_DOWN -> player.stopDown();
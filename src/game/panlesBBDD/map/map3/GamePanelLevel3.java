@@ -7,10 +7,28 @@ package game.controls.movements;
 
 import game.audio.BackgroundSound;
 import game.effects.FogParticleSystem;
+import game.engine.ActiveRenderCanvas;
+import game.engine.Background;
+import game.engine.GameClock;
+import game.engine.GameLoop;
+import game.engine.GameLoopListener;
+import game.engine.Headless;
+import game.engine.InputQueue;
+import game.engine.LevelSimulation;
+import game.engine.RenderMode;
+import game.engine.RenderSnapshot;
+import game.engine.ReplaySession;
+import game.engine.Sprite;
+import game.engine.TripleBuffer;
+import game.effects.ParticleBuffer;
+import game.effects.ParticleSystem;
 import game.objects.FinalNPC;
 import game.objects.Stalactite;
+import game.panlesBBDD.map.colisionsTools.SpatialHash;
 import game.panlesBBDD.map.colisionsTools.TileMap;
-import game.panlesBBDD.map.colisionsTools.CollisionManager;
+import game.panlesBBDD.map.colisionsTools.TriggerSystem;
+import game.panlesBBDD.map.colisionsTools.CollisionQuery;
+import game.panlesBBDD.map.colisionsTools.MergedCollisionManager;
 import game.panlesBBDD.map.map1.DeathStyledDialog;
 
 import javax.sound.sampled.Clip;
@@ -20,14 +38,37 @@ import java.awt.event.*;
 import java.net.URL;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
 
-public class GamePanelLevel3 extends JPanel implements ActionListener, KeyListener {
-    // Timer de actualización
-    private Timer timer;
+public class GamePanelLevel3 extends JPanel implements GameLoopListener, KeyListener, LevelSimulation {
+
+    /**
+     * Estado del nivel 3 necesario para pintar un frame.
+     */
+    private static class Snapshot extends RenderSnapshot {
+        final ParticleBuffer footParticles = new ParticleBuffer();
+        final ParticleBuffer fogParticles = new ParticleBuffer();
+        boolean[] stalactiteActive = new boolean[0];
+        int[] stalactiteX = new int[0];
+        int[] stalactiteY = new int[0];
+    }
+
+    // Bucle de juego de paso fijo; el pintado solo lee el último Snapshot publicado
+    private GameLoop gameLoop;
+    private final TripleBuffer<Snapshot> snapshots = new TripleBuffer<>(Snapshot::new);
+    private final InputQueue inputQueue = new InputQueue();
+    // Reloj de juego que avanza el bucle; todo lo temporizado del nivel lo consulta
+    private final GameClock clock = new GameClock();
+    // Grabación o repetición de la entrada y semilla aleatoria del nivel
+    private final ReplaySession replaySession = ReplaySession.open("level3");
+    private final Random random = replaySession.newRandom();
+    // Canvas de pintado activo (null en modo pasivo)
+    private ActiveRenderCanvas activeCanvas;
     // Jugador y sus elementos asociados
     private Player player;
     // Imagen de fondo del nivel
-    private Image backgroundImage;
+    // Fondo escalado al mundo una sola vez; cada frame se copia solo la parte visible
+    private Background background;
     // Cámara que sigue al jugador
     private Camera camera;
 
@@ -44,10 +85,18 @@ public class GamePanelLevel3 extends JPanel implements ActionListener, KeyListen
 
     // Sistema de colisiones basado en un TileMap
     private TileMap tileMap;
-    private CollisionManager collisionManager;
-
-    // Lista de partículas generadas al caminar
-    private List<game.effects.Particle> footParticles;
+    private CollisionQuery collisionManager;
+    // Rectángulos reutilizados en cada paso para que la simulación no genere basura
+    private final Rectangle playerBox = new Rectangle();
+    private final Rectangle feetBox = new Rectangle();
+    // Estalactitas (identificadores 0..n-1, en el orden de la lista)
+    private final SpatialHash<Stalactite> stalactiteIndex = new SpatialHash<>(256);
+    private final List<Stalactite> nearbyStalactites = new ArrayList<>();
+    // Zonas de activación del nivel (el NPC final)
+    private final TriggerSystem triggers = new TriggerSystem(256);
+
+    // Partículas generadas al caminar
+    private final ParticleSystem footParticles = new ParticleSystem(64);
 
     // Sistema de partículas de niebla
     private FogParticleSystem fogSystem;
@@ -74,19 +123,22 @@ public class GamePanelLevel3 extends JPanel implements ActionListener, KeyListen
         setFocusTraversalKeysEnabled(false);
         addKeyListener(this);
 
+        if (RenderMode.current() == RenderMode.ACTIVE) {
+            activeCanvas = new ActiveRenderCanvas(this::renderFrame);
+            setLayout(new BorderLayout());
+            add(activeCanvas, BorderLayout.CENTER);
+        }
+
         // Inicializar jugador y sus habilidades
-        player = new Player(200, initialStartY, worldWidth);
+        player = new Player(200, initialStartY, worldWidth, clock);
         player.getPlayerState().setSandia(true);
         player.applyBoots();
 
         camera = new Camera(player, screenWidth, screenHeight, worldWidth, worldHeight);
 
         // Cargar fondo
-        URL bgUrl = getClass().getResource("/resources/imagen/Mapa3.png");
-        if (bgUrl != null) {
-            backgroundImage = new ImageIcon(bgUrl).getImage();
-        } else {
-            backgroundImage = null;
+        if (!Headless.isEnabled()) {
+            background = Background.load("/resources/imagen/Mapa3.png", worldWidth, worldHeight);
         }
 
         // Inicializar audio de fondo
@@ -111,112 +163,134 @@ public class GamePanelLevel3 extends JPanel implements ActionListener, KeyListen
 
         // Inicializar sistema de colisiones
         int tileSize = 40;
-        tileMap = new TileMap("/resources/Map03.csv", tileSize);
-        collisionManager = new CollisionManager(tileMap);
+        tileMap = new TileMap("/resources/Map03.amap", tileSize);
+        collisionManager = new MergedCollisionManager(tileMap);
+        player.setColliders(collisionManager, 40 + collisionOffset);
+        player.setGround(tileMap);
 
         // Inicializar NPC final
         finalNPC = new FinalNPC(3170, 490, 550, 550, "/resources/imagen/Astralis.png");
 
         // Inicializar lista de stalactitas
         stalactites = new ArrayList<>();
-        stalactites.add(new Stalactite(2500, -40, 50, 150, "/resources/imagen/estalactita.png"));
-        stalactites.add(new Stalactite(1100, -40, 50, 150, "/resources/imagen/estalactita.png"));
-        stalactites.add(new Stalactite(600, -40, 50, 150, "/resources/imagen/estalactita.png"));
-
-        footParticles = new ArrayList<>();
+        stalactites.add(new Stalactite(2500, -40, 50, 150, "/resources/imagen/estalactita.png", clock, random));
+        stalactites.add(new Stalactite(1100, -40, 50, 150, "/resources/imagen/estalactita.png", clock, random));
+        stalactites.add(new Stalactite(600, -40, 50, 150, "/resources/imagen/estalactita.png", clock, random));
+        for (Stalactite s : stalactites) {
+            stalactiteIndex.add(s);
+        }
+        triggers.add(finalNPC, new TriggerSystem.Listener() {
+            @Override
+            public void onEnter() {
+                triggerFinalTransition();
+            }
+        });
 
         // Configurar el sistema de niebla para cubrir el 100% del mapa:
-        fogSystem = new FogParticleSystem(0, 0, worldHeight);
+        fogSystem = new FogParticleSystem(0, 0, worldHeight, random);
         fogSystem.setSpawnWidth(worldWidth);
 
-        timer = new Timer(16, this);
-        timer.start();
+        replaySession.attach(inputQueue);
+        publishSnapshot(0f);
+        gameLoop = new GameLoop(this, clock);
+        gameLoop.start();
+    }
+
+    @Override
+    public GameLoop getGameLoop() {
+        return gameLoop;
+    }
+
+    @Override
+    public InputQueue getInputQueue() {
+        return inputQueue;
     }
 
     /**
-     * Retorna el rectángulo de colisión ajustado, desplazado hacia abajo.
+     * Retorna el rectángulo de colisión ajustado, desplazado hacia abajo. Coincide con la caja
+     * con la que el jugador colisiona con el mapa.
      *
      * @return Rectángulo ajustado para colisiones.
      */
     private Rectangle getAdjustedCollisionRectangle() {
-        Rectangle r = player.getCollisionRectangle();
-        return new Rectangle(r.x, r.y + collisionOffset, r.width, r.height - collisionOffset);
+        return player.getMapHitbox();
     }
 
-    @Override
-    public void actionPerformed(ActionEvent e) {
-        int tileSize = tileMap.getTileSize();
-        int oldX = player.getX();
-        int oldY = player.getY();
+    /**
+     * Escribe en {@code out} el rectángulo de colisión ajustado, sin reservar memoria.
+     *
+     * @param out Rectángulo que se sobrescribe.
+     * @return El mismo {@code out}.
+     */
+    private Rectangle getAdjustedCollisionRectangle(Rectangle out) {
+        return player.getMapHitbox(out);
+    }
 
-        // Actualizar movimiento del jugador
-        player.update();
-        int newX = player.getX();
-        int newY = player.getY();
-
-        // Procesar colisión horizontal
-        player.setPosition(newX, oldY);
-        if (collisionManager.isColliding(getAdjustedCollisionRectangle())) {
-            player.setPosition(oldX, oldY);
-            player.stop();
-            newX = oldX;
+    @Override
+    public void render(float interpolation) {
+        publishSnapshot(interpolation);
+        if (activeCanvas != null) {
+            activeCanvas.present();
+        } else {
+            repaint();
         }
+    }
 
-        // Procesar colisión vertical
-        player.setPosition(newX, newY);
-        if (collisionManager.isColliding(getAdjustedCollisionRectangle())) {
-            if (player.getDy() < 0) { // Colisión en la cabeza
-                Rectangle headRect = player.getHeadRectangle();
-                int collisionRow = headRect.y / tileSize;
-                int correctedY = (collisionRow + 1) * tileSize;
-                player.setPosition(newX, correctedY);
-            } else { // Colisión en los pies
-                Rectangle feetRect = player.getFeetRectangle();
-                int collisionRow = (feetRect.y + feetRect.height) / tileSize;
-                int correctedY = collisionRow * tileSize - player.getHeight();
-                player.setPosition(newX, correctedY);
-                player.onLanding(); // Se llama onLanding para reproducir el sonido de pisadas al aterrizar
-            }
-            player.resetVerticalMotion();
+    /**
+     * Captura el estado visible del nivel y lo publica para el hilo de pintado.
+     *
+     * @param interpolation Fracción de paso transcurrida.
+     */
+    private void publishSnapshot(float interpolation) {
+        Snapshot frame = snapshots.getWriteBuffer();
+        frame.capture(player, interpolation);
+        frame.footParticles.copyFrom(footParticles);
+        fogSystem.copyTo(frame.fogParticles);
+        int count = stalactites.size();
+        if (frame.stalactiteActive.length != count) {
+            frame.stalactiteActive = new boolean[count];
+            frame.stalactiteX = new int[count];
+            frame.stalactiteY = new int[count];
         }
+        for (int i = 0; i < count; i++) {
+            Stalactite s = stalactites.get(i);
+            frame.stalactiteActive[i] = s.isActive();
+            frame.stalactiteX[i] = s.getX();
+            frame.stalactiteY[i] = s.getY();
+        }
+        snapshots.publish();
+    }
+
+    @Override
+    public void tick() {
+        inputQueue.drain(clock.getTicks(), this::handleKey);
+        // Actualizar movimiento del jugador; las colisiones con el mapa las resuelve el propio jugador
+        player.update();
 
         // Comprobar colisión letal (tiles tipo 2)
-        Rectangle playerRect = getAdjustedCollisionRectangle();
-        int startCol = playerRect.x / tileSize;
-        int endCol = (playerRect.x + playerRect.width) / tileSize;
-        int startRow = playerRect.y / tileSize;
-        int endRow = (playerRect.y + playerRect.height) / tileSize;
-        boolean collisionWithType2 = false;
-        for (int row = startRow; row <= endRow; row++) {
-            for (int col = startCol; col <= endCol; col++) {
-                if (tileMap.getTileAt(col * tileSize, row * tileSize) == 2) {
-                    collisionWithType2 = true;
-                    break;
-                }
-            }
-        }
+        Rectangle playerRect = getAdjustedCollisionRectangle(playerBox);
+        boolean collisionWithType2 = tileMap.containsTileType(playerRect, 2);
         if (collisionWithType2) {
             triggerDeath();
             return;
         }
 
         // Actualizar partículas de pisada
-        for (int i = 0; i < footParticles.size(); i++) {
-            game.effects.Particle p = footParticles.get(i);
-            p.update();
-            if (!p.isAlive()) {
-                footParticles.remove(i);
-                i--;
-            }
-        }
+        footParticles.update();
         if (player.getDx() != 0 && !player.isJumping()) {
-            spawnFootParticles(player.getFeetRectangle());
+            spawnFootParticles(player.getFeetRectangle(feetBox));
         }
 
         // Actualizar stalactitas
-        for (Stalactite s : stalactites) {
-            s.update(getAdjustedCollisionRectangle());
-            if (s.checkCollision(getAdjustedCollisionRectangle())) {
+        for (int i = 0; i < stalactites.size(); i++) {
+            stalactites.get(i).update(playerRect);
+            stalactiteIndex.update(i);
+        }
+
+        // Solo se comprueban las estalactitas cercanas al jugador
+        stalactiteIndex.query(playerRect, nearbyStalactites);
+        for (int i = 0; i < nearbyStalactites.size(); i++) {
+            if (nearbyStalactites.get(i).checkCollision(playerRect)) {
                 triggerDeath();
                 return;
             }
@@ -225,26 +299,37 @@ public class GamePanelLevel3 extends JPanel implements ActionListener, KeyListen
         // Actualizar el sistema de niebla (cubre todo el mapa)
         fogSystem.update(player);
 
-        // Comprobar colisión con el NPC final
-        if (getAdjustedCollisionRectangle().intersects(finalNPC.getBounds())) {
-            triggerFinalTransition();
-        }
-
-        repaint();
+        // Al llegar al NPC final se dispara la transición final
+        triggers.update(playerRect);
     }
 
     @Override
     public void paintComponent(Graphics g) {
         super.paintComponent(g);
+        if (activeCanvas == null) {
+            renderFrame((Graphics2D) g);
+        }
+    }
+
+    /**
+     * Dibuja el frame completo del nivel, tanto desde {@code paintComponent} como
+     * desde el canvas de pintado activo.
+     *
+     * @param g Contexto gráfico de destino.
+     */
+    private void renderFrame(Graphics2D g) {
+        Snapshot frame = snapshots.acquire();
         camera.setScreenSize(getWidth(), getHeight());
-        int camOffsetX = camera.getOffsetX();
+        int playerX = frame.getPlayerRenderX();
+        int playerY = frame.getPlayerRenderY();
+        int camOffsetX = camera.getOffsetXFor(playerX);
         int camOffsetY = camera.getOffsetY();
         Graphics2D g2 = (Graphics2D) g.create();
         g2.translate(-camOffsetX, -camOffsetY);
 
         // Dibujar fondo
-        if (backgroundImage != null) {
-            g2.drawImage(backgroundImage, 0, 0, worldWidth, worldHeight, this);
+        if (background != null) {
+            background.draw(g2, camOffsetX, camOffsetY, getWidth(), getHeight());
         } else {
             g2.setColor(Color.DARK_GRAY);
             g2.fillRect(0, 0, worldWidth, worldHeight);
@@ -259,12 +344,12 @@ public class GamePanelLevel3 extends JPanel implements ActionListener, KeyListen
         }
 
         // Dibujar jugador
-        Image playerImg = player.getImage();
-        if (playerImg != null) {
-            g2.drawImage(playerImg, player.getX(), player.getY(), player.getWidth(), player.getHeight(), this);
+        Sprite playerSprite = frame.playerSprite;
+        if (playerSprite != null) {
+            playerSprite.draw(g2, playerX, playerY, frame.playerWidth, frame.playerHeight);
         } else {
             g2.setColor(Color.RED);
-            g2.fillRect(player.getX(), player.getY(), player.getWidth(), player.getHeight());
+            g2.fillRect(playerX, playerY, frame.playerWidth, frame.playerHeight);
         }
 
         // (Opcional debug) Dibujar área de colisión ajustada
@@ -279,24 +364,18 @@ public class GamePanelLevel3 extends JPanel implements ActionListener, KeyListen
         }
 
         // Dibujar partículas de pisada
-        for (game.effects.Particle p : footParticles) {
-            float alpha = p.getAlpha();
-            Color footColor = new Color((p.colorRGB >> 16) & 0xFF,
-                    (p.colorRGB >> 8) & 0xFF,
-                    p.colorRGB & 0xFF,
-                    (int)(alpha * 255));
-            g2.setColor(footColor);
-            g2.fillOval((int)p.x, (int)p.y, (int)p.size, (int)p.size);
-        }
+        frame.footParticles.fillOvals(g2);
 
         // Dibujar NPC final
         finalNPC.draw(g2);
         // Dibujar stalactitas
-        for (Stalactite s : stalactites) {
-            s.draw(g2);
+        for (int i = 0; i < frame.stalactiteActive.length; i++) {
+            if (frame.stalactiteActive[i]) {
+                stalactites.get(i).drawAt(g2, frame.stalactiteX[i], frame.stalactiteY[i]);
+            }
         }
         // Dibujar el sistema de niebla
-        fogSystem.draw(g2);
+        frame.fogParticles.fillOvals(g2);
 
         g2.dispose();
     }
@@ -331,24 +410,26 @@ public class GamePanelLevel3 extends JPanel implements ActionListener, KeyListen
     private void spawnFootParticles(Rectangle feet) {
         int numParticles = 2;
         for (int i = 0; i < numParticles; i++) {
-            float x = feet.x + (float)(Math.random() * feet.width);
+            float x = feet.x + (float)(random.nextDouble() * feet.width);
             float y = feet.y + feet.height;
-            float dx = (float)(Math.random() - 0.5);
-            float dy = -(float)(Math.random() * 1 + 0.5f);
+            float dx = (float)(random.nextDouble() - 0.5);
+            float dy = -(float)(random.nextDouble() * 1 + 0.5f);
             float life = 20;
             int colorRGB = 0x777777;
-            float size = 5 + (float)(Math.random() * 3);
-            footParticles.add(new game.effects.Particle(x, y, dx, dy, life, colorRGB, size));
+            float size = 5 + (float)(random.nextDouble() * 3);
+            footParticles.spawn(x, y, dx, dy, life, colorRGB, size);
         }
     }
 
     /**
      * Ejecuta la secuencia de transición final mostrando el video y finalizando el juego.
+     * Se invoca desde el hilo de simulación; el video se muestra en el hilo de Swing.
      */
     private void triggerFinalTransition() {
         System.out.println("NPC final colisionado: iniciando transición final con video...");
-        removeKeyListener(this);
-        timer.stop();
+        gameLoop.stop();
+        inputQueue.clear();
+        replaySession.close();
         player.disableFootstepSound();
         player.setAlive(false);
         player.stopAllSounds();
@@ -359,23 +440,34 @@ public class GamePanelLevel3 extends JPanel implements ActionListener, KeyListen
         } catch(Exception ex) {
             System.err.println("Error al detener el audio de fondo: " + ex.getMessage());
         }
+        if (background != null) {
+            background.close();
+        }
 
-        game.video.VideoFinal videoPanel = new game.video.VideoFinal(() -> {
-            System.out.println("Video final completado. Finalizando juego...");
-            System.exit(0);
+        if (Headless.isEnabled()) {
+            // Sin interfaz el nivel termina al alcanzar el NPC final
+            return;
+        }
+        SwingUtilities.invokeLater(() -> {
+            removeKeyListener(this);
+            game.video.VideoFinal videoPanel = new game.video.VideoFinal(() -> {
+                System.out.println("Video final completado. Finalizando juego...");
+                System.exit(0);
+            });
+            JFrame frame = (JFrame) SwingUtilities.getWindowAncestor(this);
+            frame.setContentPane(videoPanel);
+            frame.revalidate();
+            videoPanel.requestFocusInWindow();
         });
-        JFrame frame = (JFrame) SwingUtilities.getWindowAncestor(this);
-        frame.setContentPane(videoPanel);
-        frame.revalidate();
-        videoPanel.requestFocusInWindow();
     }
 
     /**
-     * Ejecuta la secuencia de muerte por colisión letal.
+     * Ejecuta la secuencia de muerte por colisión letal. Se invoca desde el hilo de simulación;
+     * el diálogo se muestra en el hilo de Swing.
      */
     private void triggerDeath() {
         System.out.println("El jugador ha muerto por colisión letal.");
-        timer.stop();
+        gameLoop.stop();
         try {
             if (backgroundSound != null) {
                 backgroundSound.stop();
@@ -390,32 +482,71 @@ public class GamePanelLevel3 extends JPanel implements ActionListener, KeyListen
         for (Stalactite s : stalactites) {
             s.reset();
         }
-        Frame owner = (Frame) SwingUtilities.getWindowAncestor(this);
-        DeathStyledDialog dsd = new DeathStyledDialog(owner, () -> {
-            player.setPosition(200, initialStartY - player.getHeight());
-            player.getPlayerState().reset();
-            player.getPlayerState().setSandia(true);
-            player.applyBoots();
-            player.setAlive(true);
-            for (Stalactite s : stalactites) {
-                s.reset();
-            }
-            try {
-                if (backgroundSound != null) {
-                    backgroundSound.play();
-                }
-            } catch(Exception ex) {
-                System.err.println("Error al reproducir audio de fondo: " + ex.getMessage());
-            }
-            timer.start();
-            System.out.println("Jugador reubicado tras la muerte.");
+        if (Headless.isEnabled()) {
+            // Sin interfaz no hay diálogo: se reaparece directamente
+            respawn();
+            gameLoop.start();
+            return;
+        }
+        SwingUtilities.invokeLater(() -> {
+            Frame owner = (Frame) SwingUtilities.getWindowAncestor(this);
+            DeathStyledDialog dsd = new DeathStyledDialog(owner, () -> {
+                inputQueue.clear();
+                gameLoop.post(this::respawn);
+                gameLoop.start();
+            });
+            dsd.showDialog();
         });
-        dsd.showDialog();
+    }
+
+    /**
+     * Reinicia al jugador y las estalactitas tras la muerte. Se ejecuta en el hilo de simulación.
+     */
+    private void respawn() {
+        player.setPosition(200, initialStartY - player.getHeight());
+        player.getPlayerState().reset();
+        player.getPlayerState().setSandia(true);
+        player.applyBoots();
+        player.setAlive(true);
+        for (Stalactite s : stalactites) {
+            s.reset();
+        }
+        triggers.reset();
+        try {
+            if (backgroundSound != null) {
+                backgroundSound.play();
+            }
+        } catch(Exception ex) {
+            System.err.println("Error al reproducir audio de fondo: " + ex.getMessage());
+        }
+        System.out.println("Jugador reubicado tras la muerte.");
     }
 
     @Override
     public void keyPressed(KeyEvent e) {
-        int key = e.getKeyCode();
+        inputQueue.post(e.getKeyCode(), true);
+    }
+
+    @Override
+    public void keyReleased(KeyEvent e) {
+        inputQueue.post(e.getKeyCode(), false);
+    }
+
+    /**
+     * Aplica un evento de teclado al jugador. Se ejecuta en el hilo de simulación.
+     *
+     * @param key     Código de tecla.
+     * @param pressed {@code true} si la tecla se pulsó; {@code false} si se soltó.
+     */
+    private void handleKey(int key, boolean pressed) {
+        if (pressed) {
+            keyPressed(key);
+        } else {
+            keyReleased(key);
+        }
+    }
+
+    private void keyPressed(int key) {
         switch (key) {
             case KeyEvent.VK_A, KeyEvent.VK_LEFT -> player.moveLeft();
             case KeyEvent.VK_D, KeyEvent.VK_RIGHT -> player.moveRight();
@@ -425,9 +556,7 @@ public class GamePanelLevel3 extends JPanel implements ActionListener, KeyListen
         }
     }
 
-    @Override
-    public void keyReleased(KeyEvent e) {
-        int key = e.getKeyCode();
+    private void keyReleased(int key) {
         switch (key) {
             case KeyEvent.VK_A, KeyEvent.VK_LEFT, KeyEvent.VK_D, KeyEvent.VK_RIGHT -> player.stop();
             case KeyEvent.VK_S, KeyEvent.VK_DOWN -> player.stopDown();
@@ -1,14 +1,16 @@
 package game.objects;
 
+import game.engine.Headless;
+import game.engine.ImageLoader;
+import game.panlesBBDD.map.colisionsTools.Collidable;
+
 import java.awt.*;
-import javax.swing.ImageIcon;
-import java.net.URL;
 
 /**
  * FinalNPC representa al NPC final que, al interactuar (o colisionar) con el jugador,
  * dispara la transición final (por ejemplo, reproduciendo el video final del juego).
  */
-public class FinalNPC {
+public class FinalNPC implements Collidable {
     private int x, y;
     private int width, height;
     private Image image;
@@ -26,15 +28,10 @@ public class FinalNPC {
         this.y = y;
         this.width = width;
         this.height = height;
-        try {
-            URL url = getClass().getResource(imagePath);
-            if (url != null) {
-                image = new ImageIcon(url).getImage();
-            }
-        } catch (Exception e) {
-            System.err.println("Error al cargar la imagen del NPC final: " + e.getMessage());
-            image = null;
+        if (Headless.isEnabled()) {
+            return;
         }
+        image = ImageLoader.load(imagePath, width, height);
     }
 
     /**
@@ -55,6 +52,17 @@ public class FinalNPC {
      * @return Un Rectangle representando su hitbox.
      */
     public Rectangle getBounds() {
-        return new Rectangle(x, y, width, height);
+        return getBounds(new Rectangle());
+    }
+
+    /**
+     * Escribe en {@code out} el área de colisión, sin reservar memoria.
+     * @param out Rectángulo que se sobrescribe.
+     * @return El mismo {@code out}, para encadenar llamadas.
+     */
+    @Override
+    public Rectangle getBounds(Rectangle out) {
+        out.setBounds(x, y, width, height);
+        return out;
     }
 }
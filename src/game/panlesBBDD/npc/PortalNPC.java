@@ -1,19 +1,28 @@
 package game.objects;
 
+import game.engine.GameClock;
+import game.engine.Headless;
+import game.engine.ImageLoader;
+import game.engine.Sprite;
+import game.engine.SpriteAtlas;
+import game.panlesBBDD.map.colisionsTools.Collidable;
+
 import java.awt.Graphics;
 import java.awt.Color;
 import java.awt.Font;
 import java.awt.FontMetrics;
 import java.awt.Rectangle;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
-import javax.swing.ImageIcon;
-import java.awt.Image;
 
-public class PortalNPC {
+public class PortalNPC implements Collidable {
     private int x, y;
     private int width, height;
-    private Image gifImage;
+    // Frames del GIF empaquetados en un atlas; el visible se calcula con el reloj de juego
+    private Sprite[] frames;
+    private long frameDelay;
+    private final GameClock clock;
 
     // Conversación: Iris tiene 2 mensajes y Viajero 2 mensajes.
     private final String[] conversation = {
@@ -31,17 +40,19 @@ public class PortalNPC {
     // La duración total de la conversación se calcula a partir del número de mensajes
     private final long TOTAL_MESSAGE_DURATION = conversation.length * MESSAGE_PER_MESSAGE;
 
-    public PortalNPC(int x, int y, int width, int height, String gifPath) {
+    public PortalNPC(int x, int y, int width, int height, String gifPath, GameClock clock) {
+        this.clock = clock;
         this.x = x;
         this.y = y;
         this.width = width;
         this.height = height;
-        try {
-            // Cargar el gif; ImageIcon gestiona la animación
-            gifImage = new ImageIcon(getClass().getResource(gifPath)).getImage();
-        } catch (Exception e) {
-            System.err.println("Error al cargar el gif del NPC: " + e.getMessage());
-            gifImage = null;
+        if (Headless.isEnabled()) {
+            return;
+        }
+        ImageLoader.Frames gif = ImageLoader.loadFrames(gifPath, width, height);
+        if (gif != null) {
+            frames = SpriteAtlas.pack(Arrays.asList(gif.images));
+            frameDelay = gif.delay;
         }
     }
 
@@ -51,7 +62,7 @@ public class PortalNPC {
     public void triggerMessage() {
         if (!showMessage) {
             showMessage = true;
-            messageStartTime = System.currentTimeMillis();
+            messageStartTime = clock.millis();
         }
     }
 
@@ -60,7 +71,7 @@ public class PortalNPC {
      */
     public boolean isMessageActive() {
         if (showMessage) {
-            long elapsed = System.currentTimeMillis() - messageStartTime;
+            long elapsed = clock.millis() - messageStartTime;
             if (elapsed < TOTAL_MESSAGE_DURATION) {
                 return true;
             } else {
@@ -70,29 +81,47 @@ public class PortalNPC {
         return false;
     }
 
+    /**
+     * Obtiene el índice del mensaje de la conversación que se debe mostrar.
+     *
+     * @return Índice del mensaje actual, o -1 si la conversación no está activa.
+     */
+    public int getMessageIndex() {
+        if (!isMessageActive()) {
+            return -1;
+        }
+        long elapsed = clock.millis() - messageStartTime;
+        return (int) Math.min(elapsed / MESSAGE_PER_MESSAGE, conversation.length - 1);
+    }
+
     /**
      * Dibuja el NPC y, si la conversación está activa, muestra el mensaje actual.
      *
      * @param g Objeto Graphics para el dibujo.
      */
     public void draw(Graphics g) {
+        draw(g, getMessageIndex());
+    }
+
+    /**
+     * Dibuja el NPC con el mensaje indicado, sin consultar el estado de la conversación.
+     * Se usa al pintar a partir de un estado capturado por la simulación.
+     *
+     * @param g            Objeto Graphics para el dibujo.
+     * @param messageIndex Índice del mensaje a mostrar, o -1 para no mostrar ninguno.
+     */
+    public void draw(Graphics g, int messageIndex) {
         // Dibujar la imagen del NPC
-        if (gifImage != null) {
-            g.drawImage(gifImage, x, y, width, height, null);
+        if (frames != null) {
+            frames[(int) ((clock.millis() / frameDelay) % frames.length)].draw(g, x, y, width, height);
         } else {
             g.setColor(Color.GRAY);
             g.fillRect(x, y, width, height);
         }
 
         // Dibujar el mensaje de conversación si está activo
-        if (isMessageActive()) {
-            long elapsed = System.currentTimeMillis() - messageStartTime;
-            // Calcular qué mensaje se debe mostrar
-            int index = (int)(elapsed / MESSAGE_PER_MESSAGE);
-            if(index >= conversation.length) {
-                index = conversation.length - 1;
-            }
-            String message = conversation[index];
+        if (messageIndex >= 0) {
+            String message = conversation[messageIndex];
 
             int maxWidth = 280;
             Font font = g.getFont();
@@ -168,6 +197,18 @@ public class PortalNPC {
      * @return Un objeto Rectangle que representa su hitbox.
      */
     public Rectangle getBounds() {
-        return new Rectangle(x, y, width, height);
+        return getBounds(new Rectangle());
+    }
+
+    /**
+     * Escribe en {@code out} el área de colisión, sin reservar memoria.
+     *
+     * @param out Rectángulo que se sobrescribe.
+     * @return El mismo {@code out}, para encadenar llamadas.
+     */
+    @Override
+    public Rectangle getBounds(Rectangle out) {
+        out.setBounds(x, y, width, height);
+        return out;
     }
 }
@@ -1,8 +1,13 @@
 package game.objects;
 
+import game.engine.GameClock;
+import game.engine.Headless;
+import game.engine.ImageLoader;
+import game.panlesBBDD.map.colisionsTools.Collidable;
+
 import java.awt.*;
-import javax.swing.ImageIcon;
 import java.net.URL;
+import java.util.Random;
 import javax.sound.sampled.*;
 
 /**
@@ -12,7 +17,7 @@ import javax.sound.sampled.*;
  * 3. Luego cae verticalmente; si el jugador colisiona con ella durante la caída, se dispara la mecánica de muerte.
  * Al salir del área de juego, desaparece.
  */
-public class Stalactite {
+public class Stalactite implements Collidable {
     private int initialX, initialY; // Posición inicial
     private int x, y;              // Posición actual
     private int width, height;
@@ -22,6 +27,9 @@ public class Stalactite {
     // Estados: 0 = esperando, 1 = vibrando, 2 = cayendo, 3 = desaparecida
     private int state;
     private long stateStartTime;
+    private final GameClock clock;
+    private final Random random;
+    private final Rectangle bounds = new Rectangle(); // Reutilizado en checkCollision
     private final long vibrationDuration = 1000; // 1 segundo de vibración
     private final int fallSpeed = 20;            // Velocidad de caída aumentada a 20 px/actualización
     // Rango de detección horizontal (ahora mayor)
@@ -31,7 +39,9 @@ public class Stalactite {
     private Clip fallSound;
     private final String soundPath = "/resources/sound/estalactita.wav"; // Ajusta la ruta según corresponda
 
-    public Stalactite(int x, int y, int width, int height, String imagePath) {
+    public Stalactite(int x, int y, int width, int height, String imagePath, GameClock clock, Random random) {
+        this.clock = clock;
+        this.random = random;
         this.initialX = x;
         this.initialY = y;
         this.x = x;
@@ -40,16 +50,11 @@ public class Stalactite {
         this.height = height;
         this.active = true;
         this.state = 0; // esperando
-        this.stateStartTime = System.currentTimeMillis();
-        try {
-            URL url = getClass().getResource(imagePath);
-            if (url != null) {
-                image = new ImageIcon(url).getImage();
-            }
-        } catch(Exception e) {
-            System.err.println("Error al cargar la imagen de la estalactita: " + e.getMessage());
-            image = null;
+        this.stateStartTime = clock.millis();
+        if (Headless.isEnabled()) {
+            return;
         }
+        image = ImageLoader.load(imagePath, width, height);
         loadFallSound();
     }
 
@@ -87,14 +92,14 @@ public class Stalactite {
             int playerCenterX = playerBounds.x + playerBounds.width / 2;
             if (Math.abs(playerCenterX - stalactiteCenterX) <= detectionThreshold) {
                 state = 1; // vibrando
-                stateStartTime = System.currentTimeMillis();
+                stateStartTime = clock.millis();
             }
         }
         // Estado 1: vibrando.
         else if (state == 1) {
-            long elapsed = System.currentTimeMillis() - stateStartTime;
+            long elapsed = clock.millis() - stateStartTime;
             if (elapsed < vibrationDuration) {
-                x = initialX + (int)(Math.random() * 10 - 5);
+                x = initialX + (int)(random.nextDouble() * 10 - 5);
             } else {
                 x = initialX;
                 state = 2;
@@ -117,6 +122,17 @@ public class Stalactite {
      */
     public void draw(Graphics g) {
         if (!active) return;
+        drawAt(g, x, y);
+    }
+
+    /**
+     * Dibuja la estalactita en la posición indicada, sin consultar su estado actual.
+     * Se usa al pintar a partir de un estado capturado por la simulación.
+     * @param g Objeto Graphics para el dibujo.
+     * @param x Coordenada X.
+     * @param y Coordenada Y.
+     */
+    public void drawAt(Graphics g, int x, int y) {
         if (image != null) {
             g.drawImage(image, x, y, width, height, null);
         } else {
@@ -130,7 +146,34 @@ public class Stalactite {
      * @return Rectangle representando su hitbox.
      */
     public Rectangle getBounds() {
-        return new Rectangle(x, y, width, height);
+        return getBounds(new Rectangle());
+    }
+
+    /**
+     * Escribe en {@code out} el área de colisión, sin reservar memoria.
+     * @param out Rectángulo que se sobrescribe.
+     * @return El mismo {@code out}, para encadenar llamadas.
+     */
+    @Override
+    public Rectangle getBounds(Rectangle out) {
+        out.setBounds(x, y, width, height);
+        return out;
+    }
+
+    /**
+     * Obtiene la coordenada X actual (incluida la vibración).
+     * @return Coordenada X en píxeles.
+     */
+    public int getX() {
+        return x;
+    }
+
+    /**
+     * Obtiene la coordenada Y actual.
+     * @return Coordenada Y en píxeles.
+     */
+    public int getY() {
+        return y;
     }
 
     /**
@@ -148,7 +191,7 @@ public class Stalactite {
      */
     public boolean checkCollision(Rectangle playerBounds) {
         if (active && state == 2) {
-            return getBounds().intersects(playerBounds);
+            return getBounds(bounds).intersects(playerBounds);
         }
         return false;
     }
@@ -161,7 +204,7 @@ public class Stalactite {
         this.y = initialY;
         this.active = true;
         this.state = 0;
-        this.stateStartTime = System.currentTimeMillis();
+        this.stateStartTime = clock.millis();
         // Reiniciar el sonido, si es necesario, reiniciándolo al cargarlo de nuevo
         if (fallSound != null && fallSound.isRunning()) {
             fallSound.stop();
@@ -0,0 +1,43 @@
+package game.effects;
+
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Integración de partículas con la Vector API: cada instrucción procesa tantas partículas como
+ * carriles tiene el ancho de vector preferido de la CPU, y el resto del tramo se completa con
+ * el bucle escalar. La multiplicación y la suma se redondean por separado, igual que en
+ * {@link ScalarIntegrationKernel}, de modo que ambos dan el mismo resultado.
+ * <p>
+ * Solo se carga a través de {@link IntegrationKernel#preferred()} o
+ * {@link IntegrationKernel#vector()} cuando el módulo {@code jdk.incubator.vector} está presente.
+ * </p>
+ */
+final class VectorIntegrationKernel implements IntegrationKernel {
+    private static final VectorSpecies<Float> SPECIES = FloatVector.SPECIES_PREFERRED;
+
+    VectorIntegrationKernel() {
+    }
+
+    @Override
+    public void integrate(float[] x, float[] y, float[] dx, float[] dy, float[] life, int from, int to, float speed) {
+        int i = from;
+        int upper = from + SPECIES.loopBound(to - from);
+        for (; i < upper; i += SPECIES.length()) {
+            FloatVector.fromArray(SPECIES, x, i)
+                    .add(FloatVector.fromArray(SPECIES, dx, i).mul(speed))
+                    .intoArray(x, i);
+            FloatVector.fromArray(SPECIES, y, i)
+                    .add(FloatVector.fromArray(SPECIES, dy, i).mul(speed))
+                    .intoArray(y, i);
+            FloatVector.fromArray(SPECIES, life, i)
+                    .sub(1f)
+                    .intoArray(life, i);
+        }
+        for (; i < to; i++) {
+            x[i] += dx[i] * speed;
+            y[i] += dy[i] * speed;
+            life[i] -= 1;
+        }
+    }
+}